@@ -0,0 +1,76 @@
+package com.mjsec.ctf.config;
+
+import com.mjsec.ctf.service.ContestMetrics;
+import com.mjsec.ctf.type.TrafficClass;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/*
+ * 트래픽 분류별 벌크헤드 실행기
+ * - 요청 스레드(Tomcat)는 WebAsyncTask 로 바로 반납하고, 실제 처리는 분류별 전용 스레드에서 수행
+ *   → 다운로드 폭주/관리자 전체 재계산이 제출 처리 스레드와 Tomcat 워커를 점유하지 않음
+ * - 스레드 수 고정 + 대기열 한도: 가득 차면 대기시키지 않고 바로 거절 → GlobalExceptionHandler 가 503 + Retry-After
+ * - 대기열 깊이/처리 중 작업 수는 ctf.bulkhead.queued / active{class} 로 노출 (MetricsConfig)
+ * - 가상 스레드 모드(ThreadMode)에서는 같은 한도로 가상 스레드를 사용
+ */
+@Configuration
+public class BulkheadConfig {
+
+    private final ContestMetrics contestMetrics;
+    private final ThreadMode threadMode;
+
+    public BulkheadConfig(ContestMetrics contestMetrics, ThreadMode threadMode) {
+        this.contestMetrics = contestMetrics;
+        this.threadMode = threadMode;
+    }
+
+    @Bean(name = "submitBulkheadExecutor")
+    public ThreadPoolTaskExecutor submitBulkheadExecutor(
+            @Value("${ctf.bulkhead.submit.threads:32}") int threads,
+            @Value("${ctf.bulkhead.submit.queue-capacity:256}") int queueCapacity) {
+        return bulkhead(TrafficClass.SUBMIT, "bulkhead-submit-", threads, queueCapacity);
+    }
+
+    @Bean(name = "downloadBulkheadExecutor")
+    public ThreadPoolTaskExecutor downloadBulkheadExecutor(
+            @Value("${ctf.bulkhead.download.threads:8}") int threads,
+            @Value("${ctf.bulkhead.download.queue-capacity:32}") int queueCapacity) {
+        return bulkhead(TrafficClass.DOWNLOAD, "bulkhead-download-", threads, queueCapacity);
+    }
+
+    @Bean(name = "adminBulkheadExecutor")
+    public ThreadPoolTaskExecutor adminBulkheadExecutor(
+            @Value("${ctf.bulkhead.admin.threads:2}") int threads,
+            @Value("${ctf.bulkhead.admin.queue-capacity:8}") int queueCapacity) {
+        return bulkhead(TrafficClass.ADMIN, "bulkhead-admin-", threads, queueCapacity);
+    }
+
+    private ThreadPoolTaskExecutor bulkhead(TrafficClass trafficClass, String prefix, int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        // 고정 크기: 대기열이 찬 뒤 스레드를 늘리지 않고 바로 거절
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(prefix);
+        // 가상 스레드 모드에서도 풀 크기/대기열 한도는 유지 (스레드 비용이 아니라 분류별 동시 처리 상한)
+        if (threadMode.isVirtual()) {
+            executor.setThreadFactory(threadMode.factory(prefix));
+        }
+
+        // 거절 정책: 호출 스레드에서 실행하지 않음 (CallerRunsPolicy 는 다시 Tomcat 워커를 점유)
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            contestMetrics.bulkheadRejected(trafficClass);
+            throw new RejectedExecutionException(trafficClass + " 벌크헤드 포화");
+        });
+
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,26 +1,48 @@
 package com.mjsec.ctf.config;
 
 import com.mjsec.ctf.filter.AccessControlFilter;
+import com.mjsec.ctf.filter.ProfiledFilter;
+import com.mjsec.ctf.filter.RequestProfilingFilter;
 import com.mjsec.ctf.service.ContestConfigService;
+import com.mjsec.ctf.service.FilterLatencyProfiler;
+import jakarta.servlet.DispatcherType;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 
 @Configuration
 public class FilterConfig {
 
     private final ContestConfigService contestConfigService;
+    private final FilterLatencyProfiler filterLatencyProfiler;
 
-    public FilterConfig(ContestConfigService contestConfigService) {
+    public FilterConfig(ContestConfigService contestConfigService, FilterLatencyProfiler filterLatencyProfiler) {
         this.contestConfigService = contestConfigService;
+        this.filterLatencyProfiler = filterLatencyProfiler;
     }
 
+    // 필터 지연 측정 시작점 (스프링 시큐리티 체인보다 바깥)
     @Bean
-    public FilterRegistrationBean<AccessControlFilter> accessControlFilter() {
+    public FilterRegistrationBean<RequestProfilingFilter> requestProfilingFilter() {
 
-        FilterRegistrationBean<AccessControlFilter> registrationBean = new FilterRegistrationBean<>();
+        FilterRegistrationBean<RequestProfilingFilter> registrationBean = new FilterRegistrationBean<>();
 
-        registrationBean.setFilter(new AccessControlFilter(contestConfigService));
+        registrationBean.setFilter(new RequestProfilingFilter(filterLatencyProfiler));
+        registrationBean.addUrlPatterns("/*");
+        // 비동기 디스패치까지 받아 WebAsyncTask 요청도 끝까지 측정
+        registrationBean.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE);
+
+        return registrationBean;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ProfiledFilter> accessControlFilter() {
+
+        FilterRegistrationBean<ProfiledFilter> registrationBean = new FilterRegistrationBean<>();
+
+        registrationBean.setFilter(new ProfiledFilter(new AccessControlFilter(contestConfigService)));
         registrationBean.addUrlPatterns("/*");
 
         return registrationBean;
@@ -0,0 +1,86 @@
+package com.mjsec.ctf.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/*
+ * team 테이블의 레거시 JSON 컬럼(member_user_ids, solved_challenge_ids) 읽기/정리 (이관 전용)
+ * - 엔티티 매핑에서는 제거되었으므로 JDBC로 직접 조회
+ * - 신규 설치처럼 컬럼이 없으면 빈 결과
+ * - 매핑 해제 이후 더 이상 갱신되지 않는 스냅샷이므로 한 번만 이관해야 함
+ *   → 이관 트랜잭션 안에서 read(행 잠금) 후 clear 로 비워, 다음 기동부터는 읽을 값이 없음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LegacyTeamJsonReader {
+
+    public static final String MEMBER_USER_IDS = "member_user_ids";
+    public static final String SOLVED_CHALLENGE_IDS = "solved_challenge_ids";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    // 반환값: teamId → ID 목록 (삭제되지 않은 팀만)
+    // 트랜잭션 안에서 호출: 값이 남은 행을 잠가 여러 인스턴스가 동시에 기동해도 한 곳만 이관
+    public Map<Long, List<Long>> read(String column) {
+        if (!hasColumn(column)) {
+            return Map.of();
+        }
+
+        Map<Long, List<Long>> result = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT team_id, deleted_at, CAST(" + column + " AS CHAR) FROM team WHERE " + column + " IS NOT NULL FOR UPDATE",
+                rs -> {
+                    if (rs.getObject(2) != null) {
+                        return; // 삭제된 팀은 이관하지 않음 (clear 로 함께 비움)
+                    }
+                    long teamId = rs.getLong(1);
+                    result.put(teamId, parseIds(teamId, rs.getString(3)));
+                });
+        return result;
+    }
+
+    // 이관을 마친 컬럼 값을 비움 (read 와 같은 트랜잭션에서 호출), 반환값: 비운 팀 수
+    public int clear(String column) {
+        if (!hasColumn(column)) {
+            return 0;
+        }
+        return jdbcTemplate.update("UPDATE team SET " + column + " = NULL WHERE " + column + " IS NOT NULL");
+    }
+
+    private boolean hasColumn(String column) {
+        if (!MEMBER_USER_IDS.equals(column) && !SOLVED_CHALLENGE_IDS.equals(column)) {
+            throw new IllegalArgumentException("Unsupported legacy column: " + column);
+        }
+
+        Integer exists = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.COLUMNS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'team' AND COLUMN_NAME = ?",
+                Integer.class, column);
+        return exists != null && exists > 0;
+    }
+
+    // 일부 환경에서 문자열 배열로 저장된 이력이 있어 원소 타입과 무관하게 변환
+    private List<Long> parseIds(long teamId, String json) {
+        List<Long> ids = new ArrayList<>();
+        try {
+            for (Object raw : objectMapper.readValue(json, new TypeReference<List<Object>>() {})) {
+                try {
+                    ids.add(Long.valueOf(String.valueOf(raw)));
+                } catch (NumberFormatException e) {
+                    log.warn("[레거시 JSON] 잘못된 ID 무시: teamId={}, value={}", teamId, raw);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("[레거시 JSON] 파싱 실패: teamId={}, err={}", teamId, e.getMessage());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,99 @@
+package com.mjsec.ctf.config;
+
+import com.mjsec.ctf.alert.AlertDispatcher;
+import com.mjsec.ctf.alert.AlertService;
+import com.mjsec.ctf.service.EmailOutbox;
+import com.mjsec.ctf.service.NotificationOutbox;
+import com.mjsec.ctf.service.SubmitLimiter;
+import com.mjsec.ctf.type.TrafficClass;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/*
+ * 내부 큐/아웃박스 지표 등록
+ * - 제출 부하는 벌크헤드 실행기(BulkheadConfig)와 SubmitLimiter 가 받으므로 이 둘을 직접 노출
+ *   · ctf.bulkhead.queued / active / threads{class} : 분류별 실행기 대기열 깊이, 처리 중 작업 수, 풀 크기
+ *     (가상 스레드 모드에서도 같은 ThreadPoolTaskExecutor 이므로 그대로 유효)
+ *   · ctf.submit.limit / in_flight : 적응형 제출 한도와 처리 중인 제출 수
+ * - 그 밖에 자체 큐를 가진 컴포넌트의 stats() 를 조회 시점에 읽어 노출
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder emailOutboxMetrics(EmailOutbox emailOutbox) {
+        return registry -> {
+            Gauge.builder("ctf.mail.outbox.queued", emailOutbox, o -> o.stats().queued())
+                    .description("발송 대기 중인 인증 메일 수").register(registry);
+            FunctionCounter.builder("ctf.mail.outbox.sent", emailOutbox, o -> o.stats().sent()).register(registry);
+            FunctionCounter.builder("ctf.mail.outbox.failed", emailOutbox, o -> o.stats().failed()).register(registry);
+            FunctionCounter.builder("ctf.mail.outbox.rejected", emailOutbox, o -> o.stats().rejected()).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder notificationOutboxMetrics(NotificationOutbox notificationOutbox) {
+        return registry -> {
+            FunctionCounter.builder("ctf.notification.outbox.sent", notificationOutbox, o -> o.stats().sent()).register(registry);
+            FunctionCounter.builder("ctf.notification.outbox.retried", notificationOutbox, o -> o.stats().retried()).register(registry);
+            FunctionCounter.builder("ctf.notification.outbox.failed", notificationOutbox, o -> o.stats().failed()).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder bulkheadMetrics(@Qualifier("submitBulkheadExecutor") ThreadPoolTaskExecutor submitExecutor,
+                                       @Qualifier("downloadBulkheadExecutor") ThreadPoolTaskExecutor downloadExecutor,
+                                       @Qualifier("adminBulkheadExecutor") ThreadPoolTaskExecutor adminExecutor) {
+        Map<TrafficClass, ThreadPoolTaskExecutor> executors = Map.of(
+                TrafficClass.SUBMIT, submitExecutor,
+                TrafficClass.DOWNLOAD, downloadExecutor,
+                TrafficClass.ADMIN, adminExecutor);
+        return registry -> executors.forEach((trafficClass, executor) -> {
+            String tag = trafficClass.name().toLowerCase();
+            Gauge.builder("ctf.bulkhead.queued", executor, ThreadPoolTaskExecutor::getQueueSize)
+                    .description("벌크헤드 실행기 대기열에 쌓인 작업 수").tag("class", tag).register(registry);
+            Gauge.builder("ctf.bulkhead.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                    .description("벌크헤드 실행기에서 처리 중인 작업 수").tag("class", tag).register(registry);
+            Gauge.builder("ctf.bulkhead.threads", executor, ThreadPoolTaskExecutor::getMaxPoolSize)
+                    .description("벌크헤드 실행기 스레드 수").tag("class", tag).register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder submitLimiterMetrics(SubmitLimiter submitLimiter) {
+        return registry -> {
+            Gauge.builder("ctf.submit.limit", submitLimiter, l -> l.stats().limit())
+                    .description("제출 동시 처리 한도 (적응형)").register(registry);
+            Gauge.builder("ctf.submit.in_flight", submitLimiter, l -> l.stats().inFlight())
+                    .description("처리 중인 제출 수").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder alertDispatcherMetrics(AlertService alertService) {
+        return registry -> {
+            // 알림 비활성(엔드포인트 미설정) 시 stats() 는 null → 0
+            Gauge.builder("ctf.alert.queued", alertService, alertStat(AlertDispatcher.Stats::queued))
+                    .description("전송 대기 중인 차단 알림 수").register(registry);
+            Gauge.builder("ctf.alert.in_flight", alertService, alertStat(AlertDispatcher.Stats::inFlight)).register(registry);
+            FunctionCounter.builder("ctf.alert.delivered", alertService, alertStat(AlertDispatcher.Stats::delivered)).register(registry);
+            FunctionCounter.builder("ctf.alert.dropped", alertService, alertStat(AlertDispatcher.Stats::dropped)).register(registry);
+            FunctionCounter.builder("ctf.alert.failed", alertService, alertStat(AlertDispatcher.Stats::failed)).register(registry);
+        };
+    }
+
+    private static ToDoubleFunction<AlertService> alertStat(ToDoubleFunction<AlertDispatcher.Stats> field) {
+        return service -> {
+            AlertDispatcher.Stats stats = service.stats();
+            return stats == null ? 0 : field.applyAsDouble(stats);
+        };
+    }
+}
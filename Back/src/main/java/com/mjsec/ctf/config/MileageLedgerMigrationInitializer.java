@@ -0,0 +1,55 @@
+package com.mjsec.ctf.config;
+
+import com.mjsec.ctf.domain.MileageLedgerEntity;
+import com.mjsec.ctf.domain.TeamEntity;
+import com.mjsec.ctf.repository.MileageLedgerRepository;
+import com.mjsec.ctf.repository.TeamRepository;
+import com.mjsec.ctf.type.MileageReason;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * 마일리지 원장 도입 시 기존 잔액 이월
+ * - 원장 기록이 하나도 없는 팀의 현재 잔액을 OPENING 항목으로 기록 → 원장 합계 = 잔액
+ * - 재실행 안전 (이미 원장이 있는 팀은 건너뜀)
+ */
+@Slf4j
+@Configuration
+public class MileageLedgerMigrationInitializer {
+
+    @Bean
+    public CommandLineRunner migrateMileageLedger(TeamRepository teamRepository,
+                                                  MileageLedgerRepository mileageLedgerRepository) {
+        return args -> {
+            Set<Long> teamsWithLedger = new HashSet<>(mileageLedgerRepository.findDistinctTeamIds());
+            LocalDateTime now = LocalDateTime.now();
+
+            List<MileageLedgerEntity> openings = new ArrayList<>();
+            for (TeamEntity team : teamRepository.findAll()) {
+                if (team.getMileage() == 0 || teamsWithLedger.contains(team.getTeamId())) {
+                    continue;
+                }
+                openings.add(MileageLedgerEntity.builder()
+                        .teamId(team.getTeamId())
+                        .delta(team.getMileage())
+                        .balanceAfter(team.getMileage())
+                        .reason(MileageReason.OPENING)
+                        .createdAt(now)
+                        .build());
+            }
+
+            if (!openings.isEmpty()) {
+                mileageLedgerRepository.saveAll(openings);
+                log.info("[마일리지 원장] 기존 잔액 이월: {} 팀", openings.size());
+            }
+        };
+    }
+}
@@ -3,6 +3,7 @@ package com.mjsec.ctf.config;
 import com.mjsec.ctf.filter.CustomLoginFilter;
 import com.mjsec.ctf.filter.CustomLogoutFilter;
 import com.mjsec.ctf.filter.IPBanFilter;
+import com.mjsec.ctf.filter.ProfiledFilter;
 import com.mjsec.ctf.filter.ThreatDetectionFilter;
 import com.mjsec.ctf.repository.BlacklistedTokenRepository;
 import com.mjsec.ctf.repository.RefreshRepository;
@@ -11,6 +12,7 @@ import com.mjsec.ctf.filter.JwtFilter;
 import com.mjsec.ctf.service.IPBanService;
 import com.mjsec.ctf.service.JwtService;
 import com.mjsec.ctf.service.ThreatDetectionService;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 
 import java.util.Arrays;
@@ -77,28 +79,38 @@ public class SecurityConfig {
         http.formLogin(form -> form.disable());
         http.httpBasic(basic -> basic.disable());
 
+        // 커스텀 필터는 모두 ProfiledFilter 로 감싸 자기 시간을 측정
+        // (래퍼 클래스가 같으므로 기준 필터는 스프링 시큐리티 기본 필터로 지정, 같은 위치는 등록 순서대로 실행)
+
         // IP 밴 필터 (최우선)
-        http.addFilterBefore(new IPBanFilter(ipBanService), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(new ProfiledFilter(new IPBanFilter(ipBanService)), UsernamePasswordAuthenticationFilter.class);
 
         // 로그인/로그아웃/JWT/공격탐지 필터
         http.addFilterBefore(
-                new CustomLoginFilter(userRepository, refreshRepository, jwtService, passwordEncoder, threatDetectionService),
+                new ProfiledFilter(new CustomLoginFilter(userRepository, refreshRepository, jwtService, passwordEncoder, threatDetectionService)),
                 UsernamePasswordAuthenticationFilter.class)
             .addFilterAfter(
-                new JwtFilter(jwtService, blacklistedTokenRepository, userRepository),
+                new ProfiledFilter(new JwtFilter(jwtService, blacklistedTokenRepository, userRepository)),
                 UsernamePasswordAuthenticationFilter.class)
             .addFilterBefore(
-                new CustomLogoutFilter(jwtService, refreshRepository, blacklistedTokenRepository),
+                new ProfiledFilter(new CustomLogoutFilter(jwtService, refreshRepository, blacklistedTokenRepository)),
                 LogoutFilter.class)
+            // JwtFilter 다음 (같은 위치에 JwtFilter 보다 나중에 등록)
             .addFilterAfter(
-                new ThreatDetectionFilter(threatDetectionService),
-                JwtFilter.class);
+                new ProfiledFilter(new ThreatDetectionFilter(threatDetectionService)),
+                UsernamePasswordAuthenticationFilter.class);
 
         // 인가 규칙 (특수 → 일반 순으로! 먼저 매칭되는 규칙이 적용됨)
         http.authorizeHttpRequests(auth -> auth
+            // 비동기 결과 재디스패치 (WebAsyncTask/SSE): 권한은 최초 요청에서 이미 검사됨
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
             // Swagger
             .requestMatchers("/swagger-ui/*", "/v3/api-docs/**").permitAll()
 
+            // 액추에이터 (management.server.port 로 분리된 내부 포트에서만 접근 가능)
+            .requestMatchers("/actuator/health", "/actuator/info", "/actuator/prometheus").permitAll()
+
             // CORS preflight
             .requestMatchers(HttpMethod.OPTIONS, "/api/**").permitAll()
 
@@ -0,0 +1,73 @@
+package com.mjsec.ctf.config;
+
+import com.mjsec.ctf.domain.UserEntity;
+import com.mjsec.ctf.repository.TeamRepository;
+import com.mjsec.ctf.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/*
+ * team.member_user_ids(JSON) → user_entity.current_team_id(인덱스) 정합성 이관
+ * - 팀 소속은 user_entity.current_team_id 하나로 관리 (idx_user_current_team)
+ * - JSON에는 있으나 current_team_id가 비어 있는 팀원만 채움, 다른 팀으로 지정된 경우는 현재 값 유지
+ * - 1회만 실행: 같은 트랜잭션에서 JSON 컬럼을 비움
+ *   (JSON 은 더 이상 갱신되지 않으므로, 다시 읽으면 팀원 삭제/탈퇴 처리된 유저가 예전 팀으로 복귀함)
+ */
+@Slf4j
+@Configuration
+public class TeamMemberMigrationInitializer {
+
+    @Bean
+    public CommandLineRunner migrateTeamMembers(LegacyTeamJsonReader legacyReader,
+                                                TeamRepository teamRepository,
+                                                UserRepository userRepository,
+                                                PlatformTransactionManager transactionManager) {
+        return args -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Map<Long, List<Long>> legacyMembers = legacyReader.read(LegacyTeamJsonReader.MEMBER_USER_IDS);
+            if (!legacyMembers.isEmpty()) {
+                backfill(legacyMembers, teamRepository, userRepository);
+            }
+
+            int cleared = legacyReader.clear(LegacyTeamJsonReader.MEMBER_USER_IDS);
+            if (cleared > 0) {
+                log.info("[팀원 이관] 레거시 member_user_ids 정리: {} 팀", cleared);
+            }
+        });
+    }
+
+    private void backfill(Map<Long, List<Long>> legacyMembers, TeamRepository teamRepository,
+                          UserRepository userRepository) {
+        Set<Long> liveTeamIds = new HashSet<>();
+        teamRepository.findAll().forEach(t -> liveTeamIds.add(t.getTeamId()));
+
+        Map<Long, Long> userToTeam = new HashMap<>();
+        legacyMembers.forEach((teamId, userIds) -> {
+            if (liveTeamIds.contains(teamId)) {
+                userIds.forEach(userId -> userToTeam.putIfAbsent(userId, teamId));
+            }
+        });
+
+        List<UserEntity> updated = new ArrayList<>();
+        for (UserEntity user : userRepository.findAllById(userToTeam.keySet())) {
+            Long legacyTeamId = userToTeam.get(user.getUserId());
+            if (user.getCurrentTeamId() == null) {
+                user.joinTeam(legacyTeamId);
+                updated.add(user);
+            } else if (!user.getCurrentTeamId().equals(legacyTeamId)) {
+                log.warn("[팀원 이관] 소속 불일치, 현재 값 유지: userId={}, current={}, legacy={}",
+                        user.getUserId(), user.getCurrentTeamId(), legacyTeamId);
+            }
+        }
+
+        if (!updated.isEmpty()) {
+            userRepository.saveAll(updated);
+            log.info("[팀원 이관] current_team_id 보정: {} 명", updated.size());
+        }
+    }
+}
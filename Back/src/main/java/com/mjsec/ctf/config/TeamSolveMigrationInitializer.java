@@ -0,0 +1,104 @@
+package com.mjsec.ctf.config;
+
+import com.mjsec.ctf.domain.ChallengeEntity;
+import com.mjsec.ctf.domain.TeamEntity;
+import com.mjsec.ctf.domain.TeamHistoryEntity;
+import com.mjsec.ctf.domain.TeamSolveEntity;
+import com.mjsec.ctf.repository.ChallengeRepository;
+import com.mjsec.ctf.repository.TeamHistoryRepository;
+import com.mjsec.ctf.repository.TeamRepository;
+import com.mjsec.ctf.repository.TeamSolveRepository;
+import com.mjsec.ctf.type.ChallengeCategory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/*
+ * team.solved_challenge_ids(JSON) → team_solve 테이블 이관
+ * - 레거시 컬럼은 엔티티에서 매핑 해제되어 LegacyTeamJsonReader로 읽음
+ * - 1회만 실행: 이관과 JSON 컬럼 비우기를 한 트랜잭션으로 처리 (읽을 때 team 행 잠금)
+ *   → JSON 은 더 이상 갱신되지 않으므로 다시 읽으면 관리자가 취소한 풀이가 되살아남
+ * - team_solve 에 이미 행이 있으면 예전 버전에서 이관이 끝난 것으로 보고 JSON 만 비움
+ * - solved_at: 팀 제출 히스토리 시각 → 없으면 팀 lastSolvedTime → 없으면 현재 시각
+ * - points_at_solve: 풀이 당시 값이 남아있지 않으므로 현재 문제 점수로 기록
+ */
+@Slf4j
+@Configuration
+public class TeamSolveMigrationInitializer {
+
+    @Bean
+    public CommandLineRunner migrateTeamSolves(LegacyTeamJsonReader legacyReader,
+                                               TeamRepository teamRepository,
+                                               TeamSolveRepository teamSolveRepository,
+                                               TeamHistoryRepository teamHistoryRepository,
+                                               ChallengeRepository challengeRepository,
+                                               PlatformTransactionManager transactionManager) {
+        return args -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Map<Long, List<Long>> legacySolves = legacyReader.read(LegacyTeamJsonReader.SOLVED_CHALLENGE_IDS);
+            if (!legacySolves.isEmpty()) {
+                if (teamSolveRepository.count() > 0) {
+                    log.info("[team_solve 이관] team_solve 에 기존 행이 있어 재적용하지 않음");
+                } else {
+                    backfill(legacySolves, teamRepository, teamSolveRepository, teamHistoryRepository, challengeRepository);
+                }
+            }
+
+            int cleared = legacyReader.clear(LegacyTeamJsonReader.SOLVED_CHALLENGE_IDS);
+            if (cleared > 0) {
+                log.info("[team_solve 이관] 레거시 solved_challenge_ids 정리: {} 팀", cleared);
+            }
+        });
+    }
+
+    private void backfill(Map<Long, List<Long>> legacySolves, TeamRepository teamRepository,
+                          TeamSolveRepository teamSolveRepository, TeamHistoryRepository teamHistoryRepository,
+                          ChallengeRepository challengeRepository) {
+        Map<Long, Integer> currentPoints = new HashMap<>();
+        for (ChallengeEntity c : challengeRepository.findAll()) {
+            currentPoints.put(c.getChallengeId(), c.getCategory() == ChallengeCategory.SIGNATURE ? 0 : c.getPoints());
+        }
+
+        Map<String, LocalDateTime> teamSolveTimes = new HashMap<>();
+        for (TeamHistoryEntity h : teamHistoryRepository.findAll()) {
+            if (h.getSolvedTime() != null) {
+                teamSolveTimes.merge(h.getTeamName() + ":" + h.getChallengeId(), h.getSolvedTime(),
+                        (a, b) -> a.isBefore(b) ? a : b);
+            }
+        }
+
+        List<TeamSolveEntity> rows = new ArrayList<>();
+        for (TeamEntity team : teamRepository.findAll()) {
+            Set<Long> seen = new HashSet<>();
+
+            for (Long challengeId : legacySolves.getOrDefault(team.getTeamId(), List.of())) {
+                // 삭제된 문제 / 중복 제외
+                if (!currentPoints.containsKey(challengeId) || !seen.add(challengeId)) {
+                    continue;
+                }
+
+                LocalDateTime solvedAt = teamSolveTimes.get(team.getTeamName() + ":" + challengeId);
+                if (solvedAt == null) {
+                    solvedAt = team.getLastSolvedTime() != null ? team.getLastSolvedTime() : LocalDateTime.now();
+                }
+
+                rows.add(TeamSolveEntity.builder()
+                        .teamId(team.getTeamId())
+                        .challengeId(challengeId)
+                        .solvedAt(solvedAt)
+                        .pointsAtSolve(currentPoints.get(challengeId))
+                        .build());
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            teamSolveRepository.saveAll(rows);
+            log.info("[team_solve 이관] 완료: {} 건", rows.size());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.mjsec.ctf.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/*
+ * 스레드 실행 모드 (플랫폼 / 가상 스레드)
+ * - 운영 기본값은 플랫폼 스레드. 가상 스레드 모드는 제출 지연은 줄지만 조회 지연이 늘어남 (docs/THREAD_MODE_LOAD_TEST.md)
+ * - spring.threads.virtual.enabled=true 이고 Java 21 이상에서 실행될 때만 가상 스레드 모드
+ *   → 스프링 부트가 Tomcat 요청 처리, applicationTaskExecutor, @Scheduled 스케줄러를 가상 스레드로 전환하고
+ *     직접 만든 실행기(벌크헤드, SSE/디바운서 스케줄러)는 여기서 스레드 팩토리를 받아 따름
+ * - 꺼져 있으면 기존과 같은 이름의 데몬 플랫폼 스레드
+ */
+@Component
+public class ThreadMode {
+
+    private final boolean virtual;
+
+    public ThreadMode(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public ThreadFactory factory(String namePrefix) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory();
+        }
+        CustomizableThreadFactory factory = new CustomizableThreadFactory(namePrefix);
+        factory.setDaemon(true);
+        return factory;
+    }
+}
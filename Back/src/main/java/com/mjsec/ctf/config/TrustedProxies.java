@@ -0,0 +1,79 @@
+package com.mjsec.ctf.config;
+
+import com.mjsec.ctf.util.IPAddressUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * 신뢰할 수 있는 프록시 기준 클라이언트 IP
+ * - IPAddressUtil.getClientIP 는 X-Forwarded-For 첫 값을 그대로 믿으므로 클라이언트가 임의로 바꿀 수 있음
+ *   → 요청 제한처럼 IP 를 키로 쓰는 곳은 이 클래스를 사용
+ * - 직접 연결한 주소(remoteAddr)가 신뢰 프록시일 때만 X-Forwarded-For 를 오른쪽부터 거슬러 올라가며
+ *   처음 만나는 신뢰하지 않는 주소를 클라이언트로 봄 (nginx 가 $proxy_add_x_forwarded_for 로 맨 뒤에 추가)
+ * - ctf.security.trusted-proxies: 쉼표 구분 IP 또는 접두사("10.", "172.18." 처럼 . / : 로 끝나는 값)
+ *   비어 있으면 루프백/사설망 주소를 프록시로 신뢰 (docker 네트워크 안의 nginx)
+ */
+@Component
+public class TrustedProxies {
+
+    private final List<String> entries;
+
+    public TrustedProxies(@Value("${ctf.security.trusted-proxies:}") String trustedProxies) {
+        this.entries = Arrays.stream(trustedProxies.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+
+    public String clientIp(HttpServletRequest request) {
+        String client = normalize(request.getRemoteAddr());
+        if (!isTrusted(client)) {
+            return client;
+        }
+
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded == null || forwarded.isBlank()) {
+            return client;
+        }
+
+        String[] hops = forwarded.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = normalize(hops[i].trim());
+            if (hop.isEmpty() || "unknown".equalsIgnoreCase(hop)) {
+                break;
+            }
+            client = hop;
+            if (!isTrusted(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrusted(String ip) {
+        if (entries.isEmpty()) {
+            return IPAddressUtil.isLocalIP(ip);
+        }
+        for (String entry : entries) {
+            boolean prefix = entry.endsWith(".") || entry.endsWith(":");
+            if (prefix ? ip.startsWith(entry) : ip.equals(entry)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(String ip) {
+        if (ip == null) {
+            return "";
+        }
+        if ("0:0:0:0:0:0:0:1".equals(ip) || "::1".equals(ip)) {
+            return "127.0.0.1";
+        }
+        return ip;
+    }
+}
@@ -2,6 +2,8 @@ package com.mjsec.ctf.controller;
 
 import com.mjsec.ctf.domain.ChallengeEntity;
 import com.mjsec.ctf.dto.AdminSolveRecordDto;
+import com.mjsec.ctf.dto.AdminSolveRecordPageDto;
+import com.mjsec.ctf.dto.RevocationReportDto;
 import com.mjsec.ctf.repository.ChallengeRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
@@ -10,7 +12,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import com.mjsec.ctf.dto.ChallengeDto;
+import com.mjsec.ctf.service.AdminSolveRecordService;
 import com.mjsec.ctf.service.ChallengeService;
+import com.mjsec.ctf.exception.RestApiException;
+import com.mjsec.ctf.type.ErrorCode;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,6 +32,7 @@ import java.util.stream.Collectors;
 public class AdminChallengeController {
     private final ChallengeService challengeService;
     private final ChallengeRepository challengeRepository;
+    private final AdminSolveRecordService adminSolveRecordService;
 
     @Operation(summary = "전체 문제 요약 조회", description = "관리자 권한으로 전체 문제 목록에서 문제 번호, 제목, 포인트, 카테고리를 조회합니다.")
     @PreAuthorize("hasRole('ADMIN')")
@@ -55,6 +66,42 @@ public class AdminChallengeController {
         return ResponseEntity.ok(records);
     }
 
+    @Operation(summary = "전체 제출 기록 페이지 조회", description = "관리자 권한으로 제출 기록을 시간순 키셋 페이지 단위로 조회합니다. 응답의 nextCursor를 cursor로 전달하면 다음 페이지를 조회합니다.")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/solve-records/page")
+    public ResponseEntity<AdminSolveRecordPageDto> getSolveRecordPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(adminSolveRecordService.getPage(cursor, size));
+    }
+
+    @Operation(summary = "전체 제출 기록 내보내기", description = "관리자 권한으로 전체 제출 기록을 CSV 또는 NDJSON으로 스트리밍 다운로드합니다. (format=csv|ndjson)")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/solve-records/export")
+    public ResponseEntity<StreamingResponseBody> exportSolveRecords(
+            @RequestParam(defaultValue = "csv") String format) {
+        HttpHeaders headers = new HttpHeaders();
+        StreamingResponseBody body;
+
+        if ("csv".equalsIgnoreCase(format)) {
+            headers.setContentType(MediaType.parseMediaType("text/csv; charset=UTF-8"));
+            headers.setContentDisposition(ContentDisposition.attachment()
+                    .filename(encodeFilename("solve_records.csv"))
+                    .build());
+            body = adminSolveRecordService::exportCsv;
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            headers.setContentType(MediaType.parseMediaType("application/x-ndjson; charset=UTF-8"));
+            headers.setContentDisposition(ContentDisposition.attachment()
+                    .filename(encodeFilename("solve_records.ndjson"))
+                    .build());
+            body = adminSolveRecordService::exportNdjson;
+        } else {
+            throw new RestApiException(ErrorCode.BAD_REQUEST, "지원하지 않는 형식입니다. (csv, ndjson)");
+        }
+
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
     @Operation(summary = "문제별 제출 기록 조회", description = "관리자 권한으로 특정 문제의 모든 제출 기록을 조회합니다.")
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/{challengeId}/solve-records")
@@ -79,11 +126,16 @@ public class AdminChallengeController {
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/solve-records/user/{loginId}")
     public ResponseEntity<Map<String, Object>> revokeAllSolveRecordsByUser(@PathVariable String loginId) {
-        int deletedCount = challengeService.revokeAllSolveRecordsByUser(loginId);
+        RevocationReportDto report = challengeService.revokeAllSolveRecordsByUser(loginId);
         Map<String, Object> response = new HashMap<>();
         response.put("message", "사용자의 모든 제출 기록이 성공적으로 삭제되었습니다.");
-        response.put("deletedCount", deletedCount);
+        response.put("deletedCount", report.getRevokedHistoryCount());
+        response.put("report", report);
         return ResponseEntity.ok(response);
     }
 
+    private String encodeFilename(String filename) {
+        return java.net.URLEncoder.encode(filename, StandardCharsets.UTF_8)
+                .replaceAll("\\+", "%20");
+    }
 }
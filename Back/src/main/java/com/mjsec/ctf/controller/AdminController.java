@@ -1,21 +1,33 @@
 package com.mjsec.ctf.controller;
 
+import com.mjsec.ctf.alert.AlertDispatcher;
+import com.mjsec.ctf.alert.AlertService;
 import com.mjsec.ctf.domain.IPBanEntity;
 import com.mjsec.ctf.domain.UserEntity;
 import com.mjsec.ctf.dto.ChallengeDto;
 import com.mjsec.ctf.dto.ContestConfigDto;
+import com.mjsec.ctf.dto.FilterProfileDto;
 import com.mjsec.ctf.dto.GrantMileageDto;
 import com.mjsec.ctf.dto.IPBanDto;
+import com.mjsec.ctf.dto.MileageReconcileDto;
+import com.mjsec.ctf.dto.RevocationReportDto;
 import com.mjsec.ctf.dto.SuccessResponse;
 import com.mjsec.ctf.dto.TeamPaymentHistoryDto;
+import com.mjsec.ctf.dto.TeamPaymentHistoryPageDto;
+import com.mjsec.ctf.dto.TeamRecalculationReportDto;
 import com.mjsec.ctf.dto.TeamSummaryDto;
 import com.mjsec.ctf.dto.UserDto;
+import com.mjsec.ctf.service.AdminPaymentHistoryService;
+import com.mjsec.ctf.service.Bulkhead;
 import com.mjsec.ctf.service.ChallengeService;
 import com.mjsec.ctf.service.ContestConfigService;
+import com.mjsec.ctf.service.FilterLatencyProfiler;
 import com.mjsec.ctf.service.IPBanService;
+import com.mjsec.ctf.service.MileageLedgerService;
 import com.mjsec.ctf.service.TeamService;
 import com.mjsec.ctf.service.UserService;
 import com.mjsec.ctf.type.ResponseMessage;
+import com.mjsec.ctf.type.TrafficClass;
 import com.mjsec.ctf.util.IPAddressUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import io.swagger.v3.oas.annotations.Operation;
@@ -28,6 +40,8 @@ import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -46,7 +60,12 @@ public class AdminController {
     private final ContestConfigService contestConfigService;
     private final com.mjsec.ctf.service.PaymentService paymentService;
     private final IPBanService ipBanService;
+    private final MileageLedgerService mileageLedgerService;
+    private final AdminPaymentHistoryService adminPaymentHistoryService;
     private final com.mjsec.ctf.service.IPWhitelistService ipWhitelistService;
+    private final AlertService alertService;
+    private final FilterLatencyProfiler filterLatencyProfiler;
+    private final Bulkhead bulkhead;
 
     // -------------------------------
     // Challenge 관리
@@ -266,14 +285,27 @@ public class AdminController {
                 .body(SuccessResponse.of(ResponseMessage.GRANT_MILEAGE_SUCCESS));
     }
 
+    @Operation(summary = "마일리지 원장 대조", description = "팀 마일리지 잔액과 원장 합계를 대조합니다. apply=true 이면 원장 기준으로 잔액을 보정합니다.")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/mileage/reconcile")
+    public ResponseEntity<SuccessResponse<List<MileageReconcileDto>>> reconcileMileage(
+            @RequestParam(required = false, defaultValue = "false") boolean apply
+    ) {
+        List<MileageReconcileDto> mismatches = mileageLedgerService.reconcile(apply);
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(SuccessResponse.of(ResponseMessage.RECONCILE_MILEAGE_SUCCESS, mismatches));
+    }
+
     @Operation(summary = "팀 삭제", description = "관리자 권한으로 팀을 삭제합니다. 팀 제출 히스토리도 함께 삭제되며, 팀원들은 삭제되지 않고 팀 소속만 해제됩니다.")
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/team/delete/{teamName}")
-    public ResponseEntity<SuccessResponse<Void>> deleteTeam(@PathVariable String teamName) {
-        teamService.deleteTeam(teamName);
-        log.info("관리자에 의해 팀 {} 삭제 완료", teamName);
-        return ResponseEntity.status(HttpStatus.OK)
-                .body(SuccessResponse.of(ResponseMessage.DELETE_TEAM_SUCCESS));
+    public WebAsyncTask<ResponseEntity<SuccessResponse<RevocationReportDto>>> deleteTeam(@PathVariable String teamName) {
+        return bulkhead.run(TrafficClass.ADMIN, () -> {
+            RevocationReportDto report = teamService.deleteTeam(teamName);
+            log.info("관리자에 의해 팀 {} 삭제 완료", teamName);
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(SuccessResponse.of(ResponseMessage.DELETE_TEAM_SUCCESS, report));
+        });
     }
 
     // -------------------------------
@@ -289,6 +321,31 @@ public class AdminController {
                 .body(SuccessResponse.of(ResponseMessage.GET_ALL_PAYMENT_HISTORY_SUCCESS, history));
     }
 
+    @Operation(summary = "결제 히스토리 페이지 조회", description = "관리자 권한으로 결제 히스토리를 최신순 키셋 페이지 단위로 조회합니다. 응답의 nextCursor를 cursor로 전달하면 다음 페이지를 조회합니다.")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/payment/history/page")
+    public ResponseEntity<SuccessResponse<TeamPaymentHistoryPageDto>> getPaymentHistoryPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        TeamPaymentHistoryPageDto page = adminPaymentHistoryService.getPage(cursor, size);
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(SuccessResponse.of(ResponseMessage.GET_ALL_PAYMENT_HISTORY_SUCCESS, page));
+    }
+
+    @Operation(summary = "결제 히스토리 내보내기", description = "관리자 권한으로 정산용 전체 결제 히스토리를 CSV로 스트리밍 다운로드합니다.")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/payment/history/export")
+    public ResponseEntity<StreamingResponseBody> exportPaymentHistory() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv; charset=UTF-8"));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(encodeFilename("payment_history.csv"))
+                .build());
+        StreamingResponseBody body = adminPaymentHistoryService::exportCsv;
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
     @Operation(summary = "결제 철회", description = "관리자 권한으로 결제를 철회하고 마일리지를 환불합니다.")
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/payment/refund/{paymentHistoryId}")
@@ -307,16 +364,30 @@ public class AdminController {
     @Operation(summary = "점수 재계산", description = "관리자 권한으로 모든 팀의 점수를 재계산합니다.")
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping("/recalculate-points")
-    public ResponseEntity<String> recalculatePoints() {
-        try {
-            log.info("Manual points recalculation started by admin");
-            challengeService.updateAllTeamTotalPoints();
-            log.info("Manual points recalculation completed");
-            return ResponseEntity.ok("점수 재계산 완료");
-        } catch (Exception e) {
-            log.error("점수 재계산 중 오류 발생: ", e);
-            return ResponseEntity.status(500).body("점수 재계산 실패: " + e.getMessage());
-        }
+    public WebAsyncTask<ResponseEntity<String>> recalculatePoints() {
+        return bulkhead.run(TrafficClass.ADMIN, () -> {
+            try {
+                log.info("Manual points recalculation started by admin");
+                challengeService.updateAllTeamTotalPoints();
+                log.info("Manual points recalculation completed");
+                return ResponseEntity.ok("점수 재계산 완료");
+            } catch (Exception e) {
+                log.error("점수 재계산 중 오류 발생: ", e);
+                return ResponseEntity.status(500).body("점수 재계산 실패: " + e.getMessage());
+            }
+        });
+    }
+
+    @Operation(summary = "점수 재계산 (리포트)", description = "관리자 권한으로 모든 팀의 점수를 재계산하고 단계별 소요시간과 변경된 팀 목록을 반환합니다.")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/recalculate-points/report")
+    public WebAsyncTask<ResponseEntity<SuccessResponse<TeamRecalculationReportDto>>> recalculatePointsWithReport() {
+        return bulkhead.run(TrafficClass.ADMIN, () -> {
+            log.info("Manual points recalculation (report) started by admin");
+            TeamRecalculationReportDto report = challengeService.updateAllTeamTotalPoints();
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(SuccessResponse.of(report));
+        });
     }
 
     // -------------------------------
@@ -448,6 +519,42 @@ public class AdminController {
         return ResponseEntity.ok(SuccessResponse.of(ResponseMessage.CACHE_REBUILD_SUCCESS));
     }
 
+    @Operation(summary = "차단 알림 전송 지표", description = "디코봇 알림 큐 적재/전송/버림/재시도/묶음 건수를 조회합니다. 알림 미설정이면 data는 null입니다.")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/ip-ban/alert-stats")
+    public ResponseEntity<SuccessResponse<AlertDispatcher.Stats>> getAlertStats() {
+        return ResponseEntity.ok(SuccessResponse.of(ResponseMessage.GET_ALERT_STATS_SUCCESS, alertService.stats()));
+    }
+
+    // -------------------------------
+    // 필터 지연 프로파일
+    // -------------------------------
+
+    @Operation(summary = "필터 지연 통계", description = "필터 × 라우트별 자기 시간(p50/p95/p99, 최근 약 2분)을 p99 내림차순으로 조회합니다. route를 주면 해당 라우트만 조회합니다.")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/profiler/filters")
+    public ResponseEntity<SuccessResponse<FilterProfileDto.Summary>> getFilterProfile(
+            @RequestParam(required = false) String route) {
+        return ResponseEntity.ok(SuccessResponse.of(ResponseMessage.GET_FILTER_PROFILE_SUCCESS,
+                filterLatencyProfiler.summary(route)));
+    }
+
+    @Operation(summary = "느린 요청 표본", description = "임계값 이상 걸린 요청 중 표본으로 보관된 요청의 필터별 시간 내역을 최근 순으로 조회합니다.")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/profiler/slow-requests")
+    public ResponseEntity<SuccessResponse<List<FilterProfileDto.SlowRequest>>> getSlowRequests() {
+        return ResponseEntity.ok(SuccessResponse.of(ResponseMessage.GET_SLOW_REQUESTS_SUCCESS,
+                filterLatencyProfiler.slowRequests()));
+    }
+
+    @Operation(summary = "느린 요청 표본 초기화", description = "보관된 느린 요청 표본을 비웁니다.")
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/profiler/slow-requests")
+    public ResponseEntity<SuccessResponse<Void>> clearSlowRequests() {
+        filterLatencyProfiler.clearSlowRequests();
+        return ResponseEntity.ok(SuccessResponse.of(ResponseMessage.CLEAR_SLOW_REQUESTS_SUCCESS));
+    }
+
     @Operation(summary = "IP 활동 로그 조회", description = "관리자 권한으로 IP 활동 로그를 조회합니다.")
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/ip-activity")
@@ -4,10 +4,14 @@ import com.mjsec.ctf.dto.ChallengeDto;
 import com.mjsec.ctf.dto.FlagDto;
 import com.mjsec.ctf.dto.SuccessResponse;
 import com.mjsec.ctf.dto.ChallengeDto.Simple;
+import com.mjsec.ctf.service.Bulkhead;
 import com.mjsec.ctf.service.ChallengeService;
+import com.mjsec.ctf.service.ContestMetrics;
 import com.mjsec.ctf.service.JwtService;
+import com.mjsec.ctf.service.SubmitLimiter;
 import com.mjsec.ctf.service.ThreatDetectionService;
 import com.mjsec.ctf.type.ResponseMessage;
+import com.mjsec.ctf.type.TrafficClass;
 import com.mjsec.ctf.util.IPAddressUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import io.swagger.v3.oas.annotations.Operation;
@@ -27,7 +31,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.core.io.ByteArrayResource;
-import java.io.IOException;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 @Slf4j
 @RestController
@@ -38,6 +42,9 @@ public class ChallengeController {
     private final JwtService jwtService;
     private final ChallengeService challengeService;
     private final ThreatDetectionService threatDetectionService;
+    private final ContestMetrics contestMetrics;
+    private final Bulkhead bulkhead;
+    private final SubmitLimiter submitLimiter;
 
     // /api/challenges, /api/challenges/, /api/challenges/all 모두 이 핸들러로
     @Operation(summary = "모든 문제 조회(호환용)", description = "모든 문제의 id와 points를 반환합니다.")
@@ -66,21 +73,24 @@ public class ChallengeController {
 
     @Operation(summary = "문제 파일 다운로드", description = "사용자가 문제 파일을 다운로드 받을 수 있습니다.")
     @GetMapping("/{challengeId}/download-file")
-    public ResponseEntity<ByteArrayResource> downloadChallengeFile(@PathVariable Long challengeId) throws IOException {
-        byte[] data = challengeService.downloadChallengeFile(challengeId);
-        ByteArrayResource resource = new ByteArrayResource(data);
-        String fileName = "challenge-" + challengeId + ".zip";
+    public WebAsyncTask<ResponseEntity<ByteArrayResource>> downloadChallengeFile(@PathVariable Long challengeId) {
+        // GCS 다운로드는 전용 실행기에서 (다운로드가 몰려도 제출 처리 스레드를 점유하지 않음)
+        return bulkhead.run(TrafficClass.DOWNLOAD, () -> {
+            byte[] data = challengeService.downloadChallengeFile(challengeId);
+            ByteArrayResource resource = new ByteArrayResource(data);
+            String fileName = "challenge-" + challengeId + ".zip";
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                .contentLength(data.length)
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(resource);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                    .contentLength(data.length)
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .body(resource);
+        });
     }
 
     @Operation(summary = "문제 제출", description = "사용자가 플래그를 제출합니다.")
     @PostMapping("/{challengeId}/submit")
-    public ResponseEntity<SuccessResponse<String>> submitChallenge(
+    public WebAsyncTask<ResponseEntity<SuccessResponse<String>>> submitChallenge(
             @PathVariable Long challengeId,
             @RequestBody FlagDto flagDto,
             @RequestHeader("Authorization") String authorizationHeader,
@@ -91,8 +101,30 @@ public class ChallengeController {
         String flag = flagDto.getSubmitFlag();
 
         String clientIP = IPAddressUtil.getClientIP(request);
-        String result = challengeService.submit(loginId, challengeId, flag, clientIP);
+        // 트랜잭션 커밋까지 포함한 처리 시간을 결과별로 기록 (벌크헤드 대기 포함)
+        long startedAt = System.nanoTime();
 
+        // 적응형 동시성 제한: 한도 초과 시 실행기에 넘기기 전에 바로 503
+        SubmitLimiter.Permit permit = submitLimiter.acquire();
+
+        // 제출 전용 실행기에서 처리
+        WebAsyncTask<ResponseEntity<SuccessResponse<String>>> task = bulkhead.run(TrafficClass.SUBMIT, () -> {
+            String result = null;
+            try {
+                result = challengeService.submit(loginId, challengeId, flag, clientIP, permit.isDegraded());
+                permit.success();
+            } finally {
+                permit.release();
+                contestMetrics.recordSubmit(result, System.nanoTime() - startedAt);
+            }
+            return submitResponse(result);
+        });
+        // 실행기 거절/시간 초과로 콜러블이 끝나지 않은 경우에도 반납
+        task.onCompletion(permit::release);
+        return task;
+    }
+
+    private static ResponseEntity<SuccessResponse<String>> submitResponse(String result) {
         if ("Correct".equals(result)) {
             return ResponseEntity.status(HttpStatus.OK).body(
                     SuccessResponse.of(ResponseMessage.SUBMIT_SUCCESS, result)
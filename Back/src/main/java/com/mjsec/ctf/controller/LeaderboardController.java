@@ -1,14 +1,22 @@
 package com.mjsec.ctf.controller;
 
+import com.mjsec.ctf.config.ThreadMode;
 import com.mjsec.ctf.dto.HistoryDto;
+import com.mjsec.ctf.dto.SuccessResponse;
 //import com.mjsec.ctf.domain.LeaderboardEntity;    //개인용 주석처리
 import com.mjsec.ctf.dto.TeamHistoryDto;
 import com.mjsec.ctf.dto.TeamLeaderboardDto;    //팀단위 추가
+import com.mjsec.ctf.dto.TeamSolveMatrixDto;
+import com.mjsec.ctf.service.Bulkhead;
+import com.mjsec.ctf.service.ContestMetrics;
 import com.mjsec.ctf.service.HistoryService;
 import com.mjsec.ctf.service.LeaderboardService;
+import com.mjsec.ctf.type.ResponseMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -21,6 +29,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
 @RequestMapping("/api/leaderboard")
@@ -28,33 +37,65 @@ public class LeaderboardController {
 
     private final LeaderboardService leaderboardService;
     private final HistoryService historyService;
+    private final ContestMetrics contestMetrics;
+    private final Bulkhead bulkhead;
     private static final Logger logger = LoggerFactory.getLogger(LeaderboardController.class);
 
     // 전역 스케줄러: 스레드풀 크기는 예상되는 동시 접속 클라이언트 수에 따라 조정 필요
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(10);
+    // 가상 스레드 모드에서는 전송 중 블로킹(DB 조회/소켓 쓰기)이 캐리어 스레드를 잡지 않으므로 더 크게 둠
+    private final ScheduledExecutorService scheduler;
 
-    public LeaderboardController(LeaderboardService leaderboardService, HistoryService historyService) {
+    public LeaderboardController(LeaderboardService leaderboardService, HistoryService historyService,
+                                 ContestMetrics contestMetrics, Bulkhead bulkhead, ThreadMode threadMode,
+                                 @Value("${ctf.sse.scheduler-threads:10}") int schedulerThreads,
+                                 @Value("${ctf.sse.virtual-scheduler-threads:200}") int virtualSchedulerThreads) {
         this.leaderboardService = leaderboardService;
         this.historyService = historyService;
+        this.contestMetrics = contestMetrics;
+        this.bulkhead = bulkhead;
+        this.scheduler = Executors.newScheduledThreadPool(
+                threadMode.isVirtual() ? virtualSchedulerThreads : schedulerThreads,
+                threadMode.factory("sse-scheduler-"));
     }
 
     /**
      * SSE emitter에 대해 공통 스케줄링 작업을 등록합니다.
      *
      * @param emitter SSE emitter
+     * @param stream  구독자 수 지표 태그 (stream/graph)
      * @param task    5초마다 실행할 작업
      * @return 등록된 emitter
      */
-    private SseEmitter scheduleSseTask(SseEmitter emitter, Runnable task) {
-        final ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(task, 0, 5, TimeUnit.SECONDS);
+    private SseEmitter scheduleSseTask(SseEmitter emitter, String stream, Runnable task) {
+        // 동시 구독자 한도 초과 시 503 + Retry-After (스케줄러/커넥션 보호)
+        bulkhead.acquireSse();
+        final ScheduledFuture<?> future;
+        try {
+            future = scheduler.scheduleAtFixedRate(task, 0, 5, TimeUnit.SECONDS);
+        } catch (RuntimeException e) {
+            bulkhead.releaseSse();
+            throw e;
+        }
+
+        // 타임아웃 후 완료 콜백이 이어서 호출되므로 구독자 수/슬롯은 한 번만 반납
+        contestMetrics.sseOpened(stream);
+        final AtomicBoolean closed = new AtomicBoolean(false);
+        final Runnable release = () -> {
+            if (closed.compareAndSet(false, true)) {
+                contestMetrics.sseClosed(stream);
+                bulkhead.releaseSse();
+            }
+        };
 
         emitter.onCompletion(() -> {
             future.cancel(true);
+            release.run();
             logger.info("SSE emitter completed");
         });
         emitter.onTimeout(() -> {
             emitter.complete();
             future.cancel(true);
+            release.run();
             logger.info("SSE emitter timed out");
         });
 
@@ -67,7 +108,7 @@ public class LeaderboardController {
         // 1시간(3600000ms) 타임아웃 설정
         SseEmitter emitter = new SseEmitter(3600000L);
 
-        scheduleSseTask(emitter, () -> {
+        scheduleSseTask(emitter, "stream", () -> {
             try {
                 List<TeamLeaderboardDto> leaderboardEntities = leaderboardService.getTeamLeaderboard(); //Team리더보드로 타입변경
                 emitter.send(leaderboardEntities, MediaType.APPLICATION_JSON);
@@ -87,7 +128,7 @@ public class LeaderboardController {
     public SseEmitter graph() {
         SseEmitter emitter = new SseEmitter(3600000L);
 
-        scheduleSseTask(emitter, () -> {
+        scheduleSseTask(emitter, "graph", () -> {
             try {
                 List<TeamHistoryDto> teamHistoryDtos = historyService.getActiveUserHistoryDtos();
                 emitter.send(
@@ -105,4 +146,12 @@ public class LeaderboardController {
         });
         return emitter;
     }
+
+    // 스코어보드용 팀 × 문제 풀이 행렬 (팀별 비트열)
+    @CrossOrigin(origins = "*")
+    @GetMapping("/solve-matrix")
+    public ResponseEntity<SuccessResponse<TeamSolveMatrixDto>> solveMatrix() {
+        return ResponseEntity.ok().body(
+                SuccessResponse.of(ResponseMessage.GET_SOLVE_MATRIX_SUCCESS, leaderboardService.getSolveMatrix()));
+    }
 }
@@ -7,14 +7,12 @@ import com.mjsec.ctf.type.ResponseMessage;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
@@ -48,19 +46,16 @@ public class SignatureAdminController {
 
     @Operation(
         summary = "시그니처 코드 CSV 임포트",
-        description = "CSV 헤더: teamName,challengeId,code"
+        description = "CSV 헤더: teamName,challengeId,code. 잘못된 행은 건너뛰고 errors 에 줄 번호/사유를 보고합니다."
     )
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping(value = "/codes/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<SuccessResponse<Object>> importCsv(
+    public ResponseEntity<SuccessResponse<SignatureAdminDto.ImportResult>> importCsv(
             @RequestPart("file") MultipartFile file
-    ) throws IOException {
-        int imported = signatureAdminService.importCodesCsv(file);
+    ) {
+        SignatureAdminDto.ImportResult result = signatureAdminService.importCodesCsv(file);
         return ResponseEntity.ok(
-                SuccessResponse.of(
-                        ResponseMessage.SIGNATURE_CODES_IMPORT_SUCCESS,
-                        Map.of("imported", imported)
-                )
+                SuccessResponse.of(ResponseMessage.SIGNATURE_CODES_IMPORT_SUCCESS, result)
         );
     }
 
@@ -70,10 +65,7 @@ public class SignatureAdminController {
     )
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/codes/export")
-    public ResponseEntity<Resource> exportCsv() {
-        byte[] csv = signatureAdminService.exportCodesCsv();
-        ByteArrayResource resource = new ByteArrayResource(csv);
-
+    public ResponseEntity<StreamingResponseBody> exportCsv() {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.parseMediaType("text/csv; charset=UTF-8"));
         headers.setContentDisposition(
@@ -82,7 +74,8 @@ public class SignatureAdminController {
                         .build()
         );
 
-        return new ResponseEntity<>(resource, headers, HttpStatus.OK);
+        StreamingResponseBody body = signatureAdminService::exportCodesCsv;
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
 
     // ---------- 추가: 풀 조회 / 생성 / 재배정 / 삭제 / 전체삭제 / 강제언락 ----------
@@ -103,6 +96,25 @@ public class SignatureAdminController {
         return ResponseEntity.ok(signatureAdminService.generateCodes(req));
     }
 
+    @Operation(
+        summary = "여러 챌린지 × 여러 팀 랜덤 코드 일괄 생성(평문 응답)",
+        description = "teamNames 가 비어 있으면 전체 팀 대상. 진행 상황은 /codes/generate/progress 로 조회"
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/codes/generate/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SignatureAdminDto.BulkGenerateResponse> generateBulk(
+            @RequestBody @Valid SignatureAdminDto.BulkGenerateRequest req
+    ) {
+        return ResponseEntity.ok(signatureAdminService.generateCodesBulk(req));
+    }
+
+    @Operation(summary = "코드 생성 진행 상황")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/codes/generate/progress")
+    public ResponseEntity<SignatureAdminDto.GenerateProgress> generateProgress() {
+        return ResponseEntity.ok(signatureAdminService.generateProgress());
+    }
+
     @Operation(summary = "코드 재배정 / 소비상태 초기화")
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping(value = "/codes/reassign", consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -2,8 +2,8 @@ package com.mjsec.ctf.controller;
 
 import com.mjsec.ctf.dto.SignatureDto;
 import com.mjsec.ctf.exception.RestApiException;
-import com.mjsec.ctf.repository.TeamSignatureUnlockRepository;
 import com.mjsec.ctf.repository.UserRepository;
+import com.mjsec.ctf.service.SignatureUnlockIndex;
 import com.mjsec.ctf.type.ErrorCode;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
@@ -19,7 +19,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SignatureExtraController {
 
-    private final TeamSignatureUnlockRepository unlockRepo;
+    private final SignatureUnlockIndex unlockIndex;
     private final UserRepository userRepo;
 
     private String currentLoginId() {
@@ -36,8 +36,8 @@ public class SignatureExtraController {
             throw new RestApiException(ErrorCode.MUST_BE_BELONG_TEAM);
         }
 
-        var ids = unlockRepo.findByTeamId(user.getCurrentTeamId()).stream()
-                .map(u -> u.getChallengeId())
+        var ids = unlockIndex.getUnlockedChallengeIds(user.getCurrentTeamId()).stream()
+                .sorted()
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(
@@ -1,5 +1,6 @@
 package com.mjsec.ctf.controller;
 
+import com.mjsec.ctf.config.TrustedProxies;
 import com.mjsec.ctf.dto.HistoryDto;
 import com.mjsec.ctf.dto.SuccessResponse;
 import com.mjsec.ctf.dto.UserDto;
@@ -11,6 +12,7 @@ import com.mjsec.ctf.service.UserService;
 import com.mjsec.ctf.type.ErrorCode;
 import com.mjsec.ctf.type.ResponseMessage;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,6 +34,7 @@ public class UserController {
     private final EmailService emailService;
     private final AuthCodeService authCodeService;
     private final UserRepository userRepository;
+    private final TrustedProxies trustedProxies;
 
 
     @Operation(summary = "회원가입", description = "유저 등록")
@@ -79,7 +82,8 @@ public class UserController {
 
     @Operation(summary = "유저 이메일 인증 코드 보내기", description = "해당하는 학교 이메일만 인증 코드 보내기")
     @PostMapping("/send-code")
-    public ResponseEntity<String> sendAuthCode(@RequestParam String email) {
+    public ResponseEntity<String> sendAuthCode(@RequestParam String email, HttpServletRequest request) {
+        authCodeService.assertSendAllowed(trustedProxies.clientIp(request), email);
         userService.checkEmail(email);
 
         String code = authCodeService.generateAndStoreCode(email);
@@ -15,7 +15,11 @@ import java.time.LocalDateTime;
         indexes = {
                 @Index(name = "idx_history_login_challenge", columnList = "loginId, challengeId", unique = true),
                 @Index(name = "idx_history_login_id", columnList = "loginId"),
-                @Index(name = "idx_history_challenge_id", columnList = "challengeId")
+                @Index(name = "idx_history_challenge_id", columnList = "challengeId"),
+                // 문제별 가장 빠른 풀이(퍼스트 블러드) 조회
+                @Index(name = "idx_history_challenge_solved", columnList = "challengeId, solvedTime, id"),
+                // 관리자 제출 기록 키셋 페이지네이션 (solvedTime, id)
+                @Index(name = "idx_history_solved_time", columnList = "solvedTime, id")
         }
 )
 public class HistoryEntity {
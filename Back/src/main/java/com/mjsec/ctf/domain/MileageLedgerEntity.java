@@ -0,0 +1,49 @@
+package com.mjsec.ctf.domain;
+
+import com.mjsec.ctf.type.MileageReason;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// 팀 마일리지 원장 (추가 전용, team.mileage 는 이 원장의 합을 실체화한 잔액)
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+    name = "mileage_ledger",
+    indexes = {
+        @Index(name = "idx_mileage_ledger_team", columnList = "team_id, id")
+    }
+)
+public class MileageLedgerEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "team_id", nullable = false)
+    private Long teamId;
+
+    // 증감량 (적립 +, 차감 -)
+    @Column(name = "delta", nullable = false)
+    private int delta;
+
+    // 반영 직후 잔액
+    @Column(name = "balance_after", nullable = false)
+    private int balanceAfter;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reason", nullable = false, length = 20)
+    private MileageReason reason;
+
+    // 사유별 참조 ID (문제 ID, 결제 히스토리 ID 등)
+    @Column(name = "reference_id")
+    private Long referenceId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,62 @@
+package com.mjsec.ctf.domain;
+
+import com.mjsec.ctf.type.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// 외부 알림 아웃박스 (풀이 트랜잭션에서 함께 기록, 디스패처가 커밋 후 전송)
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+    name = "notification_outbox",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_outbox_event_key", columnNames = {"event_key"})
+    },
+    indexes = {
+        @Index(name = "idx_outbox_status_next", columnList = "status, next_attempt_at")
+    }
+)
+public class NotificationOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 중복 방지 키 (같은 이벤트는 한 행만, 수신 측 Idempotency-Key 로도 전달)
+    @Column(name = "event_key", nullable = false, length = 100)
+    private String eventKey;
+
+    @Column(name = "event_type", nullable = false, length = 30)
+    private String eventType;
+
+    // 전송할 JSON 본문
+    @Lob
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 10)
+    private OutboxStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // 다음 전송 가능 시각 (전송 중에는 점유 만료 시각으로 사용)
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,49 @@
+package com.mjsec.ctf.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+// 팀별 풀이 문제 (team.solved_challenge_ids JSON 컬럼 대체)
+// - JSON 컬럼으로 되돌리는 경로는 없음: 레거시 JSON 은 기동 시 1회 이관 후 비워지고 이후 기록은 이 테이블에만 남음
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@Table(
+    name = "team_solve",
+    uniqueConstraints = {
+        @UniqueConstraint(
+            name = "uk_team_solve_team_challenge",
+            columnNames = {"team_id", "challenge_id"}
+        )
+    },
+    indexes = {
+        // 문제를 푼 팀 조회 (점수 재계산/철회)
+        @Index(name = "idx_team_solve_challenge", columnList = "challenge_id, team_id"),
+        @Index(name = "idx_team_solve_team_time", columnList = "team_id, solved_at")
+    }
+)
+public class TeamSolveEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "team_id", nullable = false)
+    private Long teamId;
+
+    @Column(name = "challenge_id", nullable = false)
+    private Long challengeId;
+
+    @Column(name = "solved_at", nullable = false)
+    private LocalDateTime solvedAt;
+
+    // 풀이 당시 획득 점수 (이후 다이나믹 스코어 변동과 무관한 기록용)
+    @Column(name = "points_at_solve", nullable = false)
+    private int pointsAtSolve;
+}
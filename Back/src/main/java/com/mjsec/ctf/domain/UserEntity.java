@@ -14,7 +14,8 @@ import java.util.List;
 @Builder
 @Table(name = "user_entity", indexes = {
         @Index(name = "idx_user_login_id", columnList = "loginId", unique = true),
-        @Index(name = "idx_user_email", columnList = "email", unique = true)
+        @Index(name = "idx_user_email", columnList = "email", unique = true),
+        @Index(name = "idx_user_current_team", columnList = "currentTeamId")
 })
 public class UserEntity extends BaseEntity {
 
@@ -0,0 +1,17 @@
+package com.mjsec.ctf.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class AdminSolveRecordPageDto {
+
+    private List<AdminSolveRecordDto> records;
+
+    // 다음 페이지 요청 시 cursor 파라미터로 그대로 전달 (마지막 페이지면 null)
+    private String nextCursor;
+
+    private boolean hasNext;
+}
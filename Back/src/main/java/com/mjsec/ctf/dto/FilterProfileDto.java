@@ -0,0 +1,43 @@
+package com.mjsec.ctf.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public class FilterProfileDto {
+
+    // 필터 × 라우트별 자기 시간 통계 (하위 체인 시간 제외, 최근 약 2분 창 기준 백분위)
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class FilterStat {
+        private String filter;
+        private String route;
+        private long count;              // 누적 요청 수
+        private double meanMs;
+        private double p50Ms;
+        private double p95Ms;
+        private double p99Ms;
+        private double maxMs;
+    }
+
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class Summary {
+        private long slowThresholdMs;
+        private double slowSampleRate;
+        private List<FilterStat> filters; // p99 내림차순
+    }
+
+    // 느린 요청 표본 (필터별 자기 시간 내역)
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class SlowRequest {
+        private LocalDateTime at;
+        private String method;
+        private String uri;
+        private String route;
+        private int status;
+        private double totalMs;
+        private Map<String, Double> filtersMs;   // 실행 순서대로
+        private double handlerMs;                // 나머지 (스프링 시큐리티 기본 필터 + 컨트롤러)
+    }
+}
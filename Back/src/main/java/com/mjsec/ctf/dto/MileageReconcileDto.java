@@ -0,0 +1,18 @@
+package com.mjsec.ctf.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 마일리지 잔액/원장 불일치 팀
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MileageReconcileDto {
+    private Long teamId;
+    private String teamName;
+    private int balance;        // team.mileage
+    private int ledgerBalance;  // mileage_ledger 합계
+}
@@ -8,6 +8,7 @@ import lombok.Data;
 @Builder
 public class PaymentTokenDto {
 
+    // Redis 토큰 저장 이후 발급하지 않음 (응답 호환용으로 필드만 유지)
     private Long paymentTokenId;
 
     private String token;
@@ -0,0 +1,40 @@
+package com.mjsec.ctf.dto;
+
+import lombok.*;
+import java.util.List;
+
+// 제출 기록 일괄 철회 결과 (무엇이 얼마나 바뀌었는지)
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class RevocationReportDto {
+
+    private String target;              // 철회 대상 (loginId 또는 teamName)
+    private int revokedHistoryCount;    // 삭제된 개인 풀이 기록 수
+    private int affectedChallengeCount;
+    private int affectedTeamCount;
+    private long durationMs;
+
+    private List<ChallengeChange> challenges;
+    private List<TeamChange> teams;
+
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class ChallengeChange {
+        private Long challengeId;
+        private String title;
+        private int oldPoints;
+        private int newPoints;
+        private int oldSolvers;
+        private int newSolvers;
+        private boolean firstBloodLost;     // 철회된 기록이 퍼스트 블러드였는지
+        private Long newFirstBloodTeamId;   // 보너스를 새로 받은 팀 (없으면 null)
+    }
+
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class TeamChange {
+        private Long teamId;
+        private String teamName;
+        private int oldTotalPoint;
+        private int newTotalPoint;
+        private int oldMileage;
+        private int newMileage;
+    }
+}
@@ -16,6 +16,20 @@ public class SignatureAdminDto {
         private String code;
     }
 
+    // CSV 임포트 결과 (행 단위 오류 포함)
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class ImportResult {
+        private int imported;
+        private int failed;
+        private List<RowError> errors;   // 앞에서부터 최대 500건
+    }
+
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class RowError {
+        private int line;                // 헤더 포함 1부터
+        private String message;
+    }
+
     // 랜덤 생성 요청
     @Data @NoArgsConstructor @AllArgsConstructor @Builder
     public static class GenerateRequest {
@@ -34,6 +48,41 @@ public class SignatureAdminDto {
         private List<String> codes;    // 평문 6자리 코드 목록
     }
 
+    // 여러 챌린지 × 여러 팀 일괄 생성 요청
+    @Data @NoArgsConstructor @AllArgsConstructor @Builder
+    public static class BulkGenerateRequest {
+        @NotEmpty private List<Long> challengeIds;
+        @Min(1) @Max(100) private int countPerTeam;
+        /** 대상 팀 이름 목록. null/빈 목록이면 전체 팀 */
+        private List<String> teamNames;
+    }
+
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class GeneratedCode {
+        private Long challengeId;
+        private Long teamId;
+        private String teamName;
+        private String code;           // 평문 6자리
+    }
+
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class BulkGenerateResponse {
+        private int created;
+        private long elapsedMs;
+        private List<GeneratedCode> codes;
+    }
+
+    // 대량 생성 진행 상황 (해시 n건 + 저장 n건 = total 2n)
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class GenerateProgress {
+        private boolean running;
+        private String phase;          // PREPARE / HASH / INSERT / DONE / FAILED
+        private int done;
+        private int total;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+    }
+
     // 풀 조회(평문 없음)
     @Data @Builder @NoArgsConstructor @AllArgsConstructor
     public static class PoolItem {
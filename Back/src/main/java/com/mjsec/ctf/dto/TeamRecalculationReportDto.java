@@ -0,0 +1,34 @@
+package com.mjsec.ctf.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 전체 팀 점수 재계산 결과 (소요시간 + 변경된 팀 목록)
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class TeamRecalculationReportDto {
+
+    private int teamCount;
+    private int changedTeamCount;
+    private int scannedHistoryCount;
+
+    private long loadMs;    // 팀/문제/팀원 로딩
+    private long scanMs;    // 풀이 타임라인 스캔 + 합산
+    private long writeMs;   // 변경분 배치 업데이트
+    private long totalMs;
+
+    private List<TeamDiff> changes;
+
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class TeamDiff {
+        private Long teamId;
+        private String teamName;
+        private int oldTotalPoint;
+        private int newTotalPoint;
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "Asia/Seoul")
+        private LocalDateTime oldLastSolvedTime;
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "Asia/Seoul")
+        private LocalDateTime newLastSolvedTime;
+    }
+}
@@ -0,0 +1,35 @@
+package com.mjsec.ctf.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/*
+ * 스코어보드용 팀 × 문제 풀이 행렬
+ * - challengeIds[i] 를 풀었으면 각 팀 solved 비트열의 i번째 비트가 1
+ * - solved: BitSet.toByteArray() 의 base64 (리틀 엔디언, 바이트 0의 최하위 비트가 0번)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamSolveMatrixDto {
+
+    private long version;
+    private List<Long> challengeIds;
+    private List<Row> teams;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row {
+        private Long teamId;
+        private String teamName;
+        private int solvedCount;
+        private String solved;
+    }
+}
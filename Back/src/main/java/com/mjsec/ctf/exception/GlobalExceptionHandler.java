@@ -9,17 +9,25 @@ import com.mjsec.ctf.type.ErrorCode;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 @RestControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
 
+    // 503 응답 시 재시도 권장 간격
+    @Value("${ctf.bulkhead.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
     /**
      * RestApiException(커스텀 에러) 처리
      *
@@ -29,11 +37,39 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(RestApiException.class)
     public ResponseEntity<Object> handleCustomException(RestApiException e){
         ErrorCode errorCode = e.getErrorCode();
+        if (errorCode == ErrorCode.SERVER_BUSY) {
+            // 과부하 시 대량 발생하므로 error 로그를 남기지 않음 (ctf.bulkhead.rejected / ctf.submit.shed 로 집계)
+            return serverBusy();
+        }
         log.error("RestApiException occurred : ErrorCode = {} message = {}",
                 errorCode.name(), errorCode.getDescription());
         return handleExceptionInternal(errorCode);
     }
 
+    /**
+     * TaskRejectedException 처리 (벌크헤드 실행기 포화)
+     *
+     * @param e TaskRejectedException
+     * @return 503 + Retry-After
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Object> handleTaskRejected(TaskRejectedException e) {
+        log.warn("TaskRejectedException occurred : {}", e.getMessage());
+        return serverBusy();
+    }
+
+    /**
+     * AsyncRequestTimeoutException 처리 (벌크헤드 대기/처리 시간 초과)
+     *
+     * @param e AsyncRequestTimeoutException
+     * @return 503 + Retry-After
+     */
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<Object> handleAsyncRequestTimeout(AsyncRequestTimeoutException e) {
+        log.warn("AsyncRequestTimeoutException occurred");
+        return serverBusy();
+    }
+
     /**
      * MethodArgumentNotValidException 처리 (Validation 실패 등)
      *
@@ -84,6 +120,12 @@ public class GlobalExceptionHandler {
                 .body(INTERNAL_SERVER_ERROR.getDescription());
     }
 
+    private ResponseEntity<Object> serverBusy() {
+        return ResponseEntity.status(ErrorCode.SERVER_BUSY.getHttpStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(makeErrorResponseBody(ErrorCode.SERVER_BUSY));
+    }
+
     private ResponseEntity<Object> handleExceptionInternal(ErrorCode errorCode) {
         return ResponseEntity.status(errorCode.getHttpStatus())
                 .body(makeErrorResponseBody(errorCode));
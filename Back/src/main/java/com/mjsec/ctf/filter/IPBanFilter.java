@@ -3,6 +3,7 @@ package com.mjsec.ctf.filter;
 import com.mjsec.ctf.domain.IPBanEntity;
 import com.mjsec.ctf.service.IPBanService;
 import com.mjsec.ctf.util.IPAddressUtil;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -31,6 +32,12 @@ public class IPBanFilter implements Filter {
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         HttpServletResponse httpResponse = (HttpServletResponse) response;
 
+        // 비동기 결과 재디스패치(WebAsyncTask/SSE)는 최초 요청에서 이미 검사했으므로 통과
+        if (httpRequest.getDispatcherType() == DispatcherType.ASYNC) {
+            chain.doFilter(request, response);
+            return;
+        }
+
         // 클라이언트 IP 추출
         String clientIP = IPAddressUtil.getClientIP(httpRequest);
 
@@ -0,0 +1,54 @@
+package com.mjsec.ctf.filter;
+
+import com.mjsec.ctf.service.FilterLatencyProfiler;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+import java.io.IOException;
+
+/*
+ * 필터 시간 측정 래퍼
+ * - 감싼 필터 전체 시간에서 하위 체인(chain.doFilter) 시간을 빼서 필터 자기 시간만 기록
+ * - 측정 중인 요청이 아니면(프로파일러 비활성, 에러/비동기 디스패치) 그대로 위임
+ */
+public class ProfiledFilter implements Filter {
+
+    private final String name;
+    private final Filter delegate;
+
+    public ProfiledFilter(Filter delegate) {
+        this.name = delegate.getClass().getSimpleName();
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        FilterLatencyProfiler.RequestProfile profile = FilterLatencyProfiler.profileOf(request);
+        if (profile == null) {
+            delegate.doFilter(request, response, chain);
+            return;
+        }
+
+        long[] downstream = {0L};
+        FilterChain timedChain = (req, res) -> {
+            long started = System.nanoTime();
+            try {
+                chain.doFilter(req, res);
+            } finally {
+                downstream[0] += System.nanoTime() - started;
+            }
+        };
+
+        long started = System.nanoTime();
+        try {
+            delegate.doFilter(request, response, timedChain);
+        } finally {
+            profile.add(name, System.nanoTime() - started - downstream[0]);
+        }
+    }
+}
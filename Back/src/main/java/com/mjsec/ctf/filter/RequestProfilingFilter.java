@@ -0,0 +1,77 @@
+package com.mjsec.ctf.filter;
+
+import com.mjsec.ctf.service.FilterLatencyProfiler;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+// 가장 바깥 필터: 요청별 측정 내역을 만들고, 체인이 끝나면 라우트가 확정된 뒤 한 번에 기록
+// 비동기 요청(WebAsyncTask: 제출/다운로드 등)은 최초 디스패치와 비동기 디스패치를 하나의 내역으로 합쳐
+// 비동기 디스패치가 끝날 때 기록 (handler 시간에 실행기 대기 + 처리 시간 포함)
+// 스트리밍 응답(SseEmitter/StreamingResponseBody: 리더보드 SSE 는 최대 1시간 유지)은 연결 시간이 지연이 아니므로
+// 최초 디스패치가 끝날 때(스트림 준비까지) 기록하고 이후 비동기 디스패치는 측정하지 않음
+public class RequestProfilingFilter extends OncePerRequestFilter {
+
+    private static final String STREAMING = RequestProfilingFilter.class.getName() + ".STREAMING";
+
+    private final FilterLatencyProfiler profiler;
+
+    public RequestProfilingFilter(FilterLatencyProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!profiler.isEnabled() || request.getAttribute(STREAMING) != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // 비동기 디스패치면 최초 디스패치에서 만든 내역을 이어서 사용
+        FilterLatencyProfiler.RequestProfile profile = FilterLatencyProfiler.profileOf(request);
+        if (profile == null) {
+            profile = profiler.begin(request);
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // 비동기 처리가 시작됐으면 기록을 비동기 디스패치로 미룸 (스트리밍 응답은 지금 기록)
+            if (!request.isAsyncStarted()) {
+                profiler.complete(request, response, profile);
+            } else if (isStreaming(request)) {
+                request.setAttribute(STREAMING, Boolean.TRUE);
+                profiler.complete(request, response, profile);
+            }
+        }
+    }
+
+    // 핸들러 반환 타입으로 판단 (ResponseEntity<StreamingResponseBody> 포함)
+    private static boolean isStreaming(HttpServletRequest request) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return false;
+        }
+        ResolvableType type = ResolvableType.forMethodParameter(handler.getReturnType());
+        if (ResponseEntity.class.equals(type.resolve())) {
+            type = type.getGeneric(0);
+        }
+        Class<?> body = type.resolve(Object.class);
+        return ResponseBodyEmitter.class.isAssignableFrom(body) || StreamingResponseBody.class.isAssignableFrom(body);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+}
@@ -34,6 +34,12 @@ public class ThreatDetectionFilter implements Filter {
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         HttpServletResponse httpResponse = (HttpServletResponse) response;
 
+        // 비동기 결과 재디스패치(WebAsyncTask/SSE)는 최초 요청에서 이미 검사했으므로 통과
+        if (httpRequest.getDispatcherType() == DispatcherType.ASYNC) {
+            chain.doFilter(request, response);
+            return;
+        }
+
         String clientIP = IPAddressUtil.getClientIP(httpRequest);
         String requestUri = httpRequest.getRequestURI();
 
@@ -1,12 +1,16 @@
 package com.mjsec.ctf.repository;
 
 import com.mjsec.ctf.domain.HistoryEntity;
+import com.mjsec.ctf.type.ChallengeCategory;
 import jakarta.persistence.LockModeType;
 import java.util.Optional;
+import java.time.LocalDateTime;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -27,6 +31,14 @@ public interface HistoryRepository extends JpaRepository<HistoryEntity, Long> {
     @Query("SELECT COUNT(h) > 0 FROM HistoryEntity h WHERE h.loginId = :loginId AND h.challengeId = :challengeId")
     boolean existsByLoginIdAndChallengeId(@Param("loginId") String loginId, @Param("challengeId") Long challengeId);
 
+    // 문제 목록 풀이 여부를 문제마다 조회하지 않고 한 번에 판정
+    @Query("SELECT DISTINCT h.challengeId FROM HistoryEntity h WHERE h.loginId = :loginId")
+    List<Long> findChallengeIdsByLoginId(@Param("loginId") String loginId);
+
+    // 현재 팀원들의 개인 풀이 문제 ID
+    @Query("SELECT DISTINCT h.challengeId FROM HistoryEntity h, UserEntity u WHERE u.currentTeamId = :teamId AND h.loginId = u.loginId")
+    List<Long> findChallengeIdsByTeamMembers(@Param("teamId") Long teamId);
+
     // 메서드명 변경
     @Query("SELECT DISTINCT h.loginId FROM HistoryEntity h WHERE h.loginId IS NOT NULL AND h.userDeleted = false")
     List<String> findDistinctLoginIds();
@@ -72,4 +84,100 @@ public interface HistoryRepository extends JpaRepository<HistoryEntity, Long> {
 
     // 특정 사용자의 특정 문제 제출 기록 조회
     Optional<HistoryEntity> findByLoginIdAndChallengeId(String loginId, Long challengeId);
-}
\ No newline at end of file
+
+    /*
+     * 관리자 제출 기록 조회용 일괄 조인 쿼리 (키셋 페이지네이션)
+     * 정렬 키: (solvedTime, id) → idx_history_solved_time 인덱스 사용
+     * 반환값: [historyId, challengeId, challengeTitle, category, points, mileage,
+     *          loginId, univ, solvedTime, userId, currentTeamId, teamName]
+     * - 문제가 삭제된 기록은 제외 (ChallengeEntity @SQLRestriction)
+     * - 사용자가 없는 기록도 퍼스트 블러드 판정에는 포함되어야 하므로 LEFT JOIN 후 호출부에서 거른다
+     */
+    @Query("""
+        SELECT h.id, h.challengeId, c.title, c.category, c.points, c.mileage,
+               h.loginId, h.univ, h.solvedTime, u.userId, u.currentTeamId, t.teamName
+        FROM HistoryEntity h
+        JOIN ChallengeEntity c ON c.challengeId = h.challengeId
+        LEFT JOIN UserEntity u ON u.loginId = h.loginId
+        LEFT JOIN TeamEntity t ON t.teamId = u.currentTeamId
+        WHERE h.loginId IS NOT NULL
+        ORDER BY h.solvedTime ASC, h.id ASC
+        """)
+    List<Object[]> findSolveRecordRows(Pageable pageable);
+
+    @Query("""
+        SELECT h.id, h.challengeId, c.title, c.category, c.points, c.mileage,
+               h.loginId, h.univ, h.solvedTime, u.userId, u.currentTeamId, t.teamName
+        FROM HistoryEntity h
+        JOIN ChallengeEntity c ON c.challengeId = h.challengeId
+        LEFT JOIN UserEntity u ON u.loginId = h.loginId
+        LEFT JOIN TeamEntity t ON t.teamId = u.currentTeamId
+        WHERE h.loginId IS NOT NULL
+          AND (h.solvedTime > :afterTime OR (h.solvedTime = :afterTime AND h.id > :afterId))
+        ORDER BY h.solvedTime ASC, h.id ASC
+        """)
+    List<Object[]> findSolveRecordRowsAfter(@Param("afterTime") LocalDateTime afterTime,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+
+    /*
+     * 주어진 문제들의 퍼스트 블러드 기록 ID 조회
+     * (solvedTime, id) 기준으로 자신보다 앞선 기록이 없는 행 = 퍼스트 블러드
+     * 반환값: [challengeId, historyId]
+     */
+    @Query("""
+        SELECT h.challengeId, h.id
+        FROM HistoryEntity h
+        WHERE h.challengeId IN :challengeIds
+          AND h.loginId IS NOT NULL
+          AND NOT EXISTS (
+              SELECT 1 FROM HistoryEntity e
+              WHERE e.challengeId = h.challengeId
+                AND e.loginId IS NOT NULL
+                AND (e.solvedTime < h.solvedTime OR (e.solvedTime = h.solvedTime AND e.id < h.id))
+          )
+        """)
+    List<Object[]> findFirstBloodIdsByChallengeIdIn(@Param("challengeIds") Collection<Long> challengeIds);
+
+    // 문제의 가장 빠른 풀이 (퍼스트 블러드) - idx_history_challenge_solved 인덱스 사용
+    Optional<HistoryEntity> findFirstByChallengeIdAndLoginIdIsNotNullOrderBySolvedTimeAscIdAsc(Long challengeId);
+
+    // 팀의 마지막 풀이 시각 (점수 재계산과 동일하게 제외 카테고리 문제는 무시)
+    @Query("""
+        SELECT MAX(h.solvedTime)
+        FROM HistoryEntity h
+        JOIN ChallengeEntity c ON c.challengeId = h.challengeId
+        WHERE h.loginId IN :loginIds
+          AND h.challengeId IN :challengeIds
+          AND h.userDeleted = false
+          AND c.category <> :excludedCategory
+        """)
+    LocalDateTime findLastSolvedTime(@Param("loginIds") Collection<String> loginIds,
+                                     @Param("challengeIds") Collection<Long> challengeIds,
+                                     @Param("excludedCategory") ChallengeCategory excludedCategory);
+
+    // 전체 팀 재계산용 풀이 타임라인 (시간순 1회 스캔)
+    // 반환값: [loginId, challengeId, solvedTime]
+    @Query("""
+        SELECT h.loginId, h.challengeId, h.solvedTime
+        FROM HistoryEntity h
+        JOIN ChallengeEntity c ON c.challengeId = h.challengeId
+        WHERE h.userDeleted = false
+          AND h.loginId IS NOT NULL
+          AND c.category <> :excludedCategory
+        ORDER BY h.solvedTime ASC
+        """)
+    List<Object[]> findSolveTimeline(@Param("excludedCategory") ChallengeCategory excludedCategory);
+
+    // 문제별 풀이자 수 (다이나믹 스코어 일괄 재계산용, countDistinctByChallengeId와 동일 조건)
+    // 반환값: [challengeId, solverCount]
+    @Query("""
+        SELECT h.challengeId, COUNT(DISTINCT h.loginId)
+        FROM HistoryEntity h
+        WHERE h.challengeId IN :challengeIds
+          AND h.userDeleted = false
+          AND h.loginId IS NOT NULL
+        GROUP BY h.challengeId
+        """)
+    List<Object[]> countDistinctSolversByChallengeIdIn(@Param("challengeIds") Collection<Long> challengeIds);
+}
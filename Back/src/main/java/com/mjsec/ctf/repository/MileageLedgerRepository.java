@@ -0,0 +1,24 @@
+package com.mjsec.ctf.repository;
+
+import com.mjsec.ctf.domain.MileageLedgerEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MileageLedgerRepository extends JpaRepository<MileageLedgerEntity, Long> {
+
+    // 팀별 원장 합계, 반환값: [teamId, sum(delta)]
+    @Query("SELECT l.teamId, SUM(l.delta) FROM MileageLedgerEntity l GROUP BY l.teamId")
+    List<Object[]> sumDeltaGroupByTeamId();
+
+    // 팀 원장 합계 (잠금 읽기: 스냅샷이 아닌 커밋된 최신 기준)
+    @Query(value = "SELECT COALESCE(SUM(delta), 0) FROM mileage_ledger WHERE team_id = :teamId FOR SHARE", nativeQuery = true)
+    long sumDeltaByTeamIdForShare(@Param("teamId") Long teamId);
+
+    @Query("SELECT DISTINCT l.teamId FROM MileageLedgerEntity l")
+    List<Long> findDistinctTeamIds();
+}
@@ -0,0 +1,67 @@
+package com.mjsec.ctf.repository;
+
+import com.mjsec.ctf.domain.NotificationOutboxEntity;
+import com.mjsec.ctf.type.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntity, Long> {
+
+    // 같은 event_key 가 이미 있으면 무시 (재시도/중복 판정에도 예외 없이 한 행만 유지)
+    @Modifying
+    @Query(value = """
+        INSERT IGNORE INTO notification_outbox
+            (event_key, event_type, payload, status, attempts, next_attempt_at, created_at)
+        VALUES (:eventKey, :eventType, :payload, 'PENDING', 0, :now, :now)
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("eventKey") String eventKey,
+                       @Param("eventType") String eventType,
+                       @Param("payload") String payload,
+                       @Param("now") LocalDateTime now);
+
+    // 전송 가능한 행 선점 (다른 인스턴스가 잠근 행은 건너뜀)
+    @Query(value = """
+        SELECT id FROM notification_outbox
+         WHERE status = 'PENDING' AND next_attempt_at <= :now
+         ORDER BY id
+         LIMIT :limit
+         FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<Long> findDueIdsForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // 점유: 전송하는 동안 다른 인스턴스가 다시 가져가지 않도록 다음 시도 시각을 미룸
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntity o SET o.nextAttemptAt = :leaseUntil WHERE o.id IN :ids")
+    int lease(@Param("ids") List<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntity o SET o.status = com.mjsec.ctf.type.OutboxStatus.SENT, " +
+           "o.attempts = o.attempts + 1, o.sentAt = :now, o.lastError = null " +
+           "WHERE o.id = :id AND o.status = com.mjsec.ctf.type.OutboxStatus.PENDING")
+    int markSent(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntity o SET o.attempts = o.attempts + 1, o.nextAttemptAt = :nextAttemptAt, " +
+           "o.lastError = :error WHERE o.id = :id AND o.status = com.mjsec.ctf.type.OutboxStatus.PENDING")
+    int reschedule(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntity o SET o.status = com.mjsec.ctf.type.OutboxStatus.FAILED, " +
+           "o.attempts = o.attempts + 1, o.lastError = :error " +
+           "WHERE o.id = :id AND o.status = com.mjsec.ctf.type.OutboxStatus.PENDING")
+    int markFailed(@Param("id") Long id, @Param("error") String error);
+
+    // 전송 완료 행 정리
+    @Modifying
+    @Query("DELETE FROM NotificationOutboxEntity o WHERE o.status = com.mjsec.ctf.type.OutboxStatus.SENT AND o.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    long countByStatus(OutboxStatus status);
+}
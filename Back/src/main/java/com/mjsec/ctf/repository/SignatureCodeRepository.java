@@ -1,12 +1,14 @@
 package com.mjsec.ctf.repository;
 
 import com.mjsec.ctf.domain.SignatureCodeEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -58,6 +60,74 @@ public interface SignatureCodeRepository extends JpaRepository<SignatureCodeEnti
             @Param("codeHash") String codeHash
     );
 
+    // 🔸 대량 생성/임포트 중복 판정용: 챌린지의 모든 다이제스트 (소프트삭제 포함)
+    //    행 구조: [code_digest, id]
+    @Query(value = "SELECT code_digest, id FROM signature_code WHERE challenge_id = :challengeId", nativeQuery = true)
+    List<Object[]> findDigestIdsIncludingDeleted(@Param("challengeId") Long challengeId);
+
+    // 🔸 CSV 내보내기용 id 키셋 조회 (엔티티 로딩 없이 필요한 컬럼만)
+    //    행 구조: [id, challengeId, assignedTeamId, codeDigest, consumed]
+    @Query("""
+        SELECT c.id, c.challengeId, c.assignedTeamId, c.codeDigest, c.consumed
+          FROM SignatureCodeEntity c
+         WHERE c.id > :afterId
+         ORDER BY c.id ASC
+        """)
+    List<Object[]> findExportRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // ===================== 시그니처 인증: 조건부 소비 =====================
+
+    // 🔸 미소비 + (미배정 또는 우리 팀 배정) 코드만 한 번에 소비 처리 → 1이면 이번 요청이 소비
+    //    행 잠금은 UPDATE가 잡으므로 동시 요청 중 정확히 하나만 성공 (분산락 불필요)
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = """
+        UPDATE signature_code
+           SET assigned_team_id = :teamId,
+               consumed         = 1,
+               consumed_at      = :now,
+               updated_at       = :now
+         WHERE challenge_id = :challengeId
+           AND code_digest  = :codeDigest
+           AND deleted_at IS NULL
+           AND consumed = 0
+           AND (assigned_team_id IS NULL OR assigned_team_id = :teamId)
+        """, nativeQuery = true)
+    int consumeIfAvailable(
+            @Param("challengeId") Long challengeId,
+            @Param("codeDigest")  String codeDigest,
+            @Param("teamId")      Long teamId,
+            @Param("now")         LocalDateTime now
+    );
+
+    // 🔸 조건부 소비 실패 시 원인 판별용 (최신 커밋 값을 읽도록 잠금 조회)
+    //    행 구조: [id, assigned_team_id]
+    @Query(value = """
+        SELECT id, assigned_team_id
+          FROM signature_code
+         WHERE challenge_id = :challengeId
+           AND code_digest  = :codeDigest
+           AND deleted_at IS NULL
+         FOR UPDATE
+        """, nativeQuery = true)
+    List<Object[]> findOwnerForUpdate(
+            @Param("challengeId") Long challengeId,
+            @Param("codeDigest")  String codeDigest
+    );
+
+    // 🔸 평문 SHA-256 다이제스트로 저장된 이전 코드를 HMAC 다이제스트로 교체
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = """
+        UPDATE signature_code
+           SET code_digest = :newDigest
+         WHERE id = :id
+           AND code_digest = :oldDigest
+        """, nativeQuery = true)
+    int upgradeDigest(
+            @Param("id")        Long id,
+            @Param("oldDigest") String oldDigest,
+            @Param("newDigest") String newDigest
+    );
+
     // 🔸 챌린지 단위 하드 삭제(퍼지용)
     @Transactional
     @Modifying(clearAutomatically = true, flushAutomatically = true)
@@ -2,8 +2,12 @@ package com.mjsec.ctf.repository;
 
 import com.mjsec.ctf.domain.TeamHistoryEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 
@@ -20,4 +24,14 @@ public interface TeamHistoryRepository extends JpaRepository<TeamHistoryEntity,
 
     // 특정 팀의 모든 제출 기록 조회 (시간순 정렬)
     List<TeamHistoryEntity> findByTeamNameOrderBySolvedTimeAsc(String teamName);
+
+    // 특정 팀의 여러 문제 제출 기록 일괄 삭제
+    @Modifying
+    @Query("DELETE FROM TeamHistoryEntity t WHERE t.teamName = :teamName AND t.challengeId IN :challengeIds")
+    int deleteByTeamNameAndChallengeIdIn(@Param("teamName") String teamName,
+                                         @Param("challengeIds") Collection<Long> challengeIds);
+
+    @Modifying
+    @Query("DELETE FROM TeamHistoryEntity t WHERE t.teamName = :teamName")
+    int deleteByTeamName(@Param("teamName") String teamName);
 }
\ No newline at end of file
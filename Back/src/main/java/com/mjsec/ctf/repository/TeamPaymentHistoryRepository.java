@@ -1,9 +1,14 @@
 package com.mjsec.ctf.repository;
 
 import com.mjsec.ctf.domain.TeamPaymentHistoryEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -14,4 +19,52 @@ public interface TeamPaymentHistoryRepository extends JpaRepository<TeamPaymentH
 
     // 모든 결제 히스토리 조회 (관리자용)
     List<TeamPaymentHistoryEntity> findAllByOrderByCreatedAtDesc();
+
+    /*
+     * 결제 히스토리 + 팀명 + 요청자 loginId 를 한 번에 조회 (최신순)
+     * 반환값: [paymentHistoryId, teamId, teamName, requesterUserId, requesterLoginId, mileageUsed, createdAt]
+     */
+    @Query("""
+            SELECT p.teamPaymentHistoryId, p.teamId, t.teamName, p.requesterUserId, u.loginId, p.mileageUsed, p.createdAt
+            FROM TeamPaymentHistoryEntity p
+            LEFT JOIN TeamEntity t ON t.teamId = p.teamId
+            LEFT JOIN UserEntity u ON u.userId = p.requesterUserId
+            ORDER BY p.createdAt DESC, p.teamPaymentHistoryId DESC
+            """)
+    List<Object[]> findHistoryRows(Pageable pageable);
+
+    // 키셋 페이지: (createdAt, id) 커서 이전 행
+    @Query("""
+            SELECT p.teamPaymentHistoryId, p.teamId, t.teamName, p.requesterUserId, u.loginId, p.mileageUsed, p.createdAt
+            FROM TeamPaymentHistoryEntity p
+            LEFT JOIN TeamEntity t ON t.teamId = p.teamId
+            LEFT JOIN UserEntity u ON u.userId = p.requesterUserId
+            WHERE p.createdAt < :createdAt
+               OR (p.createdAt = :createdAt AND p.teamPaymentHistoryId < :id)
+            ORDER BY p.createdAt DESC, p.teamPaymentHistoryId DESC
+            """)
+    List<Object[]> findHistoryRowsBefore(@Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
+    // 특정 팀 결제 히스토리 (컬럼 순서 동일)
+    @Query("""
+            SELECT p.teamPaymentHistoryId, p.teamId, t.teamName, p.requesterUserId, u.loginId, p.mileageUsed, p.createdAt
+            FROM TeamPaymentHistoryEntity p
+            LEFT JOIN TeamEntity t ON t.teamId = p.teamId
+            LEFT JOIN UserEntity u ON u.userId = p.requesterUserId
+            WHERE p.teamId = :teamId
+            ORDER BY p.createdAt DESC, p.teamPaymentHistoryId DESC
+            """)
+    List<Object[]> findHistoryRowsByTeamId(@Param("teamId") Long teamId);
+
+    // 결제 철회: 삭제된 건수가 1일 때만 환불 (동시 철회 시 중복 환불 방지)
+    @Modifying
+    @Query("DELETE FROM TeamPaymentHistoryEntity p WHERE p.teamPaymentHistoryId = :id")
+    int deleteByTeamPaymentHistoryId(@Param("id") Long id);
+
+    // 팀 삭제 시 결제 히스토리 일괄 삭제
+    @Modifying
+    @Query("DELETE FROM TeamPaymentHistoryEntity p WHERE p.teamId = :teamId")
+    int deleteByTeamId(@Param("teamId") Long teamId);
 }
@@ -4,6 +4,7 @@ import com.mjsec.ctf.domain.TeamEntity;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,11 +18,23 @@ public interface TeamRepository extends JpaRepository<TeamEntity, Long> {
 
     List<TeamEntity> findAllByOrderByTotalPointDescLastSolvedTimeAsc();
 
-    @Query(value = "SELECT * FROM team WHERE JSON_CONTAINS(member_user_ids, CAST(:userId AS JSON))", nativeQuery = true)
+    @Query("SELECT t FROM TeamEntity t, UserEntity u WHERE u.userId = :userId AND t.teamId = u.currentTeamId")
     Optional<TeamEntity> findByMemberUserId(@Param("userId") Long userId);
 
-    // 일부 환경에서 solved_challenge_ids가 문자열 배열로 저장된 이력이 있어 두 타입 모두 매칭
-    @Query(value = "SELECT * FROM team WHERE JSON_CONTAINS(solved_challenge_ids, CAST(:challengeId AS JSON)) " +
-            "OR JSON_CONTAINS(solved_challenge_ids, JSON_QUOTE(CAST(:challengeId AS CHAR)))", nativeQuery = true)
-    List<TeamEntity> findTeamsBySolvedChallengeId(@Param("challengeId") Long challengeId);
+    // ---------- 마일리지 잔액 (MileageLedgerService 전용, 원장 기록과 같은 트랜잭션에서 사용) ----------
+    @Modifying
+    @Query("UPDATE TeamEntity t SET t.mileage = t.mileage + :amount WHERE t.teamId = :teamId")
+    int incrementMileage(@Param("teamId") Long teamId, @Param("amount") int amount);
+
+    // 잔액이 충분할 때만 차감 (조건부 원자적 UPDATE, 0이면 잔액 부족)
+    @Modifying
+    @Query("UPDATE TeamEntity t SET t.mileage = t.mileage - :amount WHERE t.teamId = :teamId AND t.mileage >= :amount")
+    int decrementMileageIfEnough(@Param("teamId") Long teamId, @Param("amount") int amount);
+
+    @Query("SELECT t.mileage FROM TeamEntity t WHERE t.teamId = :teamId")
+    Optional<Integer> findMileageByTeamId(@Param("teamId") Long teamId);
+
+    // 현재 잔액을 잠금 조회 (0 미만으로 내려가지 않게 회수할 때만 사용)
+    @Query(value = "SELECT mileage FROM team WHERE team_id = :teamId FOR UPDATE", nativeQuery = true)
+    Optional<Integer> findMileageByTeamIdForUpdate(@Param("teamId") Long teamId);
 }
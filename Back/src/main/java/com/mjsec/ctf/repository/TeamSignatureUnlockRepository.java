@@ -2,7 +2,12 @@ package com.mjsec.ctf.repository;
 
 import com.mjsec.ctf.domain.TeamSignatureUnlockEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TeamSignatureUnlockRepository extends JpaRepository<TeamSignatureUnlockEntity, Long> {
@@ -12,6 +17,29 @@ public interface TeamSignatureUnlockRepository extends JpaRepository<TeamSignatu
     List<TeamSignatureUnlockEntity> findByChallengeId(Long challengeId);
     List<TeamSignatureUnlockEntity> findByTeamId(Long teamId);
 
+    // 언락 인덱스 적재용 (teamId, challengeId) 쌍
+    @Query("SELECT u.teamId, u.challengeId FROM TeamSignatureUnlockEntity u")
+    List<Object[]> findAllTeamChallengePairs();
+
+    /*
+     * 팀×문제 언락 기록 (이미 있으면 유지, 소프트삭제된 행이면 복구)
+     * - uk_unlock_team_challenge 가 소프트삭제 행까지 포함하므로 exists 확인 후 save 하면 복구 시 중복키 오류
+     * - 대입은 왼쪽부터 평가되므로 unlocked_at/updated_at 판정 시 deleted_at 은 아직 이전 값
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        INSERT INTO team_signature_unlock (team_id, challenge_id, unlocked_at, created_at, updated_at)
+        VALUES (:teamId, :challengeId, :now, :now, :now)
+        ON DUPLICATE KEY UPDATE
+            unlocked_at = IF(deleted_at IS NULL, unlocked_at, VALUES(unlocked_at)),
+            updated_at  = IF(deleted_at IS NULL, updated_at, VALUES(updated_at)),
+            deleted_at  = NULL
+        """, nativeQuery = true)
+    int upsertUnlock(@Param("teamId") Long teamId,
+                     @Param("challengeId") Long challengeId,
+                     @Param("now") LocalDateTime now);
+
     @Transactional
     long deleteByChallengeId(Long challengeId);
 
@@ -0,0 +1,51 @@
+package com.mjsec.ctf.repository;
+
+import com.mjsec.ctf.domain.TeamSolveEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TeamSolveRepository extends JpaRepository<TeamSolveEntity, Long> {
+
+    boolean existsByTeamIdAndChallengeId(Long teamId, Long challengeId);
+
+    long countByTeamId(Long teamId);
+
+    @Query("SELECT s.challengeId FROM TeamSolveEntity s WHERE s.teamId = :teamId ORDER BY s.solvedAt ASC")
+    List<Long> findChallengeIdsByTeamId(@Param("teamId") Long teamId);
+
+    // 특정 문제를 푼 팀 ID (idx_team_solve_challenge)
+    @Query("SELECT s.teamId FROM TeamSolveEntity s WHERE s.challengeId = :challengeId")
+    List<Long> findTeamIdsByChallengeId(@Param("challengeId") Long challengeId);
+
+    // 여러 문제를 푼 팀 목록, 반환값: [teamId, challengeId]
+    @Query("SELECT s.teamId, s.challengeId FROM TeamSolveEntity s WHERE s.challengeId IN :challengeIds")
+    List<Object[]> findTeamChallengePairsByChallengeIdIn(@Param("challengeIds") Collection<Long> challengeIds);
+
+    // 전체 팀-문제 쌍 (전체 재계산용), 반환값: [teamId, challengeId]
+    @Query("SELECT s.teamId, s.challengeId FROM TeamSolveEntity s")
+    List<Object[]> findAllTeamChallengePairs();
+
+    // 팀별 풀이 수 (리더보드), 반환값: [teamId, count]
+    @Query("SELECT s.teamId, COUNT(s) FROM TeamSolveEntity s GROUP BY s.teamId")
+    List<Object[]> countGroupByTeamId();
+
+    @Modifying
+    @Query("DELETE FROM TeamSolveEntity s WHERE s.teamId = :teamId AND s.challengeId IN :challengeIds")
+    int deleteByTeamIdAndChallengeIdIn(@Param("teamId") Long teamId,
+                                       @Param("challengeIds") Collection<Long> challengeIds);
+
+    @Modifying
+    @Query("DELETE FROM TeamSolveEntity s WHERE s.teamId = :teamId")
+    int deleteByTeamId(@Param("teamId") Long teamId);
+
+    @Modifying
+    @Query("DELETE FROM TeamSolveEntity s WHERE s.challengeId = :challengeId")
+    int deleteByChallengeId(@Param("challengeId") Long challengeId);
+}
@@ -1,9 +1,11 @@
 package com.mjsec.ctf.repository;
 
 import com.mjsec.ctf.domain.UserEntity;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
@@ -19,4 +21,25 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
     List<String> findAllUserLoginIds();
 
     Optional<UserEntity> findByEmail(String email);
+
+    List<UserEntity> findByLoginIdIn(Collection<String> loginIds);
+
+    // ---------- 팀 소속 (idx_user_current_team) ----------
+    List<UserEntity> findByCurrentTeamId(Long teamId);
+
+    long countByCurrentTeamId(Long teamId);
+
+    @Query("SELECT u.loginId FROM UserEntity u WHERE u.currentTeamId = :teamId AND u.loginId IS NOT NULL")
+    List<String> findLoginIdsByCurrentTeamId(@Param("teamId") Long teamId);
+
+    @Query("SELECT u.email FROM UserEntity u WHERE u.currentTeamId = :teamId")
+    List<String> findEmailsByCurrentTeamId(@Param("teamId") Long teamId);
+
+    // 반환: [teamId, email]
+    @Query("SELECT u.currentTeamId, u.email FROM UserEntity u WHERE u.currentTeamId IS NOT NULL")
+    List<Object[]> findTeamMemberEmails();
+
+    // 반환: [teamId, loginId]
+    @Query("SELECT u.currentTeamId, u.loginId FROM UserEntity u WHERE u.currentTeamId IS NOT NULL AND u.loginId IS NOT NULL")
+    List<Object[]> findTeamMemberLoginIds();
 }
\ No newline at end of file
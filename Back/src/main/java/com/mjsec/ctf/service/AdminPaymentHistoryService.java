@@ -0,0 +1,139 @@
+package com.mjsec.ctf.service;
+
+import com.mjsec.ctf.dto.TeamPaymentHistoryDto;
+import com.mjsec.ctf.dto.TeamPaymentHistoryPageDto;
+import com.mjsec.ctf.repository.TeamPaymentHistoryRepository;
+import com.mjsec.ctf.util.CsvUtil;
+import com.mjsec.ctf.util.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * 결제 히스토리 조회/정산 내보내기
+ * - payment ⋈ team ⋈ user 를 한 번의 쿼리로 조회 (행마다 팀/유저 조회하던 2N+1 제거)
+ * - (createdAt, id) 최신순 키셋 페이지네이션
+ * - 정산용 CSV 는 배치 단위로 읽어 응답 스트림에 바로 기록
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdminPaymentHistoryService {
+
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    public static final int MAX_PAGE_SIZE = 1000;
+    private static final int EXPORT_BATCH_SIZE = 1000;
+    private static final String UNKNOWN = "Unknown";
+
+    private static final DateTimeFormatter CSV_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String CSV_HEADER = "paymentHistoryId,teamId,teamName,requesterUserId,requesterLoginId,mileageUsed,createdAt\n";
+
+    private final TeamPaymentHistoryRepository teamPaymentHistoryRepository;
+
+    // ---------- 팀별 조회 ----------
+    public List<TeamPaymentHistoryDto> getByTeam(Long teamId) {
+        return toDtos(teamPaymentHistoryRepository.findHistoryRowsByTeamId(teamId));
+    }
+
+    // ---------- 전체 조회 (기존 목록 API 호환) ----------
+    public List<TeamPaymentHistoryDto> getAll() {
+        List<TeamPaymentHistoryDto> result = new ArrayList<>();
+        KeysetCursor before = null;
+        while (true) {
+            List<Object[]> rows = fetchRows(before, EXPORT_BATCH_SIZE);
+            result.addAll(toDtos(rows));
+            if (rows.size() < EXPORT_BATCH_SIZE) break;
+            before = cursorOf(rows.get(rows.size() - 1));
+        }
+        return result;
+    }
+
+    // ---------- 키셋 페이지 조회 ----------
+    public TeamPaymentHistoryPageDto getPage(String cursor, Integer size) {
+        int limit = (size == null || size <= 0) ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+
+        // 다음 페이지 존재 여부 확인을 위해 1건 더 조회
+        List<Object[]> rows = fetchRows(KeysetCursor.decode(cursor), limit + 1);
+        boolean hasNext = rows.size() > limit;
+        if (hasNext) {
+            rows = rows.subList(0, limit);
+        }
+
+        return TeamPaymentHistoryPageDto.builder()
+                .histories(toDtos(rows))
+                .nextCursor(hasNext ? cursorOf(rows.get(rows.size() - 1)).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    // ---------- 정산용 CSV 스트리밍 ----------
+    public void exportCsv(OutputStream out) throws IOException {
+        BufferedOutputStream bos = new BufferedOutputStream(out, 64 * 1024);
+        bos.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+
+        KeysetCursor before = null;
+        int count = 0;
+        long totalMileage = 0;
+        while (true) {
+            List<Object[]> rows = fetchRows(before, EXPORT_BATCH_SIZE);
+            for (TeamPaymentHistoryDto h : toDtos(rows)) {
+                String line = new StringBuilder(128)
+                        .append(h.getTeamPaymentHistoryId()).append(',')
+                        .append(h.getTeamId()).append(',')
+                        .append(CsvUtil.escape(h.getTeamName())).append(',')
+                        .append(h.getRequesterUserId()).append(',')
+                        .append(CsvUtil.escape(h.getRequesterLoginId())).append(',')
+                        .append(h.getMileageUsed()).append(',')
+                        .append(h.getCreatedAt() == null ? "" : CSV_TIME_FORMAT.format(h.getCreatedAt())).append('\n')
+                        .toString();
+                bos.write(line.getBytes(StandardCharsets.UTF_8));
+                count++;
+                totalMileage += h.getMileageUsed();
+            }
+            if (rows.size() < EXPORT_BATCH_SIZE) break;
+            before = cursorOf(rows.get(rows.size() - 1));
+        }
+
+        bos.flush();
+        log.info("관리자: 결제 히스토리 CSV 내보내기 {} 건, 사용 마일리지 합계 {}", count, totalMileage);
+    }
+
+    private List<Object[]> fetchRows(KeysetCursor before, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return before == null
+                ? teamPaymentHistoryRepository.findHistoryRows(page)
+                : teamPaymentHistoryRepository.findHistoryRowsBefore(before.time(), before.id(), page);
+    }
+
+    // 행 구조: [paymentHistoryId, teamId, teamName, requesterUserId, requesterLoginId, mileageUsed, createdAt]
+    private List<TeamPaymentHistoryDto> toDtos(List<Object[]> rows) {
+        List<TeamPaymentHistoryDto> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            result.add(TeamPaymentHistoryDto.builder()
+                    .teamPaymentHistoryId((Long) row[0])
+                    .teamId((Long) row[1])
+                    .teamName(row[2] != null ? (String) row[2] : UNKNOWN)
+                    .requesterUserId((Long) row[3])
+                    .requesterLoginId(row[4] != null ? (String) row[4] : UNKNOWN)
+                    .mileageUsed(((Number) row[5]).intValue())
+                    .createdAt((LocalDateTime) row[6])
+                    .build());
+        }
+        return result;
+    }
+
+    // 커서: (createdAt, id)
+    private static KeysetCursor cursorOf(Object[] row) {
+        return new KeysetCursor((LocalDateTime) row[6], (Long) row[0]);
+    }
+}
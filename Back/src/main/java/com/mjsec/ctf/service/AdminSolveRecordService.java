@@ -0,0 +1,214 @@
+package com.mjsec.ctf.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mjsec.ctf.dto.AdminSolveRecordDto;
+import com.mjsec.ctf.dto.AdminSolveRecordPageDto;
+import com.mjsec.ctf.repository.HistoryRepository;
+import com.mjsec.ctf.type.ChallengeCategory;
+import com.mjsec.ctf.util.CsvUtil;
+import com.mjsec.ctf.util.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/*
+ * 관리자 제출 기록 조회/내보내기
+ * - history ⋈ challenge ⋈ user ⋈ team 을 한 번의 쿼리로 가져온다 (행마다 user/team 조회하던 N+1 제거)
+ * - (solvedTime, id) 키셋 페이지네이션으로 OFFSET 없이 이어서 조회
+ * - 전체 내보내기는 배치 단위로 읽어 응답 스트림에 바로 기록 (전체 목록을 메모리에 올리지 않음)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdminSolveRecordService {
+
+    public static final int DEFAULT_PAGE_SIZE = 500;
+    public static final int MAX_PAGE_SIZE = 2000;
+    private static final int EXPORT_BATCH_SIZE = 1000;
+
+    private static final DateTimeFormatter CSV_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String CSV_HEADER =
+            "historyId,challengeId,challengeTitle,loginId,teamId,teamName,univ,solvedTime,pointsAwarded,mileageAwarded,mileageBonus,isFirstBlood\n";
+
+    private final HistoryRepository historyRepository;
+    private final ObjectMapper objectMapper;
+
+    // 내보내기 시 레코드를 받아 처리하는 콜백 (스트림 기록 중 IOException 전파용)
+    @FunctionalInterface
+    private interface RecordSink {
+        void accept(AdminSolveRecordDto record) throws IOException;
+    }
+
+    // ---------- 키셋 페이지 조회 ----------
+    public AdminSolveRecordPageDto getPage(String cursor, Integer size) {
+        int limit = (size == null || size <= 0) ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        // 다음 페이지 존재 여부 확인을 위해 1건 더 조회
+        List<Object[]> rows = fetchRows(after, limit + 1);
+        boolean hasNext = rows.size() > limit;
+        if (hasNext) {
+            rows = rows.subList(0, limit);
+        }
+
+        // 페이지에 등장한 문제들의 퍼스트 블러드만 인덱스로 조회
+        Set<Long> challengeIds = rows.stream()
+                .map(r -> (Long) r[1])
+                .collect(Collectors.toSet());
+        Map<Long, Long> firstBloodMap = new HashMap<>();
+        if (!challengeIds.isEmpty()) {
+            for (Object[] fb : historyRepository.findFirstBloodIdsByChallengeIdIn(challengeIds)) {
+                firstBloodMap.put((Long) fb[0], (Long) fb[1]);
+            }
+        }
+
+        List<AdminSolveRecordDto> records = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            if (row[9] == null) continue; // 사용자 없음
+            Long historyId = (Long) row[0];
+            boolean isFirstBlood = historyId.equals(firstBloodMap.get((Long) row[1]));
+            records.add(toDto(row, isFirstBlood));
+        }
+
+        // 커서는 (사용자 누락으로 건너뛴 행 포함) 마지막으로 읽은 행 기준
+        String nextCursor = null;
+        if (hasNext) {
+            Object[] last = rows.get(rows.size() - 1);
+            nextCursor = cursorOf(last).encode();
+        }
+
+        return AdminSolveRecordPageDto.builder()
+                .records(records)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    // ---------- 전체 조회 (기존 목록 API 호환) ----------
+    public List<AdminSolveRecordDto> getAll() {
+        List<AdminSolveRecordDto> records = new ArrayList<>();
+        try {
+            forEachRecord(records::add);
+        } catch (IOException e) {
+            // 메모리 수집에서는 발생하지 않음
+            throw new UncheckedIOException(e);
+        }
+        return records;
+    }
+
+    // ---------- 스트리밍 내보내기 ----------
+    public void exportCsv(OutputStream out) throws IOException {
+        BufferedOutputStream bos = new BufferedOutputStream(out, 64 * 1024);
+        bos.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+
+        int count = forEachRecord(r -> {
+            String line = new StringBuilder(160)
+                    .append(r.getHistoryId()).append(',')
+                    .append(r.getChallengeId()).append(',')
+                    .append(CsvUtil.escape(r.getChallengeTitle())).append(',')
+                    .append(CsvUtil.escape(r.getLoginId())).append(',')
+                    .append(r.getTeamId() == null ? "" : r.getTeamId()).append(',')
+                    .append(CsvUtil.escape(r.getTeamName())).append(',')
+                    .append(CsvUtil.escape(r.getUniv())).append(',')
+                    .append(r.getSolvedTime() == null ? "" : CSV_TIME_FORMAT.format(r.getSolvedTime())).append(',')
+                    .append(r.getPointsAwarded()).append(',')
+                    .append(r.getMileageAwarded()).append(',')
+                    .append(r.getMileageBonus()).append(',')
+                    .append(r.isFirstBlood()).append('\n')
+                    .toString();
+            bos.write(line.getBytes(StandardCharsets.UTF_8));
+        });
+
+        bos.flush();
+        log.info("관리자: 제출 기록 CSV 내보내기 {} 건", count);
+    }
+
+    public void exportNdjson(OutputStream out) throws IOException {
+        BufferedOutputStream bos = new BufferedOutputStream(out, 64 * 1024);
+
+        int count = forEachRecord(r -> {
+            bos.write(objectMapper.writeValueAsBytes(r));
+            bos.write('\n');
+        });
+
+        bos.flush();
+        log.info("관리자: 제출 기록 NDJSON 내보내기 {} 건", count);
+    }
+
+    /*
+     * 전체 기록을 (solvedTime, id) 순서로 배치 조회하며 한 번만 순회
+     * 정렬 순서상 문제별로 처음 등장하는 행이 퍼스트 블러드이므로 별도 그룹핑 없이 판정
+     */
+    private int forEachRecord(RecordSink sink) throws IOException {
+        Set<Long> bloodedChallenges = new HashSet<>();
+        KeysetCursor after = null;
+        int count = 0;
+
+        while (true) {
+            List<Object[]> rows = fetchRows(after, EXPORT_BATCH_SIZE);
+            if (rows.isEmpty()) break;
+
+            for (Object[] row : rows) {
+                // 사용자 누락 행도 퍼스트 블러드 판정에는 포함 (기존 로직과 동일)
+                boolean isFirstBlood = bloodedChallenges.add((Long) row[1]);
+                if (row[9] == null) continue;
+                sink.accept(toDto(row, isFirstBlood));
+                count++;
+            }
+
+            Object[] last = rows.get(rows.size() - 1);
+            after = cursorOf(last);
+            if (rows.size() < EXPORT_BATCH_SIZE) break;
+        }
+        return count;
+    }
+
+    private List<Object[]> fetchRows(KeysetCursor after, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return after == null
+                ? historyRepository.findSolveRecordRows(page)
+                : historyRepository.findSolveRecordRowsAfter(after.time(), after.id(), page);
+    }
+
+    // 행 구조: [historyId, challengeId, challengeTitle, category, points, mileage,
+    //          loginId, univ, solvedTime, userId, currentTeamId, teamName]
+    private AdminSolveRecordDto toDto(Object[] row, boolean isFirstBlood) {
+        ChallengeCategory category = (ChallengeCategory) row[3];
+        int points = ((Number) row[4]).intValue();
+        int baseMileage = ((Number) row[5]).intValue();
+
+        int pointsAwarded = category == ChallengeCategory.SIGNATURE ? 0 : points;
+        int mileageBonus = (isFirstBlood && baseMileage > 0) ? (int) Math.ceil(baseMileage * 0.30) : 0;
+
+        return AdminSolveRecordDto.builder()
+                .historyId((Long) row[0])
+                .challengeId((Long) row[1])
+                .challengeTitle((String) row[2])
+                .loginId((String) row[6])
+                .univ((String) row[7])
+                .solvedTime((LocalDateTime) row[8])
+                .teamId((Long) row[10])
+                .teamName((String) row[11])
+                .pointsAwarded(pointsAwarded)
+                .mileageAwarded(baseMileage)
+                .mileageBonus(mileageBonus)
+                .isFirstBlood(isFirstBlood)
+                .build();
+    }
+
+    // 커서: (solvedTime, historyId)
+    private static KeysetCursor cursorOf(Object[] row) {
+        return new KeysetCursor((LocalDateTime) row[8], (Long) row[0]);
+    }
+}
@@ -0,0 +1,250 @@
+package com.mjsec.ctf.alert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/*
+ * 디코봇 알림 전송기 (AlertService 내부에서 생성)
+ * - 크기 제한 큐: 가득 차면 버리고 dropped 로 집계 (차단 처리 스레드는 절대 기다리지 않음)
+ * - 동시 전송 MAX_IN_FLIGHT 건으로 제한, 전송은 sendAsync 만 사용
+ * - 실패(연결 오류/5xx/429)는 스케줄러로 지수 백오프 후 다시 큐에 넣음 → 완료 스레드에서 블로킹 재전송 없음
+ * - 10초 묶음: 조용하던 중 첫 차단은 바로 보내고, 이후 WINDOW_MS 동안의 차단은 모아서
+ *   "최근 10초간 N개 IP 차단" 요약 1건으로 전송 (1건뿐이면 원래 형식 그대로)
+ */
+@Slf4j
+public class AlertDispatcher {
+
+    private static final long WINDOW_MS = 10_000;
+    private static final int QUEUE_CAPACITY = 200;
+    private static final int MAX_IN_FLIGHT = 4;
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long BASE_BACKOFF_MS = 1_000;
+    private static final int DIGEST_IP_LIMIT = 50;
+
+    private final HttpClient client;
+    private final URI endpoint;
+    private final String apiKey;
+    private final String environment;
+    private final ObjectMapper om;
+
+    private final BlockingQueue<Delivery> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "alert-dispatcher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // 묶음 창 상태 (this 로 동기화)
+    private long windowEnd = 0;
+    private final List<Map<String, Object>> windowed = new ArrayList<>();
+    private ScheduledFuture<?> flushTask;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public AlertDispatcher(HttpClient client, String endpoint, String apiKey, String environment, ObjectMapper om) {
+        this.client = client;
+        this.endpoint = URI.create(endpoint);
+        this.apiKey = apiKey;
+        this.environment = environment;
+        this.om = om;
+    }
+
+    public record Stats(int queued, int inFlight, long delivered, long dropped, long failed, long retried, long coalesced) {}
+
+    private static final class Delivery {
+        final byte[] body;
+        int attempts;
+
+        Delivery(byte[] body) {
+            this.body = body;
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(queue.size(), MAX_IN_FLIGHT - inFlight.availablePermits(),
+                delivered.get(), dropped.get(), failed.get(), retried.get(), coalesced.get());
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // ---------- 차단 알림 (10초 묶음) ----------
+    public void submitBan(Map<String, Object> payload) {
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (now >= windowEnd) {
+                // 조용하던 중 첫 알림: 바로 보내고 묶음 창 시작
+                windowEnd = now + WINDOW_MS;
+            } else {
+                windowed.add(payload);
+                if (flushTask == null) {
+                    flushTask = scheduler.schedule(this::flushWindow, windowEnd - now, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        }
+        enqueue(payload);
+    }
+
+    private void flushWindow() {
+        List<Map<String, Object>> batch;
+        synchronized (this) {
+            batch = new ArrayList<>(windowed);
+            windowed.clear();
+            flushTask = null;
+            // 차단이 계속되는 동안은 다음 창도 묶음으로 유지
+            if (!batch.isEmpty()) {
+                windowEnd = System.currentTimeMillis() + WINDOW_MS;
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (batch.size() == 1) {
+            enqueue(batch.get(0));
+            return;
+        }
+        coalesced.addAndGet(batch.size() - 1);
+        enqueue(digest(batch));
+    }
+
+    // 디코봇 기존 키를 유지한 요약 페이로드 (+ digest/count/ipAddresses)
+    private Map<String, Object> digest(List<Map<String, Object>> batch) {
+        List<String> ips = batch.stream()
+                .map(p -> String.valueOf(p.get("ipAddress")))
+                .distinct()
+                .collect(Collectors.toList());
+        Map<String, Long> reasons = batch.stream()
+                .collect(Collectors.groupingBy(p -> String.valueOf(p.get("reason")), LinkedHashMap::new, Collectors.counting()));
+        Set<Object> banTypes = batch.stream().map(p -> p.get("banType")).collect(Collectors.toSet());
+        Set<Object> admins = batch.stream().map(p -> p.get("bannedByAdminLoginId")).collect(Collectors.toSet());
+        Long maxDuration = batch.stream()
+                .map(p -> (Long) p.get("durationMinutes"))
+                .filter(Objects::nonNull)
+                .max(Long::compare)
+                .orElse(null);
+
+        String topReasons = reasons.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(3)
+                .map(e -> e.getKey() + " ×" + e.getValue())
+                .collect(Collectors.joining(", "));
+
+        List<String> shownIps = ips.size() > DIGEST_IP_LIMIT ? ips.subList(0, DIGEST_IP_LIMIT) : ips;
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("ipAddress", String.join(", ", shownIps) + (ips.size() > DIGEST_IP_LIMIT ? " 외 " + (ips.size() - DIGEST_IP_LIMIT) + "개" : ""));
+        payload.put("reason", "최근 " + (WINDOW_MS / 1000) + "초간 IP " + ips.size() + "개 차단 (" + topReasons + ")");
+        payload.put("banType", banTypes.size() == 1 ? banTypes.iterator().next() : "MIXED");
+        payload.put("bannedAt", batch.get(0).get("bannedAt"));
+        payload.put("expiresAt", batch.get(batch.size() - 1).get("expiresAt"));
+        payload.put("bannedByAdminLoginId", admins.size() == 1 ? admins.iterator().next() : "MIXED");
+        payload.put("durationMinutes", maxDuration);
+        payload.put("digest", true);
+        payload.put("count", batch.size());
+        payload.put("ipAddresses", shownIps);
+        return payload;
+    }
+
+    // ---------- 전송 ----------
+    private void enqueue(Map<String, Object> payload) {
+        try {
+            enqueue(new Delivery(om.writeValueAsBytes(payload)));
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.warn("[AlertDispatcher] 페이로드 직렬화 실패: {}", e.toString());
+        }
+    }
+
+    private void enqueue(Delivery delivery) {
+        if (!queue.offer(delivery)) {
+            dropped.incrementAndGet();
+            log.warn("[AlertDispatcher] 큐 가득 참, 알림 버림 (dropped={})", dropped.get());
+            return;
+        }
+        pump();
+    }
+
+    // 여유 슬롯만큼 큐에서 꺼내 비동기 전송
+    private void pump() {
+        while (inFlight.tryAcquire()) {
+            Delivery delivery = queue.poll();
+            if (delivery == null) {
+                inFlight.release();
+                // 반납 직전에 들어온 항목이 있으면 다시 시도
+                if (queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            send(delivery);
+        }
+    }
+
+    private void send(Delivery delivery) {
+        HttpRequest req = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofMillis(3000))
+                .header("Content-Type", "application/json; charset=utf-8")
+                .header("Accept", "application/json")
+                .header("x-api-key", apiKey) // 디코봇과 합의된 헤더
+                // 'Connection' 등 hop-by-hop 헤더는 금지 (IAE 발생 원인)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(delivery.body))
+                .build();
+
+        log.debug("[ALERT -> {}] len={} body={}", environment, delivery.body.length,
+                new String(delivery.body, StandardCharsets.UTF_8));
+
+        client.sendAsync(req, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((resp, ex) -> {
+                    inFlight.release();
+                    if (ex != null) {
+                        retryLater(delivery, ex.toString());
+                    } else if (resp.statusCode() == 429 || resp.statusCode() >= 500) {
+                        retryLater(delivery, "HTTP " + resp.statusCode());
+                    } else if (resp.statusCode() >= 300) {
+                        // 4xx 는 재시도해도 같은 결과
+                        failed.incrementAndGet();
+                        log.warn("Alert HTTP {} (env={}) body='{}'", resp.statusCode(), environment, resp.body());
+                    } else {
+                        delivered.incrementAndGet();
+                        log.info("[AlertDispatcher] POST {} -> status={} respLen={}",
+                                endpoint, resp.statusCode(), (resp.body() == null ? 0 : resp.body().length()));
+                    }
+                    pump();
+                });
+    }
+
+    private void retryLater(Delivery delivery, String cause) {
+        delivery.attempts++;
+        if (delivery.attempts >= MAX_ATTEMPTS) {
+            failed.incrementAndGet();
+            log.warn("[AlertDispatcher] 알림 전송 최종 실패 ({}회): {}", delivery.attempts, cause);
+            return;
+        }
+        long delay = BASE_BACKOFF_MS << (delivery.attempts - 1);
+        retried.incrementAndGet();
+        log.warn("[AlertDispatcher] 알림 전송 실패, {}ms 후 재시도 ({}/{}): {}", delay, delivery.attempts, MAX_ATTEMPTS, cause);
+        try {
+            scheduler.schedule(() -> enqueue(delivery), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 종료 중
+            failed.incrementAndGet();
+        }
+    }
+}
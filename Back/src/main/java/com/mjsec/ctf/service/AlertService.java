@@ -3,15 +3,13 @@ package com.mjsec.ctf.alert;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mjsec.ctf.domain.IPBanEntity;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.net.URI;
 import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -28,6 +26,8 @@ public class AlertService {
     private final String environment; // 로그에만 사용
     private final HttpClient client;
     private final ObjectMapper om;
+    // 큐/재시도/10초 묶음 처리 (endpoint 미설정이면 null)
+    private final AlertDispatcher dispatcher;
 
     public AlertService(
             @Value("${ctf.alert.enabled:true}") boolean enabled,
@@ -46,6 +46,19 @@ public class AlertService {
                 .connectTimeout(Duration.ofMillis(1500))
                 .build();
         this.om = objectMapper;
+        this.dispatcher = (endpoint == null || endpoint.isBlank())
+                ? null
+                : new AlertDispatcher(client, endpoint, apiKey, environment, objectMapper);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dispatcher != null) dispatcher.shutdown();
+    }
+
+    // 전송 지표 (endpoint 미설정이면 null)
+    public AlertDispatcher.Stats stats() {
+        return dispatcher == null ? null : dispatcher.stats();
     }
 
     @PostConstruct
@@ -90,7 +103,7 @@ public class AlertService {
             payload.put("bannedByAdminLoginId", adminLoginId != null ? adminLoginId : "AUTO_BAN_SYSTEM");
             payload.put("durationMinutes", calcDurationMinutes(ban.getBannedAt(), ban.getExpiresAt()));
 
-            fireAndForget(payload);
+            dispatcher.submitBan(payload);
         } catch (Exception e) {
             log.warn("notifyIpBanned failed: {}", e.toString());
         }
@@ -104,47 +117,4 @@ public class AlertService {
         if (from == null || to == null) return null;
         return ChronoUnit.MINUTES.between(from, to);
     }
-
-    private void fireAndForget(Map<String, Object> payload) throws Exception {
-        String body = om.writeValueAsString(payload);
-        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
-
-        HttpRequest req = HttpRequest.newBuilder(URI.create(endpoint))
-                .timeout(Duration.ofMillis(3000))
-                .header("Content-Type", "application/json; charset=utf-8")
-                .header("Accept", "application/json")
-                .header("x-api-key", apiKey) // 디코봇과 합의된 헤더
-                // 'Connection' 등 hop-by-hop 헤더는 금지 (IAE 발생 원인)
-                .POST(HttpRequest.BodyPublishers.ofByteArray(bytes))
-                .build();
-
-        // 디버그: 전송 바이트 길이/바디
-        log.debug("[ALERT -> {}] len={} body={}", environment, bytes.length, body);
-
-        client.sendAsync(req, HttpResponse.BodyHandlers.ofString())
-                .thenAccept(resp -> {
-                    int code = resp.statusCode();
-                    String respBody = resp.body();
-                    log.info("[AlertService] POST {} -> status={} respLen={}",
-                            endpoint, code, (respBody == null ? 0 : respBody.length()));
-                    if (code >= 300) {
-                        log.warn("Alert HTTP {} (env={}) body='{}'", code, environment, respBody);
-                    }
-                })
-                .exceptionally(ex -> {
-                    log.warn("Alert HTTP failed once (will retry): {}", ex.toString());
-                    try {
-                        var retryResp = client.send(req, HttpResponse.BodyHandlers.ofString());
-                        log.info("[AlertService] retry status={} respLen={}",
-                                retryResp.statusCode(),
-                                (retryResp.body() == null ? 0 : retryResp.body().length()));
-                        if (retryResp.statusCode() >= 300) {
-                            log.warn("Alert retry got {} body='{}'", retryResp.statusCode(), retryResp.body());
-                        }
-                    } catch (Exception e2) {
-                        log.warn("Alert retry failed: {}", e2.toString());
-                    }
-                    return null;
-                });
-    }
 }
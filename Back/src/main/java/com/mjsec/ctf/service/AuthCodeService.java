@@ -3,21 +3,92 @@ package com.mjsec.ctf.service;
 import com.mjsec.ctf.exception.RestApiException;
 import com.mjsec.ctf.type.ErrorCode;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-import java.util.Random;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 public class AuthCodeService {
 
-    private final StringRedisTemplate redisTemplate;
+    private static final int MAX_VERIFY_ATTEMPTS = 5;
+    private static final long ATTEMPT_TTL_SECONDS = TimeUnit.MINUTES.toSeconds(5);
+    private static final long VERIFIED_TTL_SECONDS = TimeUnit.MINUTES.toSeconds(30);
+
+    /*
+     * 인증 코드 검증 (시도 횟수 확인 + 비교 + verified 표시 + 정리를 한 번에 원자 처리)
+     * KEYS: authCode:{email}, attempts:{email}, verified:{email}
+     * ARGV: 입력 코드, 최대 시도 횟수, 시도 횟수 유지(초), 인증 유지(초)
+     * 반환: -1 = 시도 횟수 초과(코드 폐기), 0 = 성공, n(>0) = 실패 후 누적 시도 횟수
+     */
+    private static final DefaultRedisScript<Long> VERIFY_SCRIPT = new DefaultRedisScript<>(
+            "local attempts = tonumber(redis.call('GET', KEYS[2]) or '0') " +
+            "if attempts >= tonumber(ARGV[2]) then " +
+            "  redis.call('DEL', KEYS[1], KEYS[2]) " +
+            "  return -1 " +
+            "end " +
+            "local stored = redis.call('GET', KEYS[1]) " +
+            "if stored and stored == ARGV[1] then " +
+            "  redis.call('SET', KEYS[3], 'true', 'EX', ARGV[4]) " +
+            "  redis.call('DEL', KEYS[1], KEYS[2]) " +
+            "  return 0 " +
+            "end " +
+            "local n = redis.call('INCR', KEYS[2]) " +
+            "redis.call('EXPIRE', KEYS[2], ARGV[3]) " +
+            "return n",
+            Long.class);
+
+    // 고정 윈도 카운터: 첫 요청에 만료 설정, 반환 = 윈도 내 요청 수
+    private static final DefaultRedisScript<Long> WINDOW_COUNT_SCRIPT = new DefaultRedisScript<>(
+            "local n = redis.call('INCR', KEYS[1]) " +
+            "if n == 1 then redis.call('EXPIRE', KEYS[1], ARGV[1]) end " +
+            "return n",
+            Long.class);
 
-    public AuthCodeService(StringRedisTemplate redisTemplate) {
+    private final StringRedisTemplate redisTemplate;
+    private final ContestMetrics contestMetrics;
+    private final SecureRandom random = new SecureRandom();
+
+    // IP/이메일당 인증 코드 발송 요청 제한 (메일 큐가 스팸으로 가득 차지 않도록, 한 주소로 메일 폭탄 방지)
+    private final int maxSendPerIp;
+    private final int maxSendPerEmail;
+    private final long sendWindowSeconds;
+
+    public AuthCodeService(StringRedisTemplate redisTemplate,
+                           ContestMetrics contestMetrics,
+                           @Value("${auth-code.send.max-per-ip:20}") int maxSendPerIp,
+                           @Value("${auth-code.send.max-per-email:5}") int maxSendPerEmail,
+                           @Value("${auth-code.send.window-minutes:10}") long sendWindowMinutes) {
         this.redisTemplate = redisTemplate;
+        this.contestMetrics = contestMetrics;
+        this.maxSendPerIp = maxSendPerIp;
+        this.maxSendPerEmail = maxSendPerEmail;
+        this.sendWindowSeconds = TimeUnit.MINUTES.toSeconds(sendWindowMinutes);
+    }
+
+    // 인증 코드 발송 요청 IP/이메일 제한 (초과 시 429)
+    // clientIp 는 신뢰 프록시 기준 주소(TrustedProxies)여야 함, X-Forwarded-For 값을 그대로 넘기면 우회 가능
+    public void assertSendAllowed(String clientIp, String email) {
+        assertWithinWindow("send_code:ip:" + clientIp, maxSendPerIp, "ip=" + clientIp);
+        if (email != null) {
+            String normalized = email.trim().toLowerCase(Locale.ROOT);
+            assertWithinWindow("send_code:email:" + normalized, maxSendPerEmail, "email=" + normalized);
+        }
+    }
+
+    private void assertWithinWindow(String key, int max, String subject) {
+        Long count = redisTemplate.execute(WINDOW_COUNT_SCRIPT, List.of(key), String.valueOf(sendWindowSeconds));
+        if (count != null && count > max) {
+            log.warn("인증 코드 발송 요청 제한 초과: {}, count={}", subject, count);
+            contestMetrics.rateLimitHit("auth_code_send", "blocked");
+            throw new RestApiException(ErrorCode.AUTH_CODE_SEND_LIMIT_EXCEEDED);
+        }
     }
 
     public String generateAndStoreCode(String email) {
@@ -25,42 +96,32 @@ public class AuthCodeService {
 
         // Redis에 저장 (5분 동안 유효)
         redisTemplate.opsForValue().set("authCode:" + email, code, 5, TimeUnit.MINUTES);
-        log.info("인증 코드 생성 및 저장: {} -> {}", email, code);
+        log.info("인증 코드 생성 및 저장: {}", email);
 
         return code;
     }
 
     public boolean verifyCode(String email, String code) {
-        String key = "authCode:" + email;
-        String storedCode = redisTemplate.opsForValue().get(key);
-        String attemptKey = "attempts:" + email;
-
-        // 인증 시도 횟수 확인
-        Integer attempts = Optional.ofNullable(redisTemplate.opsForValue().get(attemptKey))
-                .map(Integer::valueOf)
-                .orElse(0);
-
-        if (attempts >= 5) {
-            redisTemplate.delete(key); // 인증 코드 삭제
-            redisTemplate.delete(attemptKey);
+        Long result = redisTemplate.execute(VERIFY_SCRIPT,
+                List.of("authCode:" + email, "attempts:" + email, "verified:" + email),
+                code == null ? "" : code.trim(),
+                String.valueOf(MAX_VERIFY_ATTEMPTS),
+                String.valueOf(ATTEMPT_TTL_SECONDS),
+                String.valueOf(VERIFIED_TTL_SECONDS));
+
+        if (result == null) {
+            throw new RestApiException(ErrorCode.INTERNAL_SERVER_ERROR);
+        }
+        if (result < 0) {
             log.warn("인증 시도 횟수 초과: {}", email);
             throw new RestApiException(ErrorCode.AUTH_ATTEMPT_EXCEEDED);
         }
-
-        if (storedCode != null && storedCode.equals(code)) {
-            // 인증 성공
-            redisTemplate.opsForValue().set("verified:" + email, "true", 30, TimeUnit.MINUTES);
-            redisTemplate.delete(key); // 인증 코드 삭제
-            redisTemplate.delete(attemptKey); // 시도 횟수 삭제
+        if (result == 0) {
             log.info("이메일 인증 성공: {}", email);
             return true;
-        } else {
-            // 인증 실패 시 시도 횟수 증가
-            redisTemplate.opsForValue().increment(attemptKey);
-            redisTemplate.expire(attemptKey, 5, TimeUnit.MINUTES); // 5분 동안 시도 횟수 유지
-            log.warn("이메일 인증 실패: {} (시도 횟수: {})", email, attempts + 1);
-            return false;
         }
+        log.warn("이메일 인증 실패: {} (시도 횟수: {})", email, result);
+        return false;
     }
 
     // 이메일 인증 여부 확인
@@ -71,7 +132,6 @@ public class AuthCodeService {
 
     // 6자리 숫자 코드 생성 메서드
     private String generateNumericCode(int length) {
-        Random random = new Random();
         StringBuilder code = new StringBuilder();
 
         for (int i = 0; i < length; i++) {
@@ -80,4 +140,4 @@ public class AuthCodeService {
 
         return code.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.mjsec.ctf.service;
+
+import com.mjsec.ctf.exception.RestApiException;
+import com.mjsec.ctf.type.ErrorCode;
+import com.mjsec.ctf.type.TrafficClass;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+
+/*
+ * 트래픽 분류별 격리 실행
+ * - run(): 컨트롤러가 WebAsyncTask 를 반환 → 서블릿 비동기로 전환되어 Tomcat 워커는 즉시 반납,
+ *   처리는 분류별 실행기(BulkheadConfig)에서 수행. 실행기 포화 시 503 + Retry-After
+ *   (인증 정보는 스프링 시큐리티가 비동기 스레드로 전달, 권한 검사는 최초 요청에서 이미 끝남)
+ * - SSE: 연결 자체는 워커를 잡지 않으므로 동시 구독자 수만 제한
+ * - 제출 타임아웃은 정답 처리 공정 락 최대 대기(ctf.submit.lock-wait-ms) + 처리 여유보다 길어야 함
+ *   → 타임아웃(503)이 먼저 나가면 클라이언트는 실패로 알지만 뒤에서 정답이 커밋될 수 있음, 짧게 설정돼 있으면 올려서 사용
+ */
+@Slf4j
+@Component
+public class Bulkhead {
+
+    // 락 획득 후 DB 반영/커밋까지의 여유
+    private static final long SUBMIT_PROCESSING_MARGIN_MS = 15_000;
+
+    private final Map<TrafficClass, AsyncTaskExecutor> executors = new EnumMap<>(TrafficClass.class);
+    private final Map<TrafficClass, Long> timeoutsMs = new EnumMap<>(TrafficClass.class);
+    private final Semaphore sseSlots;
+
+    public Bulkhead(@Qualifier("submitBulkheadExecutor") AsyncTaskExecutor submitExecutor,
+                    @Qualifier("downloadBulkheadExecutor") AsyncTaskExecutor downloadExecutor,
+                    @Qualifier("adminBulkheadExecutor") AsyncTaskExecutor adminExecutor,
+                    @Value("${ctf.bulkhead.submit.timeout-ms:45000}") long submitTimeoutMs,
+                    @Value("${ctf.submit.lock-wait-ms:20000}") long submitLockWaitMs,
+                    @Value("${ctf.bulkhead.download.timeout-ms:60000}") long downloadTimeoutMs,
+                    @Value("${ctf.bulkhead.admin.timeout-ms:300000}") long adminTimeoutMs,
+                    @Value("${ctf.bulkhead.sse.max-subscribers:2000}") int maxSseSubscribers) {
+        executors.put(TrafficClass.SUBMIT, submitExecutor);
+        executors.put(TrafficClass.DOWNLOAD, downloadExecutor);
+        executors.put(TrafficClass.ADMIN, adminExecutor);
+        long minSubmitTimeoutMs = submitLockWaitMs + SUBMIT_PROCESSING_MARGIN_MS;
+        if (submitTimeoutMs < minSubmitTimeoutMs) {
+            log.warn("[Bulkhead] 제출 타임아웃 {}ms 가 락 대기 {}ms + 여유보다 짧아 {}ms 로 조정",
+                    submitTimeoutMs, submitLockWaitMs, minSubmitTimeoutMs);
+            submitTimeoutMs = minSubmitTimeoutMs;
+        }
+        timeoutsMs.put(TrafficClass.SUBMIT, submitTimeoutMs);
+        timeoutsMs.put(TrafficClass.DOWNLOAD, downloadTimeoutMs);
+        timeoutsMs.put(TrafficClass.ADMIN, adminTimeoutMs);
+        this.sseSlots = new Semaphore(maxSseSubscribers);
+    }
+
+    public <T> WebAsyncTask<T> run(TrafficClass trafficClass, Callable<T> work) {
+        return new WebAsyncTask<>(timeoutsMs.get(trafficClass), executors.get(trafficClass), work);
+    }
+
+    // SSE 구독 슬롯 (실패 시 503), 연결 종료 시 releaseSse() 로 반납
+    public void acquireSse() {
+        if (!sseSlots.tryAcquire()) {
+            throw new RestApiException(ErrorCode.SERVER_BUSY);
+        }
+    }
+
+    public void releaseSse() {
+        sseSlots.release();
+    }
+}
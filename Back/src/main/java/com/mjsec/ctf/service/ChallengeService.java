@@ -8,6 +8,8 @@ import com.mjsec.ctf.domain.TeamEntity;
 import com.mjsec.ctf.domain.UserEntity;
 import com.mjsec.ctf.dto.AdminSolveRecordDto;
 import com.mjsec.ctf.dto.ChallengeDto;
+import com.mjsec.ctf.dto.RevocationReportDto;
+import com.mjsec.ctf.dto.TeamRecalculationReportDto;
 import com.mjsec.ctf.exception.RestApiException;
 import com.mjsec.ctf.repository.*;
 import com.mjsec.ctf.type.ErrorCode;
@@ -23,16 +25,11 @@ import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -47,6 +44,10 @@ import java.util.stream.Collectors;
 @Service
 public class ChallengeService {
 
+    // 정답 처리 공정 락 최대 대기 (초과 시 기록 없이 503), 제출 비동기 타임아웃은 이보다 길게 맞춰짐 (Bulkhead)
+    @Value("${ctf.submit.lock-wait-ms:20000}")
+    private long submitLockWaitMs;
+
     private final EntityManager entityManager;
     private final TeamService teamService;
     private final FileService fileService;
@@ -59,22 +60,24 @@ public class ChallengeService {
     private final PasswordEncoder passwordEncoder;
     private final RedissonClient redissonClient;
     private final TeamRepository teamRepository;
+    private final TeamSolveRepository teamSolveRepository;
+    private final TeamSolveMatrix teamSolveMatrix;
+    private final TeamHistoryReadModel teamHistoryReadModel;
+    private final SingleFlight singleFlight;
 
     // 시그니처 코드/잠금
     private final TeamSignatureUnlockRepository unlockRepo;
     private final SignatureCodeRepository codeRepo;
+    private final SignatureUnlockIndex unlockIndex;
 
     // 공격 탐지 서비스
     private final ThreatDetectionService threatDetectionService;
 
-    private final AsyncSubmissionProcessor asyncSubmissionProcessor;
+    private final NotificationOutbox notificationOutbox;
+    private final ContestMetrics contestMetrics;
     private final TeamRecalcDebouncer teamRecalcDebouncer;
-
-    @Value("${api.key}")
-    private String apiKey;
-
-    @Value("${api.url}")
-    private String apiUrl;
+    private final AdminSolveRecordService adminSolveRecordService;
+    private final SolveRevocationService solveRevocationService;
 
     // 현재 사용자 ID를 반환
     public String currentLoginId(){
@@ -88,28 +91,42 @@ public class ChallengeService {
     public Page<ChallengeDto.Simple> getAllChallengesOrderedById(Pageable pageable) {
         log.info("Getting all challenges ordered by Id ASC");
 
-        Page<ChallengeEntity> challenges = challengeRepository.findAllByOrderByChallengeIdAsc(pageable);
         String currentLoginId = currentLoginId();
+        Optional<UserEntity> userOpt = userRepository.findByLoginId(currentLoginId);
+        Long teamId = userOpt.map(UserEntity::getCurrentTeamId).orElse(null);
 
-        return challenges.map(challenge -> {
-            boolean solved = false;
+        if (teamId != null) {
+            // 같은 팀원들의 동시 조회는 1회로 합침: 팀 풀이 목록(팀 행렬 ∪ 팀원 개인 풀이)을 팀당 한 번 만들어 공유
+            return singleFlight.execute("challenges_team", teamId + ":" + pageable,
+                    () -> toSimplePage(loadChallengePage(pageable), teamSolvedChallengeIds(teamId), null));
+        }
 
-            if (historyRepository.existsByLoginIdAndChallengeId(currentLoginId, challenge.getChallengeId())) {
-                solved = true;
-            } else {
-                UserEntity user = userRepository.findByLoginId(currentLoginId)
-                        .orElseThrow(() -> new RestApiException(ErrorCode.USER_NOT_FOUND));
-
-                if (user.getCurrentTeamId() == null) {
-                    throw new RestApiException(ErrorCode.MUST_BE_BELONG_TEAM);
-                } else {
-                    Optional<TeamEntity> team = teamService.getUserTeam(user.getCurrentTeamId());   // 팀 단위로 확인
-                    if (team.isPresent()) {
-                        solved = team.get().hasSolvedChallenge(challenge.getChallengeId());
-                    }
-                }
-            }
+        // 팀이 없으면 개인 풀이만 인정, 풀지 않은 문제가 있으면 예외
+        Set<Long> solvedIds = new HashSet<>(historyRepository.findChallengeIdsByLoginId(currentLoginId));
+        ErrorCode unsolvedError = userOpt.isEmpty() ? ErrorCode.USER_NOT_FOUND : ErrorCode.MUST_BE_BELONG_TEAM;
+        return toSimplePage(loadChallengePage(pageable), solvedIds, unsolvedError);
+    }
 
+    // 문제 목록 페이지 조회는 전체 사용자 간에 1회로 합침
+    private Page<ChallengeEntity> loadChallengePage(Pageable pageable) {
+        return singleFlight.execute("challenges", pageable,
+                () -> challengeRepository.findAllByOrderByChallengeIdAsc(pageable));
+    }
+
+    private Set<Long> teamSolvedChallengeIds(Long teamId) {
+        Set<Long> solved = new HashSet<>(teamSolveMatrix.getSolvedChallengeIds(teamId));
+        solved.addAll(historyRepository.findChallengeIdsByTeamMembers(teamId));
+        return solved;
+    }
+
+    // unsolvedError: 풀지 않은 문제가 있을 때 던질 오류 (null 이면 풀이 여부만 표시)
+    private Page<ChallengeDto.Simple> toSimplePage(Page<ChallengeEntity> challenges, Set<Long> solvedIds,
+                                                   ErrorCode unsolvedError) {
+        return challenges.map(challenge -> {
+            boolean solved = solvedIds.contains(challenge.getChallengeId());
+            if (!solved && unsolvedError != null) {
+                throw new RestApiException(unsolvedError);
+            }
             return ChallengeDto.Simple.fromEntity(challenge, solved);
         });
     }
@@ -125,7 +142,8 @@ public class ChallengeService {
             throw new RestApiException(ErrorCode.MUST_BE_BELONG_TEAM);
         }
 
-        boolean unlocked = unlockRepo.existsByTeamIdAndChallengeId(user.getCurrentTeamId(), challenge.getChallengeId());
+        // 인스턴스 간 복제되는 인메모리 언락 인덱스로 판정 (DB 조회 없음)
+        boolean unlocked = unlockIndex.isUnlocked(user.getCurrentTeamId(), challenge.getChallengeId());
         if (!unlocked) {
             // 시그니처 인증(언락) 필요
             throw new RestApiException(ErrorCode.FORBIDDEN);
@@ -276,6 +294,7 @@ public class ChallengeService {
             // 일반 문제로 전환되면 시그니처 연관 데이터 정리
             if (!isSignature) {
                 unlockRepo.deleteByChallengeId(challengeId);
+                unlockIndex.removeChallenge(challengeId);
                 codeRepo.deleteByChallengeId(challengeId);
             }
         }
@@ -299,6 +318,7 @@ public class ChallengeService {
         // 1) 시그니처 연관 데이터 먼저 정리 (자식 → 부모 순서)
         try {
             unlockRepo.deleteByChallengeId(challengeId);
+            unlockIndex.removeChallenge(challengeId);
         } catch (Exception e) {
             log.warn("unlock cleanup error (ignored): {}", e.toString());
         }
@@ -313,9 +333,11 @@ public class ChallengeService {
         historyRepository.deleteByChallengeId(challengeId);
 
         // 3) 해당 문제를 푼 팀 정리 + 재계산
-        List<TeamEntity> affectedTeams = teamRepository.findTeamsBySolvedChallengeId(challengeId);
+        List<TeamEntity> affectedTeams = teamRepository.findAllById(teamSolveRepository.findTeamIdsByChallengeId(challengeId));
+        teamSolveRepository.deleteByChallengeId(challengeId);
+        teamSolveMatrix.removeChallenge(challengeId);
         for (TeamEntity team : affectedTeams) {
-            team.getSolvedChallengeIds().remove(challengeId);
+            teamHistoryReadModel.invalidate(team.getTeamId());
             teamService.recalculateTeamPoints(team);
         }
 
@@ -344,7 +366,7 @@ public class ChallengeService {
     }
 
     @org.springframework.transaction.annotation.Transactional
-    public String submit(String loginId, Long challengeId, String flag, String clientIP) {
+    public String submit(String loginId, Long challengeId, String flag, String clientIP, boolean wrongOnly) {
         long startTime = System.currentTimeMillis();
         boolean isInternalIP = IPAddressUtil.isLocalIP(clientIP);
 
@@ -391,9 +413,9 @@ public class ChallengeService {
             return "Submitted";
         }
 
-        // 팀 단위 중복 제출 방지
+        // 팀 단위 중복 제출 방지 (인메모리 행렬, 락 안에서 recordTeamSolution이 DB로 재확인)
         Optional<TeamEntity> team = teamService.getUserTeam(user.getCurrentTeamId());
-        if (team.isPresent() && team.get().hasSolvedChallenge(challengeId)) {
+        if (team.isPresent() && teamSolveMatrix.isSolved(team.get().getTeamId(), challengeId)) {
             return "Submitted";
         }
 
@@ -436,20 +458,32 @@ public class ChallengeService {
             return "Wrong";
         }
 
+        // 과부하 최후 수단(SubmitLimiter 오답 전용 구간): 락을 잡기 전에 재시도 응답, 아무것도 기록하지 않음
+        if (wrongOnly) {
+            contestMetrics.submitShed("correct");
+            throw new RestApiException(ErrorCode.SERVER_BUSY);
+        }
+
         //정답 처리 (최소한의 락만 사용)
         String lockKey = "challengeLock:" + challengeId;
         // 공정 락으로 대기열 순서(선착순) 보장
         RLock lock = redissonClient.getFairLock(lockKey);
         boolean locked = false;
+        long lockAcquiredAt = 0L;
         boolean isFirstBlood = false;  // 락 안에서 판정
         int calculatedPoints = 0;       // 락 안에서 계산된 최신 점수
 
         try {
-            long lockStartTime = System.currentTimeMillis();
-            // 공정 락 대기열에서 순서대로 대기 후 획득 (워치독으로 자동 연장)
-            lock.lock();
+            long lockStartTime = System.nanoTime();
+            // 공정 락 대기열에서 순서대로 대기 후 획득 (워치독으로 자동 연장), 대기 상한을 두어 요청 타임아웃보다 먼저 끝나게 함
+            if (!lock.tryLock(submitLockWaitMs, TimeUnit.MILLISECONDS)) {
+                contestMetrics.submitShed("lock_wait");
+                throw new RestApiException(ErrorCode.SERVER_BUSY);
+            }
             locked = true;
-            long lockWaitTime = System.currentTimeMillis() - lockStartTime;
+            lockAcquiredAt = System.nanoTime();
+            contestMetrics.recordLockWait(lockAcquiredAt - lockStartTime);
+            long lockWaitTime = TimeUnit.NANOSECONDS.toMillis(lockAcquiredAt - lockStartTime);
 
             log.info("[락 획득 성공] loginId={}, challengeId={}, waitTime={}ms, lockKey={}",
                     loginId, challengeId, lockWaitTime, lockKey);
@@ -537,6 +571,11 @@ public class ChallengeService {
             // 🔴 지금 막 푼 팀의 솔루션 기록 (락 안에서!)
             teamService.recordTeamSolution(user.getUserId(), challengeId, awardedPoints, finalMileage);
 
+            // 🔴 퍼스트 블러드 알림은 같은 트랜잭션에서 아웃박스에 기록만 (전송은 커밋 후 디스패처가 담당)
+            if (isFirstBlood && !isSignature) {
+                notificationOutbox.enqueueFirstBlood(lockedChallenge, user);
+            }
+
             // 🔴 JPA 변경사항을 DB에 즉시 반영 (flush)
             entityManager.flush();
             log.info("[락 내부 - flush 완료] challengeId={}, userId={}", challengeId, user.getUserId());
@@ -555,6 +594,8 @@ public class ChallengeService {
             log.info("[락 내부 처리 완료] loginId={}, challengeId={}, 소요시간={}ms",
                     loginId, challengeId, lockDuration);
 
+        } catch (RestApiException e) {
+            throw e;
         } catch (Exception e) {
             if (e instanceof InterruptedException) {
                 Thread.currentThread().interrupt();
@@ -566,6 +607,7 @@ public class ChallengeService {
             // 락 해제
             if (locked && lock.isHeldByCurrentThread()) {
                 lock.unlock();
+                contestMetrics.recordLockHold(System.nanoTime() - lockAcquiredAt);
             }
         }
 
@@ -592,24 +634,6 @@ public class ChallengeService {
             log.warn("[재계산 예약 실패] challengeId={}, err={}", challengeId, e.getMessage(), e);
         }
 
-        // 무거운 작업은 비동기로 처리 (락 밖에서 실행)
-        try {
-            // AsyncSubmissionProcessor를 통해 비동기 처리
-            // 🔴 락 안에서 판정된 퍼스트 블러드와 계산된 점수를 전달
-            asyncSubmissionProcessor.processCorrectSubmissionAsync(
-                    user.getUserId(),
-                    challengeId,
-                    loginId,
-                    isFirstBlood,
-                    calculatedPoints
-            );
-        } catch (Exception e) {
-            // 비동기 작업 스케줄링 실패 시 로그만 남기고 계속 진행
-            // 사용자에게는 정답 처리된 것으로 표시됨
-            log.error("[비동기 작업 스케줄링 실패] loginId={}, challengeId={}, error={}",
-                    loginId, challengeId, e.getMessage(), e);
-        }
-
         long totalDuration = System.currentTimeMillis() - startTime;
         log.info("[정답 처리 완료] loginId={}, challengeId={}, 전체소요시간={}ms (비동기 작업 제외)",
                 loginId, challengeId, totalDuration);
@@ -623,6 +647,13 @@ public class ChallengeService {
 
         long solvedCount = historyRepository.countDistinctByChallengeId(challenge.getChallengeId());
 
+        challenge.setPoints(calculateDynamicPoints(challenge, solvedCount));
+
+        challengeRepository.save(challenge);
+    }
+
+    // 다이나믹 스코어 공식 (풀이자 수 기준)
+    public static int calculateDynamicPoints(ChallengeEntity challenge, long solvedCount) {
         int initialPoints = challenge.getInitialPoints();
         int minPoints = challenge.getMinPoints();
         int decay = 50;
@@ -631,115 +662,23 @@ public class ChallengeService {
 
         newPoints = Math.max(newPoints, minPoints);
 
-        newPoints = Math.ceil(newPoints);
-        challenge.setPoints((int)newPoints);
-
-        challengeRepository.save(challenge);
-    }
-
-    // 퍼스트 블러드 Sender
-    private void sendFirstBloodNotification(ChallengeEntity challenge, UserEntity user) {
-        RestTemplate restTemplate = new RestTemplate();
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Content-Type", "application/json");
-        headers.set("X-API-Key", apiKey);
-
-        Map<String, Object> body = new HashMap<>();
-        body.put("first_blood_problem", challenge.getTitle());
-        body.put("first_blood_person", user.getLoginId());
-        body.put("first_blood_school", user.getUniv());
-
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
-
-        ResponseEntity<String> response = restTemplate.exchange(apiUrl, HttpMethod.POST, entity, String.class);
-
-        if (response.getStatusCode().is2xxSuccessful()) {
-            log.info("First blood notification sent successfully.");
-        } else {
-            log.error("Failed to send first blood notification.");
-        }
+        return (int) Math.ceil(newPoints);
     }
 
     // 전체 팀 점수 재계산(여기서는 기존대로 시그니처 제외)
     @Transactional
-    public void updateAllTeamTotalPoints() {
+    public TeamRecalculationReportDto updateAllTeamTotalPoints() {
         log.info("전체 팀 점수 재계산 시작");
-        teamService.recalculateAllTeamPoints();
-        log.info("전체 팀 점수 재계산 완료");
+        TeamRecalculationReportDto report = teamService.recalculateAllTeamPoints();
+        log.info("전체 팀 점수 재계산 완료: 변경된 팀={}, 소요시간={}ms", report.getChangedTeamCount(), report.getTotalMs());
+        return report;
     }
 
-    // 관리자: 전체 제출 기록 조회
+    // 관리자: 전체 제출 기록 조회 (일괄 조인 + 단일 패스 퍼스트 블러드 판정)
     public List<AdminSolveRecordDto> getAllSolveRecords() {
         log.info("관리자: 전체 제출 기록 조회 시작");
 
-        List<HistoryEntity> allHistories = historyRepository.findAllByOrderBySolvedTimeAsc();
-        Map<Long, ChallengeEntity> challengeMap = new HashMap<>();
-        Map<Long, Long> firstBloodMap = new HashMap<>(); // challengeId -> firstBloodHistoryId
-
-        // 모든 문제별 퍼스트 블러드 계산
-        allHistories.stream()
-                .filter(h -> h.getLoginId() != null)
-                .collect(Collectors.groupingBy(HistoryEntity::getChallengeId))
-                .forEach((challengeId, histories) -> {
-                    Optional<HistoryEntity> firstBlood = histories.stream()
-                            .min(Comparator.comparing(HistoryEntity::getSolvedTime));
-                    firstBlood.ifPresent(h -> firstBloodMap.put(challengeId, h.getId()));
-                });
-
-        List<AdminSolveRecordDto> records = new ArrayList<>();
-
-        for (HistoryEntity history : allHistories) {
-            if (history.getLoginId() == null) continue;
-
-            Optional<UserEntity> userOpt = userRepository.findByLoginId(history.getLoginId());
-            if (!userOpt.isPresent()) continue;
-
-            // 문제 정보 캐싱
-            ChallengeEntity challenge = challengeMap.computeIfAbsent(
-                    history.getChallengeId(),
-                    id -> challengeRepository.findById(id).orElse(null)
-            );
-            if (challenge == null) continue;
-
-            UserEntity user = userOpt.get();
-            Long teamId = user.getCurrentTeamId();
-            String teamName = null;
-
-            if (teamId != null) {
-                Optional<TeamEntity> teamOpt = teamRepository.findById(teamId);
-                teamName = teamOpt.map(TeamEntity::getTeamName).orElse(null);
-            }
-
-            // 퍼스트 블러드 여부 확인
-            Long firstBloodHistoryId = firstBloodMap.get(history.getChallengeId());
-            boolean isFirstBlood = firstBloodHistoryId != null && firstBloodHistoryId.equals(history.getId());
-
-            // 점수와 마일리지 계산
-            int pointsAwarded = challenge.getCategory() == com.mjsec.ctf.type.ChallengeCategory.SIGNATURE ? 0 : challenge.getPoints();
-            int baseMileage = challenge.getMileage();
-            int mileageBonus = 0;
-
-            if (isFirstBlood && baseMileage > 0) {
-                mileageBonus = (int) Math.ceil(baseMileage * 0.30);
-            }
-
-            AdminSolveRecordDto record = AdminSolveRecordDto.builder()
-                    .historyId(history.getId())
-                    .challengeId(challenge.getChallengeId())
-                    .challengeTitle(challenge.getTitle())
-                    .loginId(history.getLoginId())
-                    .teamName(teamName)
-                    .teamId(teamId)
-                    .univ(history.getUniv())
-                    .solvedTime(history.getSolvedTime())
-                    .pointsAwarded(pointsAwarded)
-                    .mileageAwarded(baseMileage)
-                    .mileageBonus(mileageBonus)
-                    .isFirstBlood(isFirstBlood)
-                    .build();
-
-            records.add(record);
-        }
+        List<AdminSolveRecordDto> records = adminSolveRecordService.getAll();
 
         log.info("관리자: 전체 제출 기록 {} 건 조회 완료", records.size());
         return records;
@@ -816,223 +755,21 @@ public class ChallengeService {
     public void revokeSolveRecord(Long challengeId, String loginId) {
         log.info("관리자: 문제 {} 사용자 {} 제출 기록 철회 시작", challengeId, loginId);
 
-        ChallengeEntity challenge = challengeRepository.findById(challengeId)
-                .orElseThrow(() -> new RestApiException(ErrorCode.CHALLENGE_NOT_FOUND));
-
-        UserEntity user = userRepository.findByLoginId(loginId)
-                .orElseThrow(() -> new RestApiException(ErrorCode.USER_NOT_FOUND));
-
-        // 1. HistoryEntity 조회 및 퍼스트 블러드 여부 확인
-        Optional<HistoryEntity> historyOpt = historyRepository.findByLoginIdAndChallengeId(loginId, challengeId);
-        if (!historyOpt.isPresent()) {
-            throw new RestApiException(ErrorCode.BAD_REQUEST, "해당 사용자의 문제 풀이 기록이 없습니다.");
-        }
-
-        HistoryEntity history = historyOpt.get();
-
-        // 퍼스트 블러드 여부 확인: 해당 문제의 모든 제출 기록 중 가장 빠른지 체크
-        List<HistoryEntity> allHistories = historyRepository.findByChallengeId(challengeId);
-        boolean wasFirstBlood = allHistories.stream()
-                .filter(h -> h.getLoginId() != null)
-                .min(Comparator.comparing(HistoryEntity::getSolvedTime))
-                .map(h -> h.getId().equals(history.getId()))
-                .orElse(false);
-
-        log.info("삭제 대상 퍼스트 블러드 여부: {}", wasFirstBlood);
-
-        historyRepository.delete(history);
-        log.info("HistoryEntity 삭제 완료: historyId={}", history.getId());
-
-        // 2. TeamHistoryEntity 조회 및 삭제
-        if (user.getCurrentTeamId() != null) {
-            Optional<TeamEntity> teamOpt = teamRepository.findById(user.getCurrentTeamId());
-            if (teamOpt.isPresent()) {
-                TeamEntity team = teamOpt.get();
-                String teamName = team.getTeamName();
-
-                List<TeamHistoryEntity> teamHistories = teamHistoryRepository.findByTeamNameAndChallengeId(teamName, challengeId);
-                if (!teamHistories.isEmpty()) {
-                    // 가장 최근 것을 삭제 (또는 모두 삭제할 수도 있음)
-                    TeamHistoryEntity teamHistory = teamHistories.get(0);
-                    teamHistoryRepository.delete(teamHistory);
-                    log.info("TeamHistoryEntity 삭제 완료: teamHistoryId={}", teamHistory.getHistoryid());
-                }
-
-                // 3. 팀에서 해당 문제 제거 및 점수/마일리지 복구
-                int pointsToDeduct = challenge.getCategory() == com.mjsec.ctf.type.ChallengeCategory.SIGNATURE ? 0 : challenge.getPoints();
-                int baseMileage = challenge.getMileage();
-
-                // 퍼스트 블러드 보너스 계산 (30% 추가)
-                int mileageBonus = 0;
-                if (wasFirstBlood && baseMileage > 0) {
-                    mileageBonus = (int) Math.ceil(baseMileage * 0.30);
-                }
-                int mileageToDeduct = baseMileage + mileageBonus;
-
-                team.revokeSolvedChallenge(challengeId, pointsToDeduct, mileageToDeduct);
-                teamRepository.save(team);
-                log.info("팀 점수/마일리지 복구 완료: teamId={}, points={}, baseMileage={}, bonus={}, totalMileage={}",
-                        team.getTeamId(), pointsToDeduct, baseMileage, mileageBonus, mileageToDeduct);
-            }
-        }
-
-        // 4. Challenge의 solvers 카운트 감소
-        challenge.setSolvers(Math.max(0, challenge.getSolvers() - 1));
-        challengeRepository.save(challenge);
-        log.info("Challenge solvers 감소 완료: challengeId={}, solvers={}", challengeId, challenge.getSolvers());
-
-        // 5. 다이나믹 스코어링 재계산 (SIGNATURE 제외)
-        if (challenge.getCategory() != com.mjsec.ctf.type.ChallengeCategory.SIGNATURE) {
-            updateChallengeScore(challenge);
-            log.info("다이나믹 스코어 재계산 완료: challengeId={}, newPoints={}", challengeId, challenge.getPoints());
-        }
-
-        // 6. 영향받은 모든 팀의 점수 재계산
-        teamService.recalculateAllTeamPoints();
-
-        //새로운 퍼스트 블러드에게 보너스 지급
-        if (wasFirstBlood) {
-            // 삭제 후 남은 제출 기록 중 가장 빠른 것 찾기
-            List<HistoryEntity> remainingHistories = historyRepository.findByChallengeId(challengeId);
-
-            Optional<HistoryEntity> newFirstBloodOpt = remainingHistories.stream()
-                    .filter(h -> h.getLoginId() != null)
-                    .min(Comparator.comparing(HistoryEntity::getSolvedTime));
-
-            if (newFirstBloodOpt.isPresent()) {
-                HistoryEntity newFirstBloodHistory = newFirstBloodOpt.get();
-
-                Optional<UserEntity> newFirstUserOpt = userRepository.findByLoginId(newFirstBloodHistory.getLoginId());
-
-                if (newFirstUserOpt.isPresent()) {
-                    UserEntity newFirstUser = newFirstUserOpt.get();
-
-                    if (newFirstUser.getCurrentTeamId() != null) {
-                        Optional<TeamEntity> newFirstTeamOpt = teamRepository.findById(newFirstUser.getCurrentTeamId());
-
-                        if (newFirstTeamOpt.isPresent()) {
-                            TeamEntity newFirstTeam = newFirstTeamOpt.get();
-
-                            // 보너스 마일리지 계산 (30%)
-                            int baseMileage = challenge.getMileage();
-                            int bonus = (int) Math.ceil(baseMileage * 0.30);
-
-                            // 새 퍼스트 블러드 팀에게 보너스만 추가 지급
-                            // (기본 마일리지는 이미 받았으므로 보너스만 추가)
-                            newFirstTeam.addMileage(bonus);
-                            teamRepository.save(newFirstTeam);
-
-                            log.info("새 퍼스트 블러드 보너스 지급: teamId={}, teamName={}, bonus={}, loginId={}",
-                                    newFirstTeam.getTeamId(), newFirstTeam.getTeamName(), bonus, newFirstBloodHistory.getLoginId());
-                        }
-                    }
-                }
-            } else {
-                log.info("삭제 후 남은 제출 기록이 없음: challengeId={}", challengeId);
-            }
-        }
+        // 영향받는 팀만 갱신 (전체 팀 재계산 없음)
+        solveRevocationService.revokeSolve(challengeId, loginId);
 
         log.info("관리자: 문제 {} 사용자 {} 제출 기록 철회 완료", challengeId, loginId);
     }
 
     // 관리자: 특정 사용자의 모든 제출 기록 삭제
     @Transactional
-    public int revokeAllSolveRecordsByUser(String loginId) {
+    public RevocationReportDto revokeAllSolveRecordsByUser(String loginId) {
         log.info("관리자: 사용자 {}의 모든 제출 기록 삭제 시작", loginId);
 
-        UserEntity user = userRepository.findByLoginId(loginId)
-                .orElseThrow(() -> new RestApiException(ErrorCode.USER_NOT_FOUND));
-
-        // 1. 사용자의 모든 히스토리 조회
-        List<HistoryEntity> userHistories = historyRepository.findByLoginId(loginId);
-
-        if (userHistories.isEmpty()) {
-            log.info("사용자 {}의 제출 기록이 없습니다.", loginId);
-            return 0;
-        }
-
-        int deletedCount = 0;
-        Set<Long> affectedChallengeIds = new HashSet<>();
-
-        // 2. 각 히스토리마다 철회 로직 실행
-        for (HistoryEntity history : userHistories) {
-            Long challengeId = history.getChallengeId();
-            affectedChallengeIds.add(challengeId);
-
-            Optional<ChallengeEntity> challengeOpt = challengeRepository.findById(challengeId);
-            if (!challengeOpt.isPresent()) {
-                log.warn("문제 {}를 찾을 수 없습니다. 히스토리만 삭제합니다.", challengeId);
-                historyRepository.delete(history);
-                deletedCount++;
-                continue;
-            }
-
-            ChallengeEntity challenge = challengeOpt.get();
-
-            // 퍼스트 블러드 여부 확인
-            List<HistoryEntity> allHistories = historyRepository.findByChallengeId(challengeId);
-            boolean isFirstBlood = allHistories.stream()
-                    .filter(h -> h.getLoginId() != null)
-                    .min(Comparator.comparing(HistoryEntity::getSolvedTime))
-                    .map(h -> h.getId().equals(history.getId()))
-                    .orElse(false);
-
-            // 히스토리 삭제
-            historyRepository.delete(history);
-            log.info("HistoryEntity 삭제: historyId={}, challengeId={}", history.getId(), challengeId);
-
-            // TeamHistoryEntity 삭제
-            if (user.getCurrentTeamId() != null) {
-                Optional<TeamEntity> teamOpt = teamRepository.findById(user.getCurrentTeamId());
-                if (teamOpt.isPresent()) {
-                    TeamEntity team = teamOpt.get();
-                    String teamName = team.getTeamName();
-
-                    List<TeamHistoryEntity> teamHistories = teamHistoryRepository.findByTeamNameAndChallengeId(teamName, challengeId);
-                    if (!teamHistories.isEmpty()) {
-                        TeamHistoryEntity teamHistory = teamHistories.get(0);
-                        teamHistoryRepository.delete(teamHistory);
-                        log.info("TeamHistoryEntity 삭제: teamHistoryId={}", teamHistory.getHistoryid());
-                    }
-
-                    // 팀에서 해당 문제 제거 및 점수/마일리지 복구
-                    int pointsToDeduct = challenge.getCategory() == com.mjsec.ctf.type.ChallengeCategory.SIGNATURE ? 0 : challenge.getPoints();
-                    int baseMileage = challenge.getMileage();
-                    int mileageBonus = 0;
-                    if (isFirstBlood && baseMileage > 0) {
-                        mileageBonus = (int) Math.ceil(baseMileage * 0.30);
-                    }
-                    int mileageToDeduct = baseMileage + mileageBonus;
-
-                    team.revokeSolvedChallenge(challengeId, pointsToDeduct, mileageToDeduct);
-                    teamRepository.save(team);
-                    log.info("팀 점수/마일리지 복구: teamId={}, challengeId={}, points={}, mileage={}",
-                            team.getTeamId(), challengeId, pointsToDeduct, mileageToDeduct);
-                }
-            }
-
-            // Challenge solvers 감소
-            challenge.setSolvers(Math.max(0, challenge.getSolvers() - 1));
-            challengeRepository.save(challenge);
-
-            deletedCount++;
-        }
-
-        // 3. 영향받은 모든 문제의 다이나믹 스코어 재계산
-        for (Long challengeId : affectedChallengeIds) {
-            Optional<ChallengeEntity> challengeOpt = challengeRepository.findById(challengeId);
-            if (challengeOpt.isPresent()) {
-                ChallengeEntity challenge = challengeOpt.get();
-                if (challenge.getCategory() != com.mjsec.ctf.type.ChallengeCategory.SIGNATURE) {
-                    updateChallengeScore(challenge);
-                }
-            }
-        }
-
-        // 4. 전체 팀 점수 재계산
-        updateAllTeamTotalPoints();
+        // 집합 단위 삭제 + 영향받은 문제/팀 단일 패스 재계산
+        RevocationReportDto report = solveRevocationService.revokeAllByUser(loginId);
 
-        log.info("관리자: 사용자 {}의 제출 기록 {} 건 삭제 완료", loginId, deletedCount);
-        return deletedCount;
+        log.info("관리자: 사용자 {}의 제출 기록 {} 건 삭제 완료", loginId, report.getRevokedHistoryCount());
+        return report;
     }
 }
@@ -16,14 +16,18 @@ import org.springframework.stereotype.Service;
 public class ContestConfigService {
 
     private final ContestConfigRepository contestConfigRepository;
+    private final SingleFlight singleFlight;
 
-    public ContestConfigService(ContestConfigRepository contestConfigRepository) {
+    public ContestConfigService(ContestConfigRepository contestConfigRepository, SingleFlight singleFlight) {
         this.contestConfigRepository = contestConfigRepository;
+        this.singleFlight = singleFlight;
     }
 
     public ContestConfigDto.Response getContestTime() {
-        ContestConfigEntity config = contestConfigRepository.findFirstByIsActiveTrueOrderByIdDesc()
-                .orElseThrow(() -> new RestApiException(ErrorCode.CONTEST_CONFIG_NOT_FOUND));
+        // 대회 시작 직전 폴링이 몰려도 설정 조회는 1회로 합치고, 서버 시각은 요청마다 계산
+        ContestConfigEntity config = singleFlight.execute("contest_time", () ->
+                contestConfigRepository.findFirstByIsActiveTrueOrderByIdDesc()
+                        .orElseThrow(() -> new RestApiException(ErrorCode.CONTEST_CONFIG_NOT_FOUND)));
 
         ZonedDateTime currentTime = ZonedDateTime.now(ZoneId.of("Asia/Seoul"));
 
@@ -0,0 +1,172 @@
+package com.mjsec.ctf.service;
+
+import com.mjsec.ctf.type.TrafficClass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/*
+ * 대회 핫패스 지표 (/actuator/prometheus 로 노출)
+ * - ctf.submit.latency{outcome}      : 제출 처리 시간 (컨트롤러 기준, 커밋 포함) 히스토그램
+ * - ctf.challenge.lock.wait / hold   : challengeLock:* 공정 락 대기/보유 시간
+ * - ctf.recalc.duration{scope}       : 팀 점수 재계산 시간 (challenge: 문제 단위, all: 전체)
+ * - ctf.rate_limit.hits{limiter,action}
+ * - ctf.sse.subscribers{stream}      : 현재 연결된 SSE 구독자 수
+ * - ctf.ban_check{result}            : IP 차단 확인 (hit: Redis 차단 집합 또는 비차단 IP 캐시로 판정, miss: DB 조회)
+ *                                      적중률 = hit / 전체
+ * - ctf.bulkhead.rejected{class}     : 벌크헤드 포화로 503 처리된 요청 수
+ * - ctf.singleflight.calls{name,role} : 동일 조회 합치기 (leader: 실제 실행, shared: 결과 공유)
+ * - ctf.submit.shed{stage}           : 적응형 제한으로 503 처리된 제출 (limit: 한도 초과, correct: 오답 전용 구간의 정답)
+ * 태그 값은 고정된 소수 집합만 사용 (문제 ID/IP 등 고유값은 태그로 쓰지 않음)
+ */
+@Component
+public class ContestMetrics {
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private final MeterRegistry registry;
+    private final Timer lockWait;
+    private final Timer lockHold;
+    private final Counter banCacheHit;
+    private final Counter banCacheMiss;
+    private final Map<String, Timer> submitTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> recalcTimers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> sseSubscribers = new ConcurrentHashMap<>();
+
+    public ContestMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.lockWait = histogram("ctf.challenge.lock.wait", "challengeLock 공정 락 획득 대기 시간").register(registry);
+        this.lockHold = histogram("ctf.challenge.lock.hold", "challengeLock 공정 락 보유 시간").register(registry);
+        this.banCacheHit = Counter.builder("ctf.ban_check").tag("result", "hit")
+                .description("IP 차단 확인 (DB 조회 없이 캐시로 판정)").register(registry);
+        this.banCacheMiss = Counter.builder("ctf.ban_check").tag("result", "miss")
+                .description("IP 차단 확인 (DB 조회)").register(registry);
+    }
+
+    // ---------- 제출 ----------
+    public void recordSubmit(String result, long nanos) {
+        String outcome = submitOutcome(result);
+        submitTimers.computeIfAbsent(outcome, o -> histogram("ctf.submit.latency", "플래그 제출 처리 시간")
+                        .tag("outcome", o)
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // ChallengeService.submit 반환값 → 태그 값
+    private static String submitOutcome(String result) {
+        if (result == null) {
+            return "exception";
+        }
+        return switch (result) {
+            case "Correct" -> "correct";
+            case "Wrong" -> "wrong";
+            case "Submitted" -> "already_submitted";
+            case "Wait" -> "wait";
+            default -> "error";
+        };
+    }
+
+    // ---------- 락 ----------
+    public void recordLockWait(long nanos) {
+        lockWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockHold(long nanos) {
+        lockHold.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // ---------- 재계산 ----------
+    public <T> T recordRecalc(String scope, Supplier<T> work) {
+        return recalcTimers.computeIfAbsent(scope, s -> histogram("ctf.recalc.duration", "팀 점수 재계산 시간")
+                        .tag("scope", s)
+                        .register(registry))
+                .record(work);
+    }
+
+    public void recordRecalc(String scope, Runnable work) {
+        recordRecalc(scope, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // ---------- 요청 제한 ----------
+    public void rateLimitHit(String limiter, String action) {
+        Counter.builder("ctf.rate_limit.hits")
+                .description("요청 제한 초과 횟수")
+                .tag("limiter", limiter)
+                .tag("action", action)
+                .register(registry)
+                .increment();
+    }
+
+    public void submitShed(String stage) {
+        Counter.builder("ctf.submit.shed")
+                .description("적응형 동시성 제한으로 거절된 제출 수")
+                .tag("stage", stage)
+                .register(registry)
+                .increment();
+    }
+
+    // ---------- 조회 합치기 ----------
+    public void singleFlight(String name, boolean shared) {
+        Counter.builder("ctf.singleflight.calls")
+                .description("동일 조회 합치기 (leader: 실제 실행, shared: 결과 공유)")
+                .tag("name", name)
+                .tag("role", shared ? "shared" : "leader")
+                .register(registry)
+                .increment();
+    }
+
+    // ---------- 벌크헤드 ----------
+    public void bulkheadRejected(TrafficClass trafficClass) {
+        Counter.builder("ctf.bulkhead.rejected")
+                .description("벌크헤드 포화로 거절된 요청 수")
+                .tag("class", trafficClass.name().toLowerCase())
+                .register(registry)
+                .increment();
+    }
+
+    // ---------- SSE ----------
+    public void sseOpened(String stream) {
+        subscribers(stream).incrementAndGet();
+    }
+
+    public void sseClosed(String stream) {
+        subscribers(stream).decrementAndGet();
+    }
+
+    private AtomicInteger subscribers(String stream) {
+        return sseSubscribers.computeIfAbsent(stream, s -> {
+            AtomicInteger count = new AtomicInteger();
+            Gauge.builder("ctf.sse.subscribers", count, AtomicInteger::get)
+                    .description("현재 연결된 SSE 구독자 수")
+                    .tag("stream", s)
+                    .register(registry);
+            return count;
+        });
+    }
+
+    // ---------- IP 차단 확인 ----------
+    public void banCheck(boolean cacheHit) {
+        (cacheHit ? banCacheHit : banCacheMiss).increment();
+    }
+
+    private static Timer.Builder histogram(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED);
+    }
+}
@@ -0,0 +1,293 @@
+package com.mjsec.ctf.service;
+
+import com.mjsec.ctf.exception.RestApiException;
+import com.mjsec.ctf.type.ErrorCode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * 메일 발송 아웃박스 (요청 스레드는 큐에 넣고 바로 반환)
+ * - 크기 제한 큐 + 워커 스레드 풀: 큐가 가득 차면 즉시 거절(503)하여 요청 스레드가 SMTP를 기다리지 않게 함
+ * - 워커마다 SMTP 연결(Transport)을 열어 두고 재사용, 한 번 깨어날 때 최대 BATCH_SIZE 통을 같은 연결로 전송
+ *   (유휴 IDLE_CLOSE_MS 동안 보낼 메일이 없으면 연결을 닫음)
+ * - 실패한 메일만 지수 백오프로 재시도 (최대 MAX_ATTEMPTS 회)
+ * - 수신자별 중복 제거: 같은 주소로 아직 안 보낸 메일이 있으면 새로 쌓지 않고 내용만 최신으로 교체
+ *   (인증 코드는 재요청 시 덮어쓰이므로 마지막 코드만 보내면 됨)
+ * - SMTP 서버는 spring.mail.* 설정을 그대로 사용 → 로컬 SMTP 대역(GreenMail 등)으로 바꿔 끼울 수 있음
+ */
+@Slf4j
+@Component
+public class EmailOutbox {
+
+    private static final int BATCH_SIZE = 20;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long BASE_BACKOFF_MS = 1_000;
+    private static final long IDLE_CLOSE_MS = 30_000;
+
+    private final JavaMailSender mailSender;
+    private final int workers;
+    private final BlockingQueue<PendingMail> queue;
+    // 수신자 → 아직 워커가 가져가지 않은 메일
+    private final ConcurrentHashMap<String, PendingMail> pendingByRecipient = new ConcurrentHashMap<>();
+
+    private ExecutorService workerPool;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running = true;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+
+    public EmailOutbox(JavaMailSender mailSender,
+                       @Value("${ctf.mail.outbox.workers:2}") int workers,
+                       @Value("${ctf.mail.outbox.queue-capacity:1000}") int queueCapacity) {
+        this.mailSender = mailSender;
+        this.workers = workers;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    private static final class PendingMail {
+        final String to;
+        volatile String subject;
+        volatile String text;
+        int attempts;
+
+        PendingMail(String to, String subject, String text) {
+            this.to = to;
+            this.subject = subject;
+            this.text = text;
+        }
+    }
+
+    public record Stats(int queued, long sent, long failed, long rejected, long deduplicated) {}
+
+    @PostConstruct
+    public void start() {
+        workerPool = Executors.newFixedThreadPool(workers, namedThreads("mail-outbox-"));
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("mail-retry-"));
+        for (int i = 0; i < workers; i++) {
+            workerPool.submit(this::workerLoop);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        retryScheduler.shutdownNow();
+        workerPool.shutdownNow();
+        try {
+            workerPool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("[EmailOutbox] 종료 시 미발송 메일 {} 통", queue.size());
+        }
+    }
+
+    // ---------- 적재 ----------
+    public void enqueue(String to, String subject, String text) {
+        String key = keyOf(to);
+        boolean[] created = {false};
+        PendingMail mail = pendingByRecipient.compute(key, (k, existing) -> {
+            if (existing != null) {
+                existing.subject = subject;
+                existing.text = text;
+                return existing;
+            }
+            created[0] = true;
+            return new PendingMail(to, subject, text);
+        });
+
+        if (!created[0]) {
+            deduplicated.incrementAndGet();
+            log.debug("[EmailOutbox] 대기 중인 메일 내용 교체: {}", to);
+            return;
+        }
+        if (!queue.offer(mail)) {
+            pendingByRecipient.remove(key, mail);
+            rejected.incrementAndGet();
+            log.warn("[EmailOutbox] 큐 가득 참, 발송 거절: {}", to);
+            throw new RestApiException(ErrorCode.EMAIL_QUEUE_FULL);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(queue.size(), sent.get(), failed.get(), rejected.get(), deduplicated.get());
+    }
+
+    // ---------- 워커 ----------
+    private void workerLoop() {
+        Transport transport = null;
+        long lastUsed = System.currentTimeMillis();
+
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                PendingMail first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    if (transport != null && System.currentTimeMillis() - lastUsed > IDLE_CLOSE_MS) {
+                        closeQuietly(transport);
+                        transport = null;
+                    }
+                    continue;
+                }
+
+                List<PendingMail> batch = new ArrayList<>(BATCH_SIZE);
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                // 워커가 가져간 뒤 들어온 같은 수신자 요청은 새 메일로 쌓이도록 대기 목록에서 제거
+                for (PendingMail mail : batch) {
+                    pendingByRecipient.remove(keyOf(mail.to), mail);
+                }
+
+                transport = sendBatch(transport, batch);
+                lastUsed = System.currentTimeMillis();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("[EmailOutbox] 워커 오류: {}", e.getMessage(), e);
+            }
+        }
+        closeQuietly(transport);
+    }
+
+    // 전송 후 (재사용할) 연결 반환, 연결 오류 시 null
+    private Transport sendBatch(Transport transport, List<PendingMail> batch) {
+        if (!(mailSender instanceof JavaMailSenderImpl impl)) {
+            // 테스트 대역 등 JavaMailSenderImpl 이 아니면 배치 단위 send 로 처리
+            sendWithSender(batch);
+            return null;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingMail mail = batch.get(i);
+            try {
+                if (transport == null || !transport.isConnected()) {
+                    closeQuietly(transport);
+                    transport = connect(impl);
+                }
+                MimeMessage message = toMimeMessage(impl, mail);
+                transport.sendMessage(message, message.getAllRecipients());
+                sent.incrementAndGet();
+                log.info("이메일 전송 완료: {}", mail.to);
+            } catch (MessagingException e) {
+                // 연결이 끊긴 경우 다음 메일은 새 연결로 시도
+                closeQuietly(transport);
+                transport = null;
+                scheduleRetry(mail, e);
+            }
+        }
+        return transport;
+    }
+
+    private void sendWithSender(List<PendingMail> batch) {
+        SimpleMailMessage[] messages = batch.stream().map(EmailOutbox::toSimpleMessage).toArray(SimpleMailMessage[]::new);
+        try {
+            mailSender.send(messages);
+            sent.addAndGet(batch.size());
+        } catch (MailSendException e) {
+            Set<Object> failedMessages = e.getFailedMessages().keySet();
+            for (int i = 0; i < batch.size(); i++) {
+                if (failedMessages.isEmpty() || failedMessages.contains(messages[i])) {
+                    scheduleRetry(batch.get(i), e);
+                } else {
+                    sent.incrementAndGet();
+                }
+            }
+        } catch (Exception e) {
+            batch.forEach(mail -> scheduleRetry(mail, e));
+        }
+    }
+
+    private void scheduleRetry(PendingMail mail, Exception cause) {
+        mail.attempts++;
+        if (mail.attempts >= MAX_ATTEMPTS || !running) {
+            failed.incrementAndGet();
+            log.error("[EmailOutbox] 이메일 전송 최종 실패 ({}회): {}, {}", mail.attempts, mail.to, cause.getMessage());
+            return;
+        }
+        long delay = BASE_BACKOFF_MS << (mail.attempts - 1);
+        log.warn("[EmailOutbox] 이메일 전송 실패, {}ms 후 재시도 ({}/{}): {}, {}",
+                delay, mail.attempts, MAX_ATTEMPTS, mail.to, cause.getMessage());
+        retryScheduler.schedule(() -> {
+            String key = keyOf(mail.to);
+            // 기다리는 동안 같은 수신자에게 새 메일이 쌓였으면 이전 메일은 버림 (이전 인증 코드는 이미 무효)
+            if (pendingByRecipient.putIfAbsent(key, mail) != null) {
+                deduplicated.incrementAndGet();
+                return;
+            }
+            if (!queue.offer(mail)) {
+                pendingByRecipient.remove(key, mail);
+                failed.incrementAndGet();
+                log.error("[EmailOutbox] 재시도 적재 실패(큐 가득 참): {}", mail.to);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static String keyOf(String to) {
+        return to.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Transport connect(JavaMailSenderImpl impl) throws MessagingException {
+        Transport transport = impl.getSession().getTransport(impl.getProtocol());
+        transport.connect(impl.getHost(), impl.getPort(), impl.getUsername(), impl.getPassword());
+        return transport;
+    }
+
+    private static MimeMessage toMimeMessage(JavaMailSenderImpl impl, PendingMail mail) throws MessagingException {
+        MimeMessage message = impl.createMimeMessage();
+        if (impl.getUsername() != null) {
+            message.setFrom(new InternetAddress(impl.getUsername()));
+        }
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(mail.to));
+        message.setSubject(mail.subject, StandardCharsets.UTF_8.name());
+        message.setText(mail.text, StandardCharsets.UTF_8.name());
+        message.setSentDate(new Date());
+        message.saveChanges();
+        return message;
+    }
+
+    private static SimpleMailMessage toSimpleMessage(PendingMail mail) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(mail.to);
+        message.setSubject(mail.subject);
+        message.setText(mail.text);
+        return message;
+    }
+
+    private static void closeQuietly(Transport transport) {
+        if (transport == null) return;
+        try {
+            transport.close();
+        } catch (MessagingException ignored) {
+            // 이미 끊긴 연결
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicLong seq = new AtomicLong();
+        return r -> {
+            Thread t = new Thread(r, prefix + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -2,8 +2,6 @@ package com.mjsec.ctf.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -11,15 +9,11 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final EmailOutbox emailOutbox;
 
+    // 아웃박스에 적재만 하고 바로 반환 (실제 SMTP 전송은 EmailOutbox 워커가 수행)
     public void sendVerificationEmail(String toEmail, String code) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(toEmail);
-        message.setSubject("학교 이메일 인증 코드");
-        message.setText("인증 코드는 다음과 같습니다: " + code);
-
-        mailSender.send(message);
-        log.info("이메일 전송 완료: {}", toEmail);
+        emailOutbox.enqueue(toEmail, "학교 이메일 인증 코드", "인증 코드는 다음과 같습니다: " + code);
+        log.info("이메일 발송 요청 적재: {}", toEmail);
     }
-}
\ No newline at end of file
+}
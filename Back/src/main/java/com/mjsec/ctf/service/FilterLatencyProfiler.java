@@ -0,0 +1,215 @@
+package com.mjsec.ctf.service;
+
+import com.mjsec.ctf.dto.FilterProfileDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 필터 체인 지연 프로파일러
+ * - 필터마다 ProfiledFilter 로 감싸 자기 시간(하위 체인 제외)을 요청 속성에 모으고,
+ *   가장 바깥의 RequestProfilingFilter 가 체인 종료 후(라우트 패턴 확정 후) 한 번에 기록
+ * - ctf.filter.latency{filter, route}: 클라이언트 측 백분위(p50/p95/p99)만 게시 → 필터 × 라우트 조합에도 시계열 수가 작음
+ *   filter="handler" 는 측정하지 않은 나머지 (스프링 시큐리티 기본 필터 + 디스패처/컨트롤러)
+ * - 느린 요청(임계값 이상)은 표본 비율만큼 필터별 내역을 링 버퍼에 보관 → 관리자 API 로 조회
+ * - 요청당 비용: System.nanoTime() 몇 번 + 배열 기록, 타이머는 키별로 캐시
+ */
+@Slf4j
+@Component
+public class FilterLatencyProfiler {
+
+    private static final String ATTRIBUTE = FilterLatencyProfiler.class.getName() + ".PROFILE";
+    private static final String TIMER_NAME = "ctf.filter.latency";
+    private static final String HANDLER = "handler";
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final long slowThresholdMs;
+    private final double slowSampleRate;
+    private final int slowCapacity;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Deque<FilterProfileDto.SlowRequest> slowRequests = new ArrayDeque<>();
+
+    public FilterLatencyProfiler(MeterRegistry registry,
+                                 @Value("${ctf.profiler.enabled:true}") boolean enabled,
+                                 @Value("${ctf.profiler.slow-threshold-ms:500}") long slowThresholdMs,
+                                 @Value("${ctf.profiler.slow-sample-rate:0.1}") double slowSampleRate,
+                                 @Value("${ctf.profiler.slow-capacity:100}") int slowCapacity) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.slowThresholdMs = slowThresholdMs;
+        this.slowSampleRate = slowSampleRate;
+        this.slowCapacity = slowCapacity;
+    }
+
+    // 요청 하나의 필터별 자기 시간 (디스패치는 차례로만 실행되므로 동기화 없음)
+    // 비동기 요청은 디스패치마다 같은 필터를 다시 지나므로 이름별로 합산
+    public static final class RequestProfile {
+        private final long startedAt = System.nanoTime();
+        private String[] names = new String[8];
+        private long[] nanos = new long[8];
+        private int size;
+
+        public void add(String name, long elapsed) {
+            for (int i = 0; i < size; i++) {
+                if (names[i].equals(name)) {
+                    nanos[i] += elapsed;
+                    return;
+                }
+            }
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            names[size] = name;
+            nanos[size] = elapsed;
+            size++;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public static RequestProfile profileOf(ServletRequest request) {
+        return request.getAttribute(ATTRIBUTE) instanceof RequestProfile profile ? profile : null;
+    }
+
+    public RequestProfile begin(HttpServletRequest request) {
+        RequestProfile profile = new RequestProfile();
+        request.setAttribute(ATTRIBUTE, profile);
+        return profile;
+    }
+
+    public void complete(HttpServletRequest request, HttpServletResponse response, RequestProfile profile) {
+        request.removeAttribute(ATTRIBUTE);
+        try {
+            long total = System.nanoTime() - profile.startedAt;
+            String route = routeOf(request);
+
+            long filtersTotal = 0;
+            for (int i = 0; i < profile.size; i++) {
+                timer(profile.names[i], route).record(profile.nanos[i], TimeUnit.NANOSECONDS);
+                filtersTotal += profile.nanos[i];
+            }
+            long handler = Math.max(0, total - filtersTotal);
+            timer(HANDLER, route).record(handler, TimeUnit.NANOSECONDS);
+
+            if (TimeUnit.NANOSECONDS.toMillis(total) >= slowThresholdMs
+                    && ThreadLocalRandom.current().nextDouble() < slowSampleRate) {
+                keepSlow(request, response, route, profile, total, handler);
+            }
+        } catch (Exception e) {
+            log.debug("[FilterLatencyProfiler] 기록 실패: {}", e.getMessage());
+        }
+    }
+
+    // 핸들러까지 간 요청은 매칭된 패턴(/api/challenges/{challengeId}/submit 등), 필터에서 끝난 요청은 UNKNOWN
+    private static String routeOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? UNKNOWN_ROUTE : pattern.toString();
+    }
+
+    private Timer timer(String filter, String route) {
+        return timers.computeIfAbsent(filter + '|' + route, k -> Timer.builder(TIMER_NAME)
+                .description("필터 자기 시간 (하위 체인 제외)")
+                .tag("filter", filter)
+                .tag("route", route)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry));
+    }
+
+    private void keepSlow(HttpServletRequest request, HttpServletResponse response, String route,
+                          RequestProfile profile, long total, long handler) {
+        // 바깥 필터가 나중에 끝나므로 기록 순서를 뒤집어 실행 순서로 표시
+        Map<String, Double> filtersMs = new LinkedHashMap<>();
+        for (int i = profile.size - 1; i >= 0; i--) {
+            filtersMs.put(profile.names[i], toMs(profile.nanos[i]));
+        }
+
+        FilterProfileDto.SlowRequest slow = FilterProfileDto.SlowRequest.builder()
+                .at(LocalDateTime.now())
+                .method(request.getMethod())
+                .uri(request.getRequestURI())
+                .route(route)
+                .status(response.getStatus())
+                .totalMs(toMs(total))
+                .filtersMs(filtersMs)
+                .handlerMs(toMs(handler))
+                .build();
+
+        synchronized (slowRequests) {
+            if (slowRequests.size() >= slowCapacity) {
+                slowRequests.pollFirst();
+            }
+            slowRequests.addLast(slow);
+        }
+    }
+
+    // ---------- 관리자 조회 ----------
+    public FilterProfileDto.Summary summary(String route) {
+        List<FilterProfileDto.FilterStat> stats = new ArrayList<>();
+        for (Timer timer : timers.values()) {
+            String timerRoute = timer.getId().getTag("route");
+            if (route != null && !route.isBlank() && !route.equals(timerRoute)) {
+                continue;
+            }
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            FilterProfileDto.FilterStat.FilterStatBuilder stat = FilterProfileDto.FilterStat.builder()
+                    .filter(timer.getId().getTag("filter"))
+                    .route(timerRoute)
+                    .count(snapshot.count())
+                    .meanMs(snapshot.mean(TimeUnit.MILLISECONDS))
+                    .maxMs(snapshot.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile p : snapshot.percentileValues()) {
+                double ms = p.value(TimeUnit.MILLISECONDS);
+                if (p.percentile() == 0.5) stat.p50Ms(ms);
+                else if (p.percentile() == 0.95) stat.p95Ms(ms);
+                else if (p.percentile() == 0.99) stat.p99Ms(ms);
+            }
+            stats.add(stat.build());
+        }
+        stats.sort(Comparator.comparingDouble(FilterProfileDto.FilterStat::getP99Ms).reversed());
+
+        return FilterProfileDto.Summary.builder()
+                .slowThresholdMs(slowThresholdMs)
+                .slowSampleRate(slowSampleRate)
+                .filters(stats)
+                .build();
+    }
+
+    // 최근 것부터
+    public List<FilterProfileDto.SlowRequest> slowRequests() {
+        synchronized (slowRequests) {
+            List<FilterProfileDto.SlowRequest> result = new ArrayList<>(slowRequests);
+            Collections.reverse(result);
+            return result;
+        }
+    }
+
+    public void clearSlowRequests() {
+        synchronized (slowRequests) {
+            slowRequests.clear();
+        }
+    }
+
+    private static double toMs(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
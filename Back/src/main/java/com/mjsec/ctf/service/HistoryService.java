@@ -14,10 +14,13 @@ public class HistoryService {
 
     private final TeamHistoryRepository teamHistoryRepository;
     private final ChallengeRepository challengeRepository;
+    private final SingleFlight singleFlight;
 
-    public HistoryService(TeamHistoryRepository teamHistoryRepository, ChallengeRepository challengeRepository) {
+    public HistoryService(TeamHistoryRepository teamHistoryRepository, ChallengeRepository challengeRepository,
+                          SingleFlight singleFlight) {
         this.teamHistoryRepository = teamHistoryRepository;
         this.challengeRepository = challengeRepository;
+        this.singleFlight = singleFlight;
     }
 
     /**
@@ -52,7 +55,12 @@ public class HistoryService {
      */
 
 
+    // 그래프 SSE 구독자들의 동시 조회는 1회로 합침
     public List<TeamHistoryDto> getActiveUserHistoryDtos() {
+        return singleFlight.execute("graph", this::loadActiveUserHistoryDtos);
+    }
+
+    private List<TeamHistoryDto> loadActiveUserHistoryDtos() {
         List<TeamHistoryEntity> histories = teamHistoryRepository.findAllByOrderBySolvedTimeAsc();
 
         return histories.stream().map(history -> {
@@ -17,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,9 +29,17 @@ public class IPBanService {
     private final IPActivityRepository ipActivityRepository;
     private final RedisTemplate<String, String> redisTemplate;
     private final AlertService alertService;
+    private final ContestMetrics contestMetrics;
 
     private static final String BANNED_IP_KEY = "banned_ips";
 
+    // 차단되지 않은 IP 로컬 캐시 (IP → 만료 시각): 요청마다 DB 를 조회하지 않도록
+    // Redis 차단 집합을 항상 먼저 보므로 다른 인스턴스에서 차단해도 바로 반영됨
+    // (차단 시 Redis 반영까지 실패한 경우에만 최대 TTL 동안 늦게 반영)
+    private static final long CLEAN_IP_TTL_MS = 30_000;
+    private static final int CLEAN_IP_MAX_SIZE = 100_000;
+    private final Map<String, Long> cleanIpCache = new ConcurrentHashMap<>();
+
     @Transactional
     public IPBanEntity banIP(String ipAddress, String reason, IPBanEntity.BanType banType,
                              Long durationMinutes, Long adminId, String adminLoginId) {
@@ -65,6 +74,7 @@ public class IPBanService {
 
         IPBanEntity savedEntity = ipBanRepository.save(banEntity);
         addToRedisCache(ipAddress);
+        cleanIpCache.remove(ipAddress);
 
         log.warn("IP banned: {} | Type: {} | Reason: {} | By: {} | ExpiresAt={}",
                 ipAddress, banType, reason, adminLoginId, savedEntity.getExpiresAt());
@@ -95,16 +105,38 @@ public class IPBanService {
 
     public boolean isBanned(String ipAddress) {
         Boolean isCached = redisTemplate.opsForSet().isMember(BANNED_IP_KEY, ipAddress);
-        if (Boolean.TRUE.equals(isCached)) return true;
+        if (Boolean.TRUE.equals(isCached)) {
+            contestMetrics.banCheck(true);
+            return true;
+        }
+        Long cleanUntil = cleanIpCache.get(ipAddress);
+        if (cleanUntil != null && cleanUntil > System.currentTimeMillis()) {
+            contestMetrics.banCheck(true);
+            return false;
+        }
+        contestMetrics.banCheck(false);
 
         Optional<IPBanEntity> banEntity = ipBanRepository.findActiveByIpAddress(ipAddress);
         if (banEntity.isPresent() && banEntity.get().isBanned()) {
             addToRedisCache(ipAddress);
+            cleanIpCache.remove(ipAddress);
             return true;
         }
+        rememberClean(ipAddress);
         return false;
     }
 
+    private void rememberClean(String ipAddress) {
+        long now = System.currentTimeMillis();
+        if (cleanIpCache.size() >= CLEAN_IP_MAX_SIZE) {
+            cleanIpCache.values().removeIf(until -> until <= now);
+            if (cleanIpCache.size() >= CLEAN_IP_MAX_SIZE) {
+                cleanIpCache.clear();
+            }
+        }
+        cleanIpCache.put(ipAddress, now + CLEAN_IP_TTL_MS);
+    }
+
     public Optional<IPBanEntity> getBanInfo(String ipAddress) {
         return ipBanRepository.findActiveByIpAddress(ipAddress);
     }
@@ -2,11 +2,18 @@ package com.mjsec.ctf.service;
 
 import com.mjsec.ctf.domain.TeamEntity;
 import com.mjsec.ctf.dto.TeamLeaderboardDto;    //팀단위 추가
+import com.mjsec.ctf.dto.TeamSolveMatrixDto;
 import com.mjsec.ctf.repository.TeamRepository; //TeamRepository참조
+import com.mjsec.ctf.repository.TeamSolveRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -14,19 +21,36 @@ import java.util.stream.Collectors;
 public class LeaderboardService {
 
     private final TeamRepository teamRepository;    //leaderboardRepository에서 Team으로 변경
+    private final TeamSolveRepository teamSolveRepository;
+    private final TeamSolveMatrix teamSolveMatrix;
+    private final SingleFlight singleFlight;
 
     @Autowired
-    public LeaderboardService(TeamRepository teamRepository) {
+    public LeaderboardService(TeamRepository teamRepository, TeamSolveRepository teamSolveRepository,
+                              TeamSolveMatrix teamSolveMatrix, SingleFlight singleFlight) {
         this.teamRepository = teamRepository;
+        this.teamSolveRepository = teamSolveRepository;
+        this.teamSolveMatrix = teamSolveMatrix;
+        this.singleFlight = singleFlight;
     }
 
-    // 팀기반 리더보드 조회 (점수 내림차순)
+    // 팀기반 리더보드 조회 (점수 내림차순), SSE 구독자들의 동시 조회는 1회로 합침
     public List<TeamLeaderboardDto> getTeamLeaderboard() {
+        return singleFlight.execute("leaderboard", this::loadTeamLeaderboard);
+    }
+
+    private List<TeamLeaderboardDto> loadTeamLeaderboard() {
         List<TeamEntity> teams = teamRepository.findAllByOrderByTotalPointDescLastSolvedTimeAsc()
                 .stream()
                 .filter(team -> team.getTotalPoint() > 0)   //0점 팀 제외
                 .collect(Collectors.toList());
 
+        // 팀별 풀이 수 (team_solve GROUP BY 1회)
+        Map<Long, Integer> solvedCounts = new HashMap<>();
+        for (Object[] row : teamSolveRepository.countGroupByTeamId()) {
+            solvedCounts.put((Long) row[0], ((Long) row[1]).intValue());
+        }
+
         AtomicInteger rank = new AtomicInteger(1);  //순위계산 (1등부터)
 
         return teams.stream()
@@ -34,12 +58,39 @@ public class LeaderboardService {
                         .teamId(team.getTeamId())
                         .teamName(team.getTeamName())
                         .totalPoint(team.getTotalPoint())
-                        .solvedCount(team.getSolvedCount())
+                        .solvedCount(solvedCounts.getOrDefault(team.getTeamId(), 0))
                         .lastSolvedTime(team.getLastSolvedTime())
                         .rank(rank.getAndIncrement())  // 순위 자동 증가
                         .build())
                 .collect(Collectors.toList());
     }
+    // 팀 × 문제 풀이 행렬 (순위 순서, 팀 쿼리 1회 + 인메모리 행렬)
+    public TeamSolveMatrixDto getSolveMatrix() {
+        return singleFlight.execute("solve_matrix", this::loadSolveMatrix);
+    }
+
+    private TeamSolveMatrixDto loadSolveMatrix() {
+        TeamSolveMatrix.Snapshot snapshot = teamSolveMatrix.snapshot();
+        Base64.Encoder encoder = Base64.getEncoder();
+
+        List<TeamSolveMatrixDto.Row> rows = new ArrayList<>();
+        for (TeamEntity team : teamRepository.findAllByOrderByTotalPointDescLastSolvedTimeAsc()) {
+            BitSet solved = snapshot.teams().getOrDefault(team.getTeamId(), new BitSet());
+            rows.add(TeamSolveMatrixDto.Row.builder()
+                    .teamId(team.getTeamId())
+                    .teamName(team.getTeamName())
+                    .solvedCount(solved.cardinality())
+                    .solved(encoder.encodeToString(solved.toByteArray()))
+                    .build());
+        }
+
+        return TeamSolveMatrixDto.builder()
+                .version(snapshot.version())
+                .challengeIds(snapshot.challengeIds())
+                .teams(rows)
+                .build();
+    }
+
     // 여기서 한 부분이 달라졌는데 본래 updatedAt 으로 정렬하던것을 LastSolvedTime 으로 정렬하게 바꿨습니다
     // 이때 lastSolvedTime 은 mysql 에서 트리거를 활용하여 설정됩니다.
     // 문제별로 테이블을 제작합니다 ex) problem_1 or problem_2
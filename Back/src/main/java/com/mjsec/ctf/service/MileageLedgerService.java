@@ -0,0 +1,130 @@
+package com.mjsec.ctf.service;
+
+import com.mjsec.ctf.domain.MileageLedgerEntity;
+import com.mjsec.ctf.domain.TeamEntity;
+import com.mjsec.ctf.dto.MileageReconcileDto;
+import com.mjsec.ctf.exception.RestApiException;
+import com.mjsec.ctf.repository.MileageLedgerRepository;
+import com.mjsec.ctf.repository.TeamRepository;
+import com.mjsec.ctf.type.ErrorCode;
+import com.mjsec.ctf.type.MileageReason;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/*
+ * 팀 마일리지 원장
+ * - 모든 증감은 mileage_ledger 에 한 줄씩 추가하고, team.mileage(실체화 잔액)는 원자적 UPDATE 로만 변경
+ * - 결제 차감은 "잔액 >= 금액" 조건부 UPDATE 한 번: 읽고-쓰기 경합/갱신 유실 없이 행 잠금은 해당 UPDATE ~ 커밋 동안만 유지
+ * - 잔액은 원장 합계로 재구성 가능 (reconcile)
+ * - 호출자 트랜잭션에 참여하며, 반환 잔액을 메모리의 TeamEntity 에도 반영해 응답/리포트와 일치시킴
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MileageLedgerService {
+
+    private final TeamRepository teamRepository;
+    private final MileageLedgerRepository mileageLedgerRepository;
+
+    // 적립, 반환값: 반영 후 잔액
+    @Transactional
+    public int credit(TeamEntity team, int amount, MileageReason reason, Long referenceId) {
+        if (amount <= 0) {
+            return team.getMileage();
+        }
+        if (teamRepository.incrementMileage(team.getTeamId(), amount) == 0) {
+            throw new RestApiException(ErrorCode.TEAM_NOT_FOUND);
+        }
+        return append(team, amount, reason, referenceId).getBalanceAfter();
+    }
+
+    // 잔액이 충분할 때만 차감, 부족하면 null (원장 기록 없음)
+    @Transactional
+    public MileageLedgerEntity tryDebit(TeamEntity team, int amount, MileageReason reason, Long referenceId) {
+        if (amount <= 0) {
+            throw new RestApiException(ErrorCode.BAD_REQUEST, "마일리지는 1 이상이어야 합니다.");
+        }
+        if (teamRepository.decrementMileageIfEnough(team.getTeamId(), amount) == 0) {
+            return null;
+        }
+        return append(team, -amount, reason, referenceId);
+    }
+
+    // 잔액 한도 내에서 회수 (0 미만 불가), 반환값: 실제 회수량
+    @Transactional
+    public int debitUpTo(TeamEntity team, int amount, MileageReason reason, Long referenceId) {
+        if (amount <= 0) {
+            return 0;
+        }
+        int balance = teamRepository.findMileageByTeamIdForUpdate(team.getTeamId())
+                .orElseThrow(() -> new RestApiException(ErrorCode.TEAM_NOT_FOUND));
+        int actual = Math.min(amount, balance);
+        if (actual <= 0) {
+            team.setMileage(balance);
+            return 0;
+        }
+        teamRepository.incrementMileage(team.getTeamId(), -actual);
+        append(team, -actual, reason, referenceId);
+        return actual;
+    }
+
+    /*
+     * 원장 합계와 실체화 잔액 대조
+     * - 1차: 스냅샷 집계로 불일치 후보 선별
+     * - apply=true: 후보 팀마다 잔액 행을 잠그고 원장 합계를 다시 읽어 원장 기준으로 잔액 보정 (원장은 변경하지 않음)
+     */
+    @Transactional
+    public List<MileageReconcileDto> reconcile(boolean apply) {
+        Map<Long, Long> ledgerSums = new HashMap<>();
+        for (Object[] row : mileageLedgerRepository.sumDeltaGroupByTeamId()) {
+            ledgerSums.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+
+        List<MileageReconcileDto> mismatches = new ArrayList<>();
+        for (TeamEntity team : teamRepository.findAll()) {
+            int balance = team.getMileage();
+            int ledgerBalance = (int) (long) ledgerSums.getOrDefault(team.getTeamId(), 0L);
+            if (ledgerBalance == balance) continue;
+
+            if (apply) {
+                // 진행 중인 결제가 커밋된 뒤의 값으로 재확인
+                balance = teamRepository.findMileageByTeamIdForUpdate(team.getTeamId()).orElse(balance);
+                ledgerBalance = (int) mileageLedgerRepository.sumDeltaByTeamIdForShare(team.getTeamId());
+                if (ledgerBalance == balance) continue;
+                teamRepository.incrementMileage(team.getTeamId(), ledgerBalance - balance);
+                team.setMileage(ledgerBalance);
+            }
+
+            mismatches.add(MileageReconcileDto.builder()
+                    .teamId(team.getTeamId())
+                    .teamName(team.getTeamName())
+                    .balance(balance)
+                    .ledgerBalance(ledgerBalance)
+                    .build());
+        }
+
+        log.info("[마일리지 원장] 대조 완료: 불일치 팀={}, 보정={}", mismatches.size(), apply);
+        return mismatches;
+    }
+
+    // 원장 기록 + 반영 직후 잔액 (자기 UPDATE 이후 조회이므로 최신 값)
+    private MileageLedgerEntity append(TeamEntity team, int delta, MileageReason reason, Long referenceId) {
+        int balanceAfter = teamRepository.findMileageByTeamId(team.getTeamId())
+                .orElseThrow(() -> new RestApiException(ErrorCode.TEAM_NOT_FOUND));
+        team.setMileage(balanceAfter);
+
+        return mileageLedgerRepository.save(MileageLedgerEntity.builder()
+                .teamId(team.getTeamId())
+                .delta(delta)
+                .balanceAfter(balanceAfter)
+                .reason(reason)
+                .referenceId(referenceId)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,276 @@
+package com.mjsec.ctf.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mjsec.ctf.domain.ChallengeEntity;
+import com.mjsec.ctf.domain.NotificationOutboxEntity;
+import com.mjsec.ctf.domain.UserEntity;
+import com.mjsec.ctf.repository.NotificationOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * 퍼스트 블러드 알림 아웃박스
+ * - 풀이 트랜잭션 안에서 notification_outbox 에 행만 기록 → 요청 지연이 웹훅 응답과 무관, 노드가 죽어도 유실 없음
+ * - 디스패처(전용 스레드 1개)가 주기적으로, 그리고 커밋 직후 깨어나 BATCH 단위로 선점(SKIP LOCKED + 점유 시각) 후 전송
+ *   → 여러 인스턴스가 동시에 돌아도 같은 행을 중복 전송하지 않음
+ * - 공유 HttpClient 로 keep-alive 연결을 재사용, 배치 안에서는 sendAsync 로 동시 전송
+ * - 2xx 만 SENT 로 표시, 연결 오류/5xx/429 는 지수 백오프로 재시도, 그 외 4xx 는 FAILED
+ *   전송 후 표시 전에 죽으면 점유가 풀린 뒤 다시 보내므로 Idempotency-Key(event_key)로 수신 측 중복 제거
+ */
+@Slf4j
+@Component
+public class NotificationOutbox {
+
+    public static final String TYPE_FIRST_BLOOD = "FIRST_BLOOD";
+
+    private static final int MAX_ATTEMPTS = 10;
+    private static final long BASE_BACKOFF_MS = 2_000;
+    private static final long MAX_BACKOFF_MS = 300_000;
+    private static final long LEASE_MS = 30_000;
+    private static final long REQUEST_TIMEOUT_MS = 5_000;
+    private static final int SENT_RETENTION_DAYS = 7;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final String apiUrl;
+    private final String apiKey;
+    private final int batchSize;
+    private final long pollIntervalMs;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(2000))
+            .build();
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running = false;
+    // 커밋마다 깨우기를 쌓지 않도록 대기 중인 깨우기는 1건만 유지
+    private final AtomicBoolean wakePending = new AtomicBoolean(false);
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public NotificationOutbox(NotificationOutboxRepository outboxRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${api.url:}") String apiUrl,
+                              @Value("${api.key:}") String apiKey,
+                              @Value("${ctf.notification.outbox.batch-size:20}") int batchSize,
+                              @Value("${ctf.notification.outbox.poll-interval-ms:1000}") long pollIntervalMs) {
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.apiUrl = apiUrl;
+        this.apiKey = apiKey;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    public record Stats(long sent, long retried, long failed) {}
+
+    private record Outcome(NotificationOutboxEntity row, int status, String error) {}
+
+    @PostConstruct
+    public void start() {
+        if (apiUrl == null || apiUrl.isBlank()) {
+            // 행은 계속 쌓이고, 주소 설정 후 재기동하면 밀린 알림부터 전송
+            log.warn("[NotificationOutbox] api.url 미설정, 알림 전송 비활성");
+            return;
+        }
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "notification-outbox");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::drain, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::purgeSent, 1, 60, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(sent.get(), retried.get(), failed.get());
+    }
+
+    // ---------- 적재 (호출 측 트랜잭션 안에서) ----------
+    public void enqueueFirstBlood(ChallengeEntity challenge, UserEntity user) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("first_blood_problem", challenge.getTitle());
+        body.put("first_blood_person", user.getLoginId());
+        body.put("first_blood_school", user.getUniv());
+
+        // 풀이 철회 후 다시 퍼스트 블러드가 나올 수 있으므로 풀이자까지 키에 포함
+        String eventKey = TYPE_FIRST_BLOOD + ":" + challenge.getChallengeId() + ":" + user.getUserId();
+        enqueue(eventKey, TYPE_FIRST_BLOOD, body);
+    }
+
+    private void enqueue(String eventKey, String eventType, Map<String, Object> body) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(body);
+        } catch (Exception e) {
+            throw new IllegalStateException("알림 페이로드 직렬화 실패", e);
+        }
+
+        int inserted = outboxRepository.insertIfAbsent(eventKey, eventType, payload, LocalDateTime.now());
+        if (inserted == 0) {
+            log.info("[NotificationOutbox] 이미 기록된 알림: {}", eventKey);
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+    }
+
+    // 다음 폴링을 기다리지 않고 바로 전송 시도
+    private void wakeUp() {
+        if (!running || !wakePending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // 종료 중
+            wakePending.set(false);
+        }
+    }
+
+    // ---------- 전송 ----------
+    private void drain() {
+        wakePending.set(false);
+        try {
+            while (running) {
+                List<NotificationOutboxEntity> batch = claim();
+                if (batch.isEmpty()) {
+                    return;
+                }
+                deliver(batch);
+                if (batch.size() < batchSize) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("[NotificationOutbox] 전송 루프 오류: {}", e.getMessage(), e);
+        }
+    }
+
+    // 전송 가능한 행을 선점하고 점유 시각을 미룬 뒤 바로 커밋 (전송 중에는 DB 락/커넥션을 잡지 않음)
+    private List<NotificationOutboxEntity> claim() {
+        List<NotificationOutboxEntity> rows = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = outboxRepository.findDueIdsForUpdate(now, batchSize);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            outboxRepository.lease(ids, now.plusNanos(LEASE_MS * 1_000_000));
+            return outboxRepository.findAllById(ids);
+        });
+        if (rows == null) {
+            return List.of();
+        }
+        List<NotificationOutboxEntity> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(NotificationOutboxEntity::getId));
+        return sorted;
+    }
+
+    private void deliver(List<NotificationOutboxEntity> batch) {
+        URI endpoint = URI.create(apiUrl);
+        List<CompletableFuture<Outcome>> futures = new ArrayList<>(batch.size());
+        for (NotificationOutboxEntity row : batch) {
+            HttpRequest req = HttpRequest.newBuilder(endpoint)
+                    .timeout(Duration.ofMillis(REQUEST_TIMEOUT_MS))
+                    .header("Content-Type", "application/json")
+                    .header("X-API-Key", apiKey)
+                    .header("Idempotency-Key", row.getEventKey())
+                    .POST(HttpRequest.BodyPublishers.ofString(row.getPayload(), StandardCharsets.UTF_8))
+                    .build();
+            futures.add(client.sendAsync(req, HttpResponse.BodyHandlers.discarding())
+                    .handle((resp, ex) -> ex != null
+                            ? new Outcome(row, -1, ex.toString())
+                            : new Outcome(row, resp.statusCode(), "HTTP " + resp.statusCode())));
+        }
+
+        List<Outcome> outcomes = futures.stream().map(CompletableFuture::join).toList();
+        transactionTemplate.executeWithoutResult(status -> outcomes.forEach(this::record));
+    }
+
+    private void record(Outcome outcome) {
+        NotificationOutboxEntity row = outcome.row();
+        int code = outcome.status();
+
+        if (code >= 200 && code < 300) {
+            outboxRepository.markSent(row.getId(), LocalDateTime.now());
+            sent.incrementAndGet();
+            log.info("[NotificationOutbox] 전송 완료: {}", row.getEventKey());
+            return;
+        }
+
+        String error = truncate(outcome.error());
+        boolean retryable = code < 0 || code == 408 || code == 429 || code >= 500;
+        int attempts = row.getAttempts() + 1;
+        if (!retryable || attempts >= MAX_ATTEMPTS) {
+            outboxRepository.markFailed(row.getId(), error);
+            failed.incrementAndGet();
+            log.error("[NotificationOutbox] 전송 최종 실패 ({}회): {}, {}", attempts, row.getEventKey(), error);
+            return;
+        }
+
+        long delay = Math.min(BASE_BACKOFF_MS << (attempts - 1), MAX_BACKOFF_MS);
+        outboxRepository.reschedule(row.getId(), LocalDateTime.now().plusNanos(delay * 1_000_000), error);
+        retried.incrementAndGet();
+        log.warn("[NotificationOutbox] 전송 실패, {}ms 후 재시도 ({}/{}): {}, {}",
+                delay, attempts, MAX_ATTEMPTS, row.getEventKey(), error);
+    }
+
+    private void purgeSent() {
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    outboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(SENT_RETENTION_DAYS)));
+            if (deleted != null && deleted > 0) {
+                log.info("[NotificationOutbox] 전송 완료 행 정리: {}건", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("[NotificationOutbox] 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    private static String truncate(String s) {
+        return s == null || s.length() <= 500 ? s : s.substring(0, 500);
+    }
+}
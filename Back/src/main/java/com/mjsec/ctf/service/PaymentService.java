@@ -1,6 +1,5 @@
 package com.mjsec.ctf.service;
 
-import com.mjsec.ctf.domain.PaymentTokenEntity;
 import com.mjsec.ctf.domain.TeamEntity;
 import com.mjsec.ctf.domain.TeamPaymentHistoryEntity;
 import com.mjsec.ctf.domain.UserEntity;
@@ -8,17 +7,17 @@ import com.mjsec.ctf.dto.PaymentTokenDto;
 import com.mjsec.ctf.dto.TeamPaymentHistoryDto;
 import com.mjsec.ctf.exception.RestApiException;
 import com.mjsec.ctf.repository.TeamPaymentHistoryRepository;
-import com.mjsec.ctf.repository.PaymentTokenRepository;
 import com.mjsec.ctf.repository.TeamRepository;
 import com.mjsec.ctf.repository.UserRepository;
 import com.mjsec.ctf.type.ErrorCode;
+import com.mjsec.ctf.type.MileageReason;
 import jakarta.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Slf4j
 @Service
@@ -26,39 +25,38 @@ public class PaymentService {
 
 
     private final TeamService teamService;
-    private final PaymentTokenRepository paymentTokenRepository;
+    private final PaymentTokenStore paymentTokenStore;
     private final UserRepository userRepository;
     private final TeamPaymentHistoryRepository teamPaymentHistoryRepository;
     private final TeamRepository teamRepository;
+    private final MileageLedgerService mileageLedgerService;
+    private final AdminPaymentHistoryService adminPaymentHistoryService;
 
-    public PaymentService(TeamService teamService, PaymentTokenRepository paymentTokenRepository,
+    public PaymentService(TeamService teamService, PaymentTokenStore paymentTokenStore,
                           UserRepository userRepository, TeamPaymentHistoryRepository teamPaymentHistoryRepository,
-                          TeamRepository teamRepository) {
+                          TeamRepository teamRepository, MileageLedgerService mileageLedgerService,
+                          AdminPaymentHistoryService adminPaymentHistoryService) {
 
         this.teamService = teamService;
-        this.paymentTokenRepository = paymentTokenRepository;
+        this.paymentTokenStore = paymentTokenStore;
         this.userRepository = userRepository;
         this.teamPaymentHistoryRepository = teamPaymentHistoryRepository;
         this.teamRepository = teamRepository;
+        this.mileageLedgerService = mileageLedgerService;
+        this.adminPaymentHistoryService = adminPaymentHistoryService;
     }
 
+    // QR 토큰 발급 (Redis TTL 저장, DB 미사용)
     public PaymentTokenDto createPaymentToken(String loginId) {
 
-        PaymentTokenEntity paymentTokenEntity = PaymentTokenEntity.builder()
-                .paymentToken(UUID.randomUUID().toString())
-                .loginId(loginId)
-                .expiry(LocalDateTime.now().plusMinutes(5))
-                .createdAt(LocalDateTime.now())
-                .build();
-
-        paymentTokenRepository.save(paymentTokenEntity);
+        LocalDateTime createdAt = LocalDateTime.now();
+        String token = paymentTokenStore.issue(loginId);
 
         return PaymentTokenDto.builder()
-                .paymentTokenId(paymentTokenEntity.getPaymentTokenId())
-                .token(paymentTokenEntity.getPaymentToken())
-                .loginId(paymentTokenEntity.getLoginId())
-                .expiry(paymentTokenEntity.getExpiry())
-                .createdAt(paymentTokenEntity.getCreatedAt())
+                .token(token)
+                .loginId(loginId)
+                .expiry(createdAt.plus(PaymentTokenStore.TOKEN_TTL))
+                .createdAt(createdAt)
                 .build();
     }
 
@@ -68,29 +66,37 @@ public class PaymentService {
         UserEntity user = userRepository.findByLoginId(loginId)
                 .orElseThrow(() -> new RestApiException(ErrorCode.USER_NOT_FOUND));
 
-        PaymentTokenEntity tokenEntity = paymentTokenRepository.findByPaymentToken(paymentToken)
-                .orElseThrow(() -> new RestApiException(ErrorCode.INVALID_TOKEN));
-
-        if (tokenEntity.getExpiry().isBefore(LocalDateTime.now())) {
-            throw new RestApiException(ErrorCode.TOKEN_EXPIRED);
-        }
-
         if (user.getCurrentTeamId() == null) {
             throw new RestApiException(ErrorCode.MUST_BE_BELONG_TEAM);
         }
-        else {
-            boolean success = teamService.useTeamMileage(
-                    user.getCurrentTeamId(),
-                    mileageUsed,
-                    user.getUserId()
-            );
-
-            if (!success) {
-                throw new RestApiException(ErrorCode.NOT_ENOUGH_MILEAGE);
+
+        // 토큰 원자적 사용 (만료/이미 사용된 토큰은 존재하지 않음)
+        PaymentTokenStore.ConsumedToken consumed = paymentTokenStore.consume(paymentToken)
+                .orElseThrow(() -> new RestApiException(ErrorCode.INVALID_TOKEN));
+
+        // 결제가 롤백되면(잔액 부족, 커밋 실패 등) 토큰을 되돌려 재시도 가능하게 함
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    paymentTokenStore.restore(consumed);
+                }
             }
+        });
+
+        if (!consumed.loginId().equals(loginId)) {
+            throw new RestApiException(ErrorCode.INVALID_TOKEN);
         }
 
-        paymentTokenRepository.deleteByPaymentToken(paymentToken);
+        boolean success = teamService.useTeamMileage(
+                user.getCurrentTeamId(),
+                mileageUsed,
+                user.getUserId()
+        );
+
+        if (!success) {
+            throw new RestApiException(ErrorCode.NOT_ENOUGH_MILEAGE);
+        }
     }
 
     // 팀의 결제 히스토리 조회
@@ -102,22 +108,12 @@ public class PaymentService {
             throw new RestApiException(ErrorCode.MUST_BE_BELONG_TEAM);
         }
 
-        List<TeamPaymentHistoryEntity> histories = teamPaymentHistoryRepository
-                .findByTeamIdOrderByCreatedAtDesc(user.getCurrentTeamId());
-
-        return histories.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return adminPaymentHistoryService.getByTeam(user.getCurrentTeamId());
     }
 
     // 모든 결제 히스토리 조회 (관리자용)
     public List<TeamPaymentHistoryDto> getAllPaymentHistory() {
-        List<TeamPaymentHistoryEntity> histories = teamPaymentHistoryRepository
-                .findAllByOrderByCreatedAtDesc();
-
-        return histories.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return adminPaymentHistoryService.getAll();
     }
 
     // 결제 철회 (관리자용)
@@ -129,33 +125,13 @@ public class PaymentService {
         TeamEntity team = teamRepository.findById(history.getTeamId())
                 .orElseThrow(() -> new RestApiException(ErrorCode.TEAM_NOT_FOUND));
 
-        // 마일리지 환불
-        team.addMileage(history.getMileageUsed());
-        teamRepository.save(team);
-
-        // 히스토리 삭제
-        teamPaymentHistoryRepository.delete(history);
+        // 히스토리 삭제 후 환불 (먼저 삭제한 요청만 환불)
+        if (teamPaymentHistoryRepository.deleteByTeamPaymentHistoryId(paymentHistoryId) == 0) {
+            throw new RestApiException(ErrorCode.PAYMENT_HISTORY_NOT_FOUND);
+        }
+        mileageLedgerService.credit(team, history.getMileageUsed(), MileageReason.REFUND, paymentHistoryId);
 
         log.info("Payment refunded: paymentHistoryId={}, teamId={}, mileageRefunded={}",
                 paymentHistoryId, history.getTeamId(), history.getMileageUsed());
     }
-
-    // Entity -> DTO 변환
-    private TeamPaymentHistoryDto convertToDto(TeamPaymentHistoryEntity entity) {
-        TeamEntity team = teamRepository.findById(entity.getTeamId())
-                .orElse(null);
-        UserEntity user = userRepository.findById(entity.getRequesterUserId())
-                .orElse(null);
-
-        return TeamPaymentHistoryDto.builder()
-                .teamPaymentHistoryId(entity.getTeamPaymentHistoryId())
-                .teamId(entity.getTeamId())
-                .teamName(team != null ? team.getTeamName() : "Unknown")
-                .requesterUserId(entity.getRequesterUserId())
-                .requesterLoginId(user != null ? user.getLoginId() : "Unknown")
-                .mileageUsed(entity.getMileageUsed())
-                .createdAt(entity.getCreatedAt())
-                .build();
-    }
 }
-
@@ -0,0 +1,70 @@
+package com.mjsec.ctf.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/*
+ * QR 결제 토큰 저장소 (Redis)
+ * - payment_token:{token} → loginId, TTL로 만료 (미사용 토큰 정리 불필요)
+ * - 사용 시 GET + DEL 을 Lua 스크립트로 원자 처리 → 같은 토큰을 두 번 스캔해도 한 번만 성공
+ * - 결제 실패 시 남은 TTL 그대로 되돌려 재시도 가능
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentTokenStore {
+
+    public static final Duration TOKEN_TTL = Duration.ofMinutes(5);
+    private static final String KEY_PREFIX = "payment_token:";
+
+    // 반환: "남은 TTL(ms):loginId" 또는 nil (TTL 은 숫자이므로 첫 ':' 로 구분)
+    private static final DefaultRedisScript<String> CONSUME_SCRIPT = new DefaultRedisScript<>(
+            "local v = redis.call('GET', KEYS[1]) " +
+            "if not v then return nil end " +
+            "local ttl = redis.call('PTTL', KEYS[1]) " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return tostring(ttl) .. ':' .. v",
+            String.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    // 사용된 토큰 (되돌리기용 남은 TTL 포함)
+    public record ConsumedToken(String token, String loginId, long remainingTtlMillis) {}
+
+    public String issue(String loginId) {
+        String token = UUID.randomUUID().toString();
+        redisTemplate.opsForValue().set(KEY_PREFIX + token, loginId, TOKEN_TTL);
+        return token;
+    }
+
+    public Optional<ConsumedToken> consume(String token) {
+        String result = redisTemplate.execute(CONSUME_SCRIPT, List.of(KEY_PREFIX + token));
+        int sep = result == null ? -1 : result.indexOf(':');
+        if (sep < 0) {
+            return Optional.empty();
+        }
+        long ttl = Long.parseLong(result.substring(0, sep));
+        return Optional.of(new ConsumedToken(token, result.substring(sep + 1), ttl));
+    }
+
+    // 결제 실패 시 토큰 복구 (남은 TTL 유지, 이미 만료 직전이면 복구하지 않음)
+    public void restore(ConsumedToken consumed) {
+        if (consumed.remainingTtlMillis() <= 0) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + consumed.token(), consumed.loginId(),
+                    Duration.ofMillis(consumed.remainingTtlMillis()));
+        } catch (Exception e) {
+            log.warn("[결제 토큰] 복구 실패: loginId={}, err={}", consumed.loginId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.mjsec.ctf.service;
+
+/*
+ * Redis 버전 카운터 동기화 재시도 간격
+ * - Redis 에 닿지 않으면 3초 → 6초 → … 최대 60초까지 간격을 늘리고, 성공하면 원래 주기로 복귀
+ * - 그동안 인메모리 스냅샷은 마지막 상태를 유지 (장애 중 주기마다 DB 전체 재구성하지 않도록)
+ * - @Scheduled(fixedDelay) 스레드에서만 호출
+ */
+final class RedisSyncBackoff {
+
+    private static final long MIN_DELAY_MS = 3_000;
+    private static final long MAX_DELAY_MS = 60_000;
+
+    private long delayMs = 0;
+    private long retryAt = 0;
+
+    boolean isWaiting() {
+        return System.currentTimeMillis() < retryAt;
+    }
+
+    // 반환: 다음 시도까지 대기 시간(ms)
+    long failed() {
+        delayMs = delayMs == 0 ? MIN_DELAY_MS : Math.min(delayMs * 2, MAX_DELAY_MS);
+        retryAt = System.currentTimeMillis() + delayMs;
+        return delayMs;
+    }
+
+    void succeeded() {
+        delayMs = 0;
+        retryAt = 0;
+    }
+}
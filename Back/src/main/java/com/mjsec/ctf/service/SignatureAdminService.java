@@ -2,27 +2,33 @@ package com.mjsec.ctf.service;
 
 import com.mjsec.ctf.domain.SignatureCodeEntity;
 import com.mjsec.ctf.domain.TeamEntity;
-import com.mjsec.ctf.domain.TeamSignatureUnlockEntity;
 import com.mjsec.ctf.dto.SignatureAdminDto;
 import com.mjsec.ctf.exception.RestApiException;
 import com.mjsec.ctf.repository.*;
 import com.mjsec.ctf.type.ErrorCode;
+import com.mjsec.ctf.util.CsvUtil;
 import com.mjsec.ctf.type.UserRole;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -37,6 +43,15 @@ public class SignatureAdminService {
     private final UserRepository          userRepo;
     private final TeamSignatureUnlockRepository unlockRepo;
     private final PasswordEncoder         passwordEncoder;
+    private final SignatureCodeDigester   digester;
+    private final SignatureUnlockIndex    unlockIndex;
+    private final SignatureCodeBulkWriter bulkWriter;
+
+    private final GenerationProgress generation = new GenerationProgress();
+
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+    private static final int EXPORT_BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 500;
 
     private String currentLoginId() {
         return (String) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -47,15 +62,6 @@ public class SignatureAdminService {
         if (user.getRole() != UserRole.ROLE_ADMIN) throw new RestApiException(ErrorCode.FORBIDDEN);
     }
 
-    private static String sha256Hex(String s) {
-        try {
-            var md = MessageDigest.getInstance("SHA-256");
-            var digest = md.digest(s.getBytes(StandardCharsets.UTF_8));
-            var sb = new StringBuilder(digest.length * 2);
-            for (byte b : digest) sb.append(String.format("%02x", b));
-            return sb.toString();
-        } catch (Exception e) { throw new IllegalStateException(e); }
-    }
     private static String gen6() {
         int n = ThreadLocalRandom.current().nextInt(0, 1_000_000);
         return String.format("%06d", n);
@@ -82,7 +88,8 @@ public class SignatureAdminService {
                 throw new RestApiException(ErrorCode.BAD_REQUEST, "코드는 6자리 숫자여야 합니다: " + code);
             }
 
-            String digest = sha256Hex(code);
+            String digest = digester.digest(r.getChallengeId(), code);
+            upgradeLegacyDigest(r.getChallengeId(), code, digest);
             var existing = codeRepo.findByChallengeIdAndCodeDigest(r.getChallengeId(), digest);
 
             if (existing.isPresent()) {
@@ -121,69 +128,201 @@ public class SignatureAdminService {
         return count;
     }
 
+    // 같은 코드가 이전 평문 SHA-256 다이제스트로 남아 있으면(활성/소프트삭제 모두) HMAC 다이제스트로 교체
+    private void upgradeLegacyDigest(Long challengeId, String code, String digest) {
+        String legacyDigest = SignatureCodeDigester.legacy(code);
+        codeRepo.findAnyByChallengeIdAndCodeDigest(challengeId, legacyDigest)
+                .ifPresent(legacy -> codeRepo.upgradeDigest(legacy.getId(), legacyDigest, digest));
+    }
+
     // ---------- CSV IMPORT ----------
-    // 헤더: teamName,challengeId,code
-    @Transactional
-    public int importCodesCsv(MultipartFile file) {
+    /*
+     * 헤더: teamName,challengeId,code
+     * - 줄 단위로 읽어 IMPORT_CHUNK_SIZE 마다 병렬 해시 + 배치 저장 (청크마다 커밋)
+     * - 팀 이름/챌린지/기존 다이제스트는 미리 적재한 맵으로 판정 (행마다 조회하지 않음)
+     * - 잘못된 행은 건너뛰고 줄 번호와 사유를 보고, 저장 실패한 청크는 해당 행 전체를 실패로 보고
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SignatureAdminDto.ImportResult importCodesCsv(MultipartFile file) {
         assertAdmin();
-        int imported = 0;
+        long startTime = System.currentTimeMillis();
+
+        Map<String, Long> teamIds = teamRepo.findAll().stream()
+                .collect(Collectors.toMap(TeamEntity::getTeamName, TeamEntity::getTeamId, (a, b) -> a));
+        Set<Long> challengeIds = challengeRepo.findAll().stream()
+                .map(c -> c.getChallengeId())
+                .collect(Collectors.toSet());
+        Map<Long, Map<String, Long>> digestIds = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+
+        ImportState state = new ImportState();
+        List<SignatureCodeBulkWriter.NewCode> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        List<Integer> chunkLines = new ArrayList<>(IMPORT_CHUNK_SIZE);
 
         try (var br = new BufferedReader(
                 new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
 
             String header = br.readLine();
-            if (header == null) return 0;
+            if (header == null) return state.toResult();
 
             String line;
+            int lineNo = 1;
             while ((line = br.readLine()) != null) {
-                var parts = line.split(",", -1);
-                if (parts.length < 3) continue;
+                lineNo++;
+                if (line.isBlank()) continue;
+
+                var parts = parseCsvLine(line);
+                if (parts.size() < 3) {
+                    state.fail(lineNo, "컬럼 수 부족");
+                    continue;
+                }
+                String teamName = parts.get(0).trim();
+                String code     = parts.get(2).trim();
+                Long challengeId;
+                try {
+                    challengeId = Long.parseLong(parts.get(1).trim());
+                } catch (NumberFormatException e) {
+                    state.fail(lineNo, "challengeId 형식 오류: " + parts.get(1));
+                    continue;
+                }
 
-                String teamName  = parts[0].trim();
-                Long challengeId = Long.parseLong(parts[1].trim());
-                String code      = parts[2].trim();
+                Long teamId = teamIds.get(teamName);
+                if (teamId == null) {
+                    state.fail(lineNo, "팀을 찾을 수 없습니다: " + teamName);
+                    continue;
+                }
+                if (!challengeIds.contains(challengeId)) {
+                    state.fail(lineNo, "문제를 찾을 수 없습니다: " + challengeId);
+                    continue;
+                }
+                if (!code.matches("\\d{6}")) {
+                    state.fail(lineNo, "코드는 6자리 숫자여야 합니다: " + code);
+                    continue;
+                }
+                if (!seen.add(challengeId + ":" + code)) {
+                    state.fail(lineNo, "파일 내 중복 코드");
+                    continue;
+                }
 
-                var req = new SignatureAdminDto.UpsertRequest();
-                req.setTeamName(teamName);
-                req.setChallengeId(challengeId);
-                req.setCode(code);
+                // 기존 행(소프트삭제/이전 SHA-256 다이제스트 포함)이 있으면 재사용
+                Map<String, Long> existing = digestIds.computeIfAbsent(challengeId, bulkWriter::loadDigestIds);
+                String digest = digester.digest(challengeId, code);
+                Long existingId = existing.get(digest);
+                if (existingId == null) existingId = existing.get(SignatureCodeDigester.legacy(code));
 
-                imported += upsertCodes(List.of(req));
+                chunk.add(new SignatureCodeBulkWriter.NewCode(challengeId, teamId, code, digest, existingId));
+                chunkLines.add(lineNo);
+                if (chunk.size() >= IMPORT_CHUNK_SIZE) {
+                    flushImportChunk(chunk, chunkLines, state);
+                }
             }
-        } catch (Exception e) {
+            flushImportChunk(chunk, chunkLines, state);
+        } catch (IOException e) {
             throw new RestApiException(ErrorCode.BAD_REQUEST, "CSV 파싱 실패: " + e.getMessage());
         }
-        return imported;
+
+        log.info("관리자: 시그니처 코드 CSV 임포트 성공 {} 건, 실패 {} 건, {}ms",
+                state.imported, state.failed, System.currentTimeMillis() - startTime);
+        return state.toResult();
+    }
+
+    private void flushImportChunk(List<SignatureCodeBulkWriter.NewCode> chunk, List<Integer> lines, ImportState state) {
+        if (chunk.isEmpty()) return;
+        try {
+            state.imported += bulkWriter.write(chunk, done -> {});
+        } catch (RuntimeException e) {
+            log.warn("시그니처 코드 임포트 청크 저장 실패 (line {}~{}): {}", lines.get(0), lines.get(lines.size() - 1), e.getMessage());
+            for (Integer line : lines) {
+                state.fail(line, "저장 실패: " + e.getMessage());
+            }
+        }
+        chunk.clear();
+        lines.clear();
+    }
+
+    private static final class ImportState {
+        int imported;
+        int failed;
+        final List<SignatureAdminDto.RowError> errors = new ArrayList<>();
+
+        void fail(int line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(SignatureAdminDto.RowError.builder().line(line).message(message).build());
+            }
+        }
+
+        SignatureAdminDto.ImportResult toResult() {
+            return SignatureAdminDto.ImportResult.builder()
+                    .imported(imported).failed(failed).errors(errors).build();
+        }
+    }
+
+    // 따옴표로 감싼 필드("a,b", "" 이스케이프) 지원
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cur.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        fields.add(cur.toString());
+        return fields;
     }
 
     // ---------- CSV EXPORT ----------
     // 헤더: teamName,challengeId,teamId,codeDigest,consumed
-    public byte[] exportCodesCsv() {
-        assertAdmin();
-
-        var all = codeRepo.findAll();
+    // 응답 스트림에 id 키셋 배치 단위로 바로 기록 (StreamingResponseBody 스레드에서 호출되므로 권한은 컨트롤러 @PreAuthorize로 확인)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void exportCodesCsv(OutputStream out) throws IOException {
         Map<Long, String> teamNameCache = teamRepo.findAll().stream()
                 .collect(Collectors.toMap(TeamEntity::getTeamId, TeamEntity::getTeamName));
 
-        var sb = new StringBuilder();
-        sb.append("teamName,challengeId,teamId,codeDigest,consumed\n");
-        for (var c : all) {
-            String teamName = c.getAssignedTeamId() == null ? "" : teamNameCache.getOrDefault(c.getAssignedTeamId(), "");
-            sb.append(escape(teamName)).append(',')
-              .append(c.getChallengeId()).append(',')
-              .append(c.getAssignedTeamId() == null ? "" : c.getAssignedTeamId()).append(',')
-              .append(c.getCodeDigest()).append(',')
-              .append(c.isConsumed()).append('\n');
-        }
-        return sb.toString().getBytes(StandardCharsets.UTF_8);
-    }
+        BufferedOutputStream bos = new BufferedOutputStream(out, 64 * 1024);
+        bos.write("teamName,challengeId,teamId,codeDigest,consumed\n".getBytes(StandardCharsets.UTF_8));
 
-    private static String escape(String s) {
-        if (s == null) return "";
-        if (s.contains(",") || s.contains("\"") || s.contains("\n")) {
-            return "\"" + s.replace("\"", "\"\"") + "\"";
+        long afterId = 0;
+        int count = 0;
+        while (true) {
+            List<Object[]> rows = codeRepo.findExportRowsAfter(afterId, PageRequest.of(0, EXPORT_BATCH_SIZE));
+            if (rows.isEmpty()) break;
+
+            for (Object[] row : rows) {
+                Long teamId = (Long) row[2];
+                String teamName = teamId == null ? "" : teamNameCache.getOrDefault(teamId, "");
+                String line = new StringBuilder(128)
+                        .append(CsvUtil.escape(teamName)).append(',')
+                        .append(row[1]).append(',')
+                        .append(teamId == null ? "" : teamId).append(',')
+                        .append(row[3]).append(',')
+                        .append(row[4]).append('\n')
+                        .toString();
+                bos.write(line.getBytes(StandardCharsets.UTF_8));
+            }
+            count += rows.size();
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+            if (rows.size() < EXPORT_BATCH_SIZE) break;
         }
-        return s;
+
+        bos.flush();
+        log.info("관리자: 시그니처 코드 CSV 내보내기 {} 건", count);
     }
 
     // ---------- 코드 풀 조회 ----------
@@ -209,7 +348,8 @@ public class SignatureAdminService {
     }
 
     // ---------- 랜덤 코드 생성 ----------
-    @Transactional
+    // 해시는 트랜잭션 밖에서 병렬 계산, 저장만 SignatureCodeBulkWriter 트랜잭션에서 수행
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public SignatureAdminDto.GenerateResponse generateCodes(SignatureAdminDto.GenerateRequest req) {
         assertAdmin();
 
@@ -223,41 +363,183 @@ public class SignatureAdminService {
                     .getTeamId();
         }
 
-        int toCreate = req.getCount();
-        List<String> plainCodes = new ArrayList<>(toCreate);
-        Set<String> digestsInBatch = new HashSet<>();
-        int attempts = 0, maxAttempts = toCreate * 30;
-
-        while (plainCodes.size() < toCreate && attempts++ < maxAttempts) {
-            String code = gen6();
-            String digest = sha256Hex(code);
-            if (digestsInBatch.contains(digest)) continue;
-
-            // 기존 활성 + 소프트삭제 모두 충돌 회피
-            if (codeRepo.findByChallengeIdAndCodeDigest(ch.getChallengeId(), digest).isPresent()) continue;
-            if (codeRepo.findAnyByChallengeIdAndCodeDigest(ch.getChallengeId(), digest).isPresent()) continue;
-
-            codeRepo.save(SignatureCodeEntity.builder()
-                    .challengeId(ch.getChallengeId())
-                    .codeDigest(digest)
-                    .codeHash(passwordEncoder.encode(code))
-                    .assignedTeamId(assignTeamId)
-                    .consumed(false)
-                    .consumedAt(null)
-                    .build());
-
-            digestsInBatch.add(digest);
-            plainCodes.add(code);
-        }
+        Long teamId = assignTeamId;
+        List<SignatureCodeBulkWriter.NewCode> drawn = runGeneration(req.getCount(), () -> {
+            Set<String> taken = bulkWriter.loadTakenDigests(ch.getChallengeId());
+            List<SignatureCodeBulkWriter.NewCode> out = new ArrayList<>(req.getCount());
+            drawCodes(ch.getChallengeId(), teamId, req.getCount(), taken, out);
+            return out;
+        });
 
         return SignatureAdminDto.GenerateResponse.builder()
                 .challengeId(ch.getChallengeId())
                 .assignedTeamId(assignTeamId)
-                .created(plainCodes.size())
-                .codes(plainCodes)
+                .created(drawn.size())
+                .codes(drawn.stream().map(SignatureCodeBulkWriter.NewCode::code).collect(Collectors.toList()))
+                .build();
+    }
+
+    /*
+     * 여러 챌린지 × 여러 팀 일괄 생성 (예: 10개 클럽 × 300팀)
+     * - 팀/챌린지는 한 번씩만 조회, 챌린지별 기존 다이제스트는 HashSet으로 미리 적재
+     * - 진행 상황은 /codes/generate/progress 로 조회 (동시에 한 작업만 허용)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SignatureAdminDto.BulkGenerateResponse generateCodesBulk(SignatureAdminDto.BulkGenerateRequest req) {
+        assertAdmin();
+        long startTime = System.currentTimeMillis();
+
+        List<Long> challengeIds = req.getChallengeIds().stream().distinct().toList();
+        Set<Long> found = challengeRepo.findAllById(challengeIds).stream()
+                .map(c -> c.getChallengeId())
+                .collect(Collectors.toSet());
+        for (Long id : challengeIds) {
+            if (!found.contains(id)) throw new RestApiException(ErrorCode.CHALLENGE_NOT_FOUND);
+        }
+
+        Map<String, TeamEntity> teamsByName = teamRepo.findAll().stream()
+                .collect(Collectors.toMap(TeamEntity::getTeamName, t -> t, (a, b) -> a));
+        List<TeamEntity> teams;
+        if (req.getTeamNames() == null || req.getTeamNames().isEmpty()) {
+            teams = new ArrayList<>(teamsByName.values());
+        } else {
+            teams = new ArrayList<>();
+            for (String name : new LinkedHashSet<>(req.getTeamNames())) {
+                TeamEntity team = teamsByName.get(name.trim());
+                if (team == null) throw new RestApiException(ErrorCode.TEAM_NOT_FOUND, "팀을 찾을 수 없습니다: " + name);
+                teams.add(team);
+            }
+        }
+        if (teams.isEmpty()) throw new RestApiException(ErrorCode.TEAM_NOT_FOUND);
+
+        int total = challengeIds.size() * teams.size() * req.getCountPerTeam();
+        List<SignatureCodeBulkWriter.NewCode> drawn = runGeneration(total, () -> {
+            List<SignatureCodeBulkWriter.NewCode> out = new ArrayList<>(total);
+            for (Long challengeId : challengeIds) {
+                Set<String> taken = bulkWriter.loadTakenDigests(challengeId);
+                for (TeamEntity team : teams) {
+                    drawCodes(challengeId, team.getTeamId(), req.getCountPerTeam(), taken, out);
+                }
+            }
+            return out;
+        });
+
+        Map<Long, String> teamNames = teams.stream()
+                .collect(Collectors.toMap(TeamEntity::getTeamId, TeamEntity::getTeamName));
+        long elapsedMs = System.currentTimeMillis() - startTime;
+        log.info("관리자: 시그니처 코드 일괄 생성 {} 건 (챌린지 {}개 × 팀 {}개), {}ms",
+                drawn.size(), challengeIds.size(), teams.size(), elapsedMs);
+
+        return SignatureAdminDto.BulkGenerateResponse.builder()
+                .created(drawn.size())
+                .elapsedMs(elapsedMs)
+                .codes(drawn.stream()
+                        .map(c -> SignatureAdminDto.GeneratedCode.builder()
+                                .challengeId(c.challengeId())
+                                .teamId(c.teamId())
+                                .teamName(teamNames.get(c.teamId()))
+                                .code(c.code())
+                                .build())
+                        .collect(Collectors.toList()))
                 .build();
     }
 
+    public SignatureAdminDto.GenerateProgress generateProgress() {
+        assertAdmin();
+        return generation.snapshot();
+    }
+
+    // 챌린지 하나에 대해 중복 없는 평문 코드를 count개 뽑아 out에 추가 (taken 은 뽑은 코드로 갱신)
+    private void drawCodes(Long challengeId, Long teamId, int count, Set<String> taken,
+                           List<SignatureCodeBulkWriter.NewCode> out) {
+        int created = 0, attempts = 0, maxAttempts = count * 30;
+        while (created < count && attempts++ < maxAttempts) {
+            String code = gen6();
+            String digest = digester.digest(challengeId, code);
+            if (SignatureCodeBulkWriter.isTaken(taken, digest, code)) continue;
+
+            taken.add(digest);
+            out.add(new SignatureCodeBulkWriter.NewCode(challengeId, teamId, code, digest));
+            created++;
+        }
+        if (created < count) {
+            log.warn("시그니처 코드 생성 부족: challengeId={}, teamId={}, 요청={}, 생성={}", challengeId, teamId, count, created);
+        }
+    }
+
+    // 코드 추첨 → 병렬 해시 → 배치 저장, 진행 상황 기록
+    private List<SignatureCodeBulkWriter.NewCode> runGeneration(
+            int expected, Supplier<List<SignatureCodeBulkWriter.NewCode>> draw) {
+        if (!generation.start(expected)) {
+            throw new RestApiException(ErrorCode.BAD_REQUEST, "이미 코드 생성 작업이 진행 중입니다.");
+        }
+        try {
+            List<SignatureCodeBulkWriter.NewCode> drawn = draw.get();
+            generation.begin(drawn.size());
+            bulkWriter.write(drawn, generation::progress);
+            generation.finish("DONE");
+            return drawn;
+        } catch (RuntimeException e) {
+            generation.finish("FAILED");
+            throw e;
+        }
+    }
+
+    // 대량 생성 진행 상황 (인스턴스 로컬, 동시에 한 작업만)
+    private static final class GenerationProgress {
+        private final AtomicBoolean running = new AtomicBoolean();
+        private volatile String phase = "DONE";
+        private volatile int done;
+        private volatile int total;
+        private volatile int lastLoggedPercent;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+
+        boolean start(int expected) {
+            if (!running.compareAndSet(false, true)) return false;
+            phase = "PREPARE";
+            done = 0;
+            total = expected * 2;
+            lastLoggedPercent = 0;
+            startedAt = LocalDateTime.now();
+            finishedAt = null;
+            return true;
+        }
+
+        void begin(int codes) {
+            total = codes * 2;
+            phase = "HASH";
+        }
+
+        void progress(int value) {
+            done = value;
+            int half = total / 2;
+            if (value > half) phase = "INSERT";
+            int percent = total == 0 ? 100 : (int) ((long) value * 100 / total);
+            if (percent / 10 > lastLoggedPercent / 10) {
+                lastLoggedPercent = percent;
+                log.info("시그니처 코드 생성 진행: {} {}/{} ({}%)", phase, value, total, percent);
+            }
+        }
+
+        void finish(String result) {
+            phase = result;
+            finishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+
+        SignatureAdminDto.GenerateProgress snapshot() {
+            return SignatureAdminDto.GenerateProgress.builder()
+                    .running(running.get())
+                    .phase(phase)
+                    .done(done)
+                    .total(total)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+
     // ---------- 코드 재배정/소비상태 초기화 ----------
     @Transactional
     public void reassign(SignatureAdminDto.ReassignRequest req) {
@@ -310,13 +592,7 @@ public class SignatureAdminService {
                 .orElseThrow(() -> new RestApiException(ErrorCode.TEAM_NOT_FOUND));
         Long teamId = team.getTeamId();
 
-        boolean exists = unlockRepo.existsByTeamIdAndChallengeId(teamId, challengeId);
-        if (!exists) {
-            unlockRepo.save(TeamSignatureUnlockEntity.builder()
-                    .teamId(teamId)
-                    .challengeId(challengeId)
-                    .unlockedAt(LocalDateTime.now())
-                    .build());
-        }
+        unlockRepo.upsertUnlock(teamId, challengeId, LocalDateTime.now());
+        unlockIndex.markUnlocked(teamId, challengeId);
     }
 }
@@ -0,0 +1,210 @@
+package com.mjsec.ctf.service;
+
+import com.mjsec.ctf.repository.SignatureCodeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/*
+ * 시그니처 코드 대량 생성/임포트 공용 처리
+ * - 챌린지의 기존 다이제스트(소프트삭제 포함)를 한 번에 읽어 메모리에서 중복 판정 (코드마다 존재 확인 쿼리 없음)
+ * - BCrypt 해시는 전용 ForkJoinPool에서 병렬 계산 (공용 풀/요청 스레드 풀을 점유하지 않음)
+ * - INSERT/UPDATE는 JdbcTemplate 배치로 전송 (IDENTITY 키라 Hibernate 배치가 동작하지 않음,
+ *   rewriteBatchedStatements=true 이므로 INSERT는 배치마다 다중 행 INSERT 한 번)
+ */
+@Slf4j
+@Component
+public class SignatureCodeBulkWriter {
+
+    public static final int INSERT_BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO signature_code
+            (challenge_id, code_digest, code_hash, assigned_team_id, consumed, consumed_at, created_at, updated_at)
+        VALUES (?, ?, ?, ?, 0, NULL, ?, ?)
+        """;
+
+    // 기존 행(소프트삭제 포함) 재사용: 복구 + 재배정 + 해시 갱신 + 소비 초기화 (+ 이전 다이제스트 교체)
+    private static final String RESET_SQL = """
+        UPDATE signature_code
+           SET code_digest      = ?,
+               code_hash        = ?,
+               assigned_team_id = ?,
+               consumed         = 0,
+               consumed_at      = NULL,
+               deleted_at       = NULL,
+               updated_at       = ?
+         WHERE id = ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final SignatureCodeRepository codeRepo;
+    private final TransactionTemplate transactionTemplate;
+    // JPA와 같은 시간대로 시각을 기록 (hibernate.jdbc.time_zone)
+    private final TimeZone jdbcTimeZone;
+    private final ForkJoinPool hashPool =
+            new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+    public SignatureCodeBulkWriter(JdbcTemplate jdbcTemplate,
+                                   PasswordEncoder passwordEncoder,
+                                   SignatureCodeRepository codeRepo,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${spring.jpa.properties.hibernate.jdbc.time_zone:}") String jdbcTimeZone) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.codeRepo = codeRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTimeZone = jdbcTimeZone.isBlank() ? TimeZone.getDefault() : TimeZone.getTimeZone(jdbcTimeZone);
+    }
+
+    // 저장 대기 코드 (digest: HMAC 다이제스트, teamId: null이면 미배정, existingId: 재사용할 기존 행 id 또는 null)
+    public record NewCode(Long challengeId, Long teamId, String code, String digest, Long existingId) {
+
+        public NewCode(Long challengeId, Long teamId, String code, String digest) {
+            this(challengeId, teamId, code, digest, null);
+        }
+    }
+
+    private record HashedCode(NewCode code, String hash) {}
+
+    // 챌린지에 이미 쓰인 다이제스트 (활성 + 소프트삭제, 이전 SHA-256 다이제스트 포함)
+    public Set<String> loadTakenDigests(Long challengeId) {
+        return new HashSet<>(loadDigestIds(challengeId).keySet());
+    }
+
+    // 다이제스트 → 행 id (활성 + 소프트삭제)
+    public Map<String, Long> loadDigestIds(Long challengeId) {
+        Map<String, Long> result = new HashMap<>();
+        for (Object[] row : codeRepo.findDigestIdsIncludingDeleted(challengeId)) {
+            result.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return result;
+    }
+
+    // 평문 코드가 이미 쓰였는지 (HMAC/이전 SHA-256 다이제스트 모두 확인)
+    public static boolean isTaken(Set<String> takenDigests, String digest, String code) {
+        return takenDigests.contains(digest) || takenDigests.contains(SignatureCodeDigester.legacy(code));
+    }
+
+    /*
+     * 병렬 해시 후 한 트랜잭션에서 배치 INSERT/UPDATE
+     * - 해시는 트랜잭션 밖에서 끝나야 커넥션을 오래 잡지 않으므로 호출 측은 트랜잭션 없이 호출
+     * - progress: 해시/저장 완료 건수 누적 콜백 (해시 n건 + 저장 n건 = 2n)
+     */
+    public int write(List<NewCode> codes, IntConsumer progress) {
+        if (codes.isEmpty()) {
+            return 0;
+        }
+        List<HashedCode> hashed = hashAll(codes, progress);
+        transactionTemplate.executeWithoutResult(status -> insertAll(hashed, codes.size(), progress));
+        return hashed.size();
+    }
+
+    private List<HashedCode> hashAll(List<NewCode> codes, IntConsumer progress) {
+        AtomicInteger done = new AtomicInteger();
+        try {
+            // ForkJoinPool 안에서 시작한 parallelStream은 해당 풀의 워커로 실행됨
+            return hashPool.submit(() -> codes.parallelStream()
+                    .map(c -> {
+                        HashedCode h = new HashedCode(c, passwordEncoder.encode(c.code()));
+                        progress.accept(done.incrementAndGet());
+                        return h;
+                    })
+                    .toList()
+            ).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("코드 해시 중단", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("코드 해시 실패", e.getCause());
+        }
+    }
+
+    private void insertAll(List<HashedCode> rows, int offset, IntConsumer progress) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Calendar calendar = Calendar.getInstance(jdbcTimeZone);
+
+        List<HashedCode> inserts = new ArrayList<>(rows.size());
+        List<HashedCode> resets = new ArrayList<>();
+        for (HashedCode row : rows) {
+            (row.code().existingId() == null ? inserts : resets).add(row);
+        }
+
+        int written = 0;
+        for (int from = 0; from < resets.size(); from += INSERT_BATCH_SIZE) {
+            List<HashedCode> chunk = resets.subList(from, Math.min(from + INSERT_BATCH_SIZE, resets.size()));
+            jdbcTemplate.batchUpdate(RESET_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    HashedCode row = chunk.get(i);
+                    ps.setString(1, row.code().digest());
+                    ps.setString(2, row.hash());
+                    setTeamId(ps, 3, row.code().teamId());
+                    ps.setTimestamp(4, now, calendar);
+                    ps.setLong(5, row.code().existingId());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return chunk.size();
+                }
+            });
+            written += chunk.size();
+            progress.accept(offset + written);
+        }
+
+        for (int from = 0; from < inserts.size(); from += INSERT_BATCH_SIZE) {
+            List<HashedCode> chunk = inserts.subList(from, Math.min(from + INSERT_BATCH_SIZE, inserts.size()));
+            jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    HashedCode row = chunk.get(i);
+                    ps.setLong(1, row.code().challengeId());
+                    ps.setString(2, row.code().digest());
+                    ps.setString(3, row.hash());
+                    setTeamId(ps, 4, row.code().teamId());
+                    ps.setTimestamp(5, now, calendar);
+                    ps.setTimestamp(6, now, calendar);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return chunk.size();
+                }
+            });
+            written += chunk.size();
+            progress.accept(offset + written);
+        }
+    }
+
+    private static void setTeamId(PreparedStatement ps, int index, Long teamId) throws SQLException {
+        if (teamId == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, teamId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdownNow();
+    }
+}
@@ -0,0 +1,56 @@
+package com.mjsec.ctf.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/*
+ * 시그니처 코드 조회용 다이제스트
+ * - HMAC-SHA256(서버 비밀키, "challengeId:code") hex 64자 → code_digest 컬럼 길이 그대로 사용
+ * - 6자리 코드는 평문 SHA-256이면 100만 번 대입으로 역산되지만, 키를 모르면 다이제스트만으로는 역산 불가
+ *   → 다이제스트 일치 자체가 검증이므로 BCrypt 재검증이 필요 없음
+ * - 전용 비밀키(SIGNATURE_HMAC_SECRET) 필수, 없으면 기동 실패 (인스턴스 간 동일해야 함)
+ *   → JWT 비밀키와 공유하지 않음: 한쪽이 유출/교체되어도 다른 쪽에 영향이 없도록
+ * - legacy(): 이전 버전이 저장한 평문 SHA-256 다이제스트 (사용 시 HMAC으로 교체)
+ */
+@Component
+public class SignatureCodeDigester {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public SignatureCodeDigester(@Value("${signature.hmac-secret:}") String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("signature.hmac-secret (SIGNATURE_HMAC_SECRET) must be set");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    public String digest(Long challengeId, String code) {
+        try {
+            // Mac은 스레드 안전하지 않으므로 호출마다 생성 (init 비용은 해시 1회 수준)
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] out = mac.doFinal((challengeId + ":" + code).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(out);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String legacy(String code) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(code.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -7,18 +7,13 @@ import com.mjsec.ctf.repository.*;
 import com.mjsec.ctf.type.ErrorCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.time.LocalDateTime;
-import java.util.HexFormat;
-import java.util.concurrent.TimeUnit;
+import java.util.List;
 
 @Slf4j
 @Service
@@ -30,23 +25,20 @@ public class SignatureService {
     private final TeamSignatureUnlockRepository unlockRepo;
     private final UserRepository userRepo;
     private final ChallengeRepository challengeRepo;
-    private final RedissonClient redisson;
     private final PasswordEncoder passwordEncoder;
+    private final SignatureCodeDigester digester;
+    private final SignatureUnlockIndex unlockIndex;
 
     private String currentLoginId() {
         return (String) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
     }
 
-    private static String sha256Hex(String s) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            return HexFormat.of().formatHex(md.digest(s.getBytes(StandardCharsets.UTF_8)));
-        } catch (Exception e) {
-            throw new IllegalStateException(e);
-        }
-    }
-
-    /** 코드 검증 + 언락(없으면 생성) + 코드 1회성 소비 */
+    /*
+     * 코드 검증 + 언락(없으면 생성) + 코드 1회성 소비
+     * - 분산락 대신 조건부 UPDATE 한 번으로 소비(compare-and-set): 동시 요청 중 하나만 1행 갱신
+     * - HMAC 다이제스트 일치가 곧 검증이므로 BCrypt 재검증 없음 (이전 SHA-256 코드만 최초 1회 BCrypt 후 교체)
+     * - 이미 언락된 팀은 인메모리 인덱스에서 바로 응답
+     */
     @Transactional
     public SignatureDto.CheckResponse checkAndUnlock(Long challengeId, SignatureDto.Request req) {
         var ch = challengeRepo.findById(challengeId)
@@ -63,58 +55,64 @@ public class SignatureService {
         Long teamId = user.getCurrentTeamId();
 
         // 이미 언락되어 있으면 OK
-        if (unlockRepo.existsByTeamIdAndChallengeId(teamId, challengeId)) {
-            return SignatureDto.CheckResponse.builder()
-                    .valid(true).unlocked(true).teamId(teamId).challengeId(challengeId).build();
+        if (unlockIndex.isUnlocked(teamId, challengeId)) {
+            return unlockedResponse(teamId, challengeId);
         }
 
         String rawCode = req.getSignature().trim();
-        String digest  = sha256Hex(rawCode);
-
-        // 코드별 분산락
-        String lockKey = "sig:" + challengeId + ":" + digest;
-        RLock lock = redisson.getLock(lockKey);
-        boolean locked = false;
-        try {
-            locked = lock.tryLock(3, 10, TimeUnit.SECONDS);
-            if (!locked) throw new RestApiException(ErrorCode.BAD_REQUEST, "잠시 후 다시 시도해주세요.");
-
-            var code = codeRepo.findByChallengeIdAndCodeDigest(challengeId, digest)
-                    .orElseThrow(() -> new RestApiException(ErrorCode.INVALID_SIGNATURE));
-
-            // 해시 재검증
-            if (!passwordEncoder.matches(rawCode, code.getCodeHash()))
-                throw new RestApiException(ErrorCode.INVALID_SIGNATURE);
-
-            // 배정된 코드는 해당 팀만 사용 가능
-            if (code.getAssignedTeamId() != null && !code.getAssignedTeamId().equals(teamId))
-                throw new RestApiException(ErrorCode.INVALID_SIGNATURE);
-
-            // 최초 소비 처리(미소비 상태라면)
-            if (!code.isConsumed()) {
-                // 미배정 코드면 최초 소비 팀으로 귀속
-                if (code.getAssignedTeamId() == null) code.setAssignedTeamId(teamId);
-                code.setConsumed(true);
-                code.setConsumedAt(LocalDateTime.now());
-                codeRepo.save(code);
-            }
-
-            // 팀×문제 언락 기록
-            if (!unlockRepo.existsByTeamIdAndChallengeId(teamId, challengeId)) {
-                unlockRepo.save(TeamSignatureUnlockEntity.builder()
-                        .teamId(teamId).challengeId(challengeId)
-                        .unlockedAt(LocalDateTime.now()).build());
-            }
-
-            return SignatureDto.CheckResponse.builder()
-                    .valid(true).unlocked(true).teamId(teamId).challengeId(challengeId).build();
-
-        } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
-            throw new RestApiException(ErrorCode.BAD_REQUEST, "잠시 후 다시 시도해주세요.");
-        } finally {
-            if (locked && lock.isHeldByCurrentThread()) lock.unlock();
+        String digest  = digester.digest(challengeId, rawCode);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (!consume(challengeId, rawCode, digest, teamId, now)) {
+            throw new RestApiException(ErrorCode.INVALID_SIGNATURE);
+        }
+
+        // 팀×문제 언락 기록 (중복/소프트삭제 행은 UPSERT로 처리)
+        unlockRepo.upsertUnlock(teamId, challengeId, now);
+        unlockIndex.markUnlocked(teamId, challengeId);
+
+        return unlockedResponse(teamId, challengeId);
+    }
+
+    // 코드가 우리 팀 것으로 소비되었으면(이번에 소비했거나 이전에 우리 팀이 소비) true
+    private boolean consume(Long challengeId, String rawCode, String digest, Long teamId, LocalDateTime now) {
+        if (codeRepo.consumeIfAvailable(challengeId, digest, teamId, now) == 1) {
+            return true;
+        }
+        Boolean owned = ownedBy(challengeId, digest, teamId);
+        if (owned != null) {
+            return owned;
         }
+
+        // 이전 평문 SHA-256 다이제스트로 저장된 코드 → BCrypt 검증 후 HMAC 다이제스트로 교체하고 다시 소비
+        String legacyDigest = SignatureCodeDigester.legacy(rawCode);
+        var legacy = codeRepo.findByChallengeIdAndCodeDigest(challengeId, legacyDigest);
+        if (legacy.isEmpty() || !passwordEncoder.matches(rawCode, legacy.get().getCodeHash())) {
+            return false;
+        }
+        // 0이면 다른 요청이 먼저 교체한 것 → 어느 쪽이든 이후는 HMAC 다이제스트로 판정
+        if (codeRepo.upgradeDigest(legacy.get().getId(), legacyDigest, digest) == 1) {
+            log.info("시그니처 코드 다이제스트 교체: codeId={}, challengeId={}", legacy.get().getId(), challengeId);
+        }
+        if (codeRepo.consumeIfAvailable(challengeId, digest, teamId, now) == 1) {
+            return true;
+        }
+        return Boolean.TRUE.equals(ownedBy(challengeId, digest, teamId));
+    }
+
+    // 조건부 소비 실패 원인 판별: null = 없는 코드, false = 다른 팀 코드, true = 이미 우리 팀이 소비한 코드
+    private Boolean ownedBy(Long challengeId, String digest, Long teamId) {
+        List<Object[]> owner = codeRepo.findOwnerForUpdate(challengeId, digest);
+        if (owner.isEmpty()) {
+            return null;
+        }
+        Object assigned = owner.get(0)[1];
+        return assigned != null && teamId.equals(((Number) assigned).longValue());
+    }
+
+    private static SignatureDto.CheckResponse unlockedResponse(Long teamId, Long challengeId) {
+        return SignatureDto.CheckResponse.builder()
+                .valid(true).unlocked(true).teamId(teamId).challengeId(challengeId).build();
     }
 
     public SignatureDto.StatusResponse status(Long challengeId) {
@@ -129,7 +127,7 @@ public class SignatureService {
                 .orElseThrow(() -> new RestApiException(ErrorCode.USER_NOT_FOUND));
         if (user.getCurrentTeamId() == null) throw new RestApiException(ErrorCode.MUST_BE_BELONG_TEAM);
 
-        boolean unlocked = unlockRepo.existsByTeamIdAndChallengeId(user.getCurrentTeamId(), challengeId);
+        boolean unlocked = unlockIndex.isUnlocked(user.getCurrentTeamId(), challengeId);
         return SignatureDto.StatusResponse.builder()
                 .unlocked(unlocked).teamId(user.getCurrentTeamId()).challengeId(challengeId).build();
     }
@@ -0,0 +1,269 @@
+package com.mjsec.ctf.service;
+
+import com.mjsec.ctf.repository.TeamSignatureUnlockRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * 팀별 시그니처 언락 인덱스 (팀 ID → 언락한 문제 ID 집합)
+ * - 기동 시 team_signature_unlock 전체를 한 번 적재, 이후 언락/삭제 트랜잭션 커밋 후 반영
+ * - 집합은 게시 후 수정하지 않음(변경 시 복제 후 교체) → 조회는 락 없이 O(1), 접근 검사에 DB 조회 없음
+ * - 인스턴스 간 복제: 변경마다 Redis 버전을 올리고 같은 버전과 함께 Redis 채널로 발행 → 다른 인스턴스가 즉시 반영
+ *   메시지 유실/순서 뒤바뀜은 버전 차이로 감지해 주기적으로 DB에서 재구성
+ * - 원본은 테이블: 초기화 전에는 DB로 조회하고, 인증 경로는 인덱스에 없으면 조건부 UPDATE/UPSERT 로 진행
+ * - Redis 에 닿지 않는 동안은 마지막 스냅샷(+ 이 인스턴스의 변경)을 유지하고 동기화 확인 간격을 늘림 (RedisSyncBackoff)
+ */
+@Slf4j
+@Component
+public class SignatureUnlockIndex {
+
+    private static final String VERSION_KEY = "signature_unlock:index:version";
+    private static final String CHANNEL = "signature_unlock:index:events";
+
+    private static final String OP_UNLOCK = "U";
+    private static final String OP_REMOVE_CHALLENGE = "C";
+
+    private final TeamSignatureUnlockRepository unlockRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedissonClient redissonClient;
+
+    // 자기 인스턴스가 발행한 메시지 식별용
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile Map<Long, Set<Long>> unlocked = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+    // 마지막으로 반영한 Redis 버전 (다르면 재구성)
+    private volatile long localVersion = -1;
+    // Redis 장애 시 동기화 확인 간격 늘림
+    private final RedisSyncBackoff syncBackoff = new RedisSyncBackoff();
+
+    // 재구성/반영 직렬화 (ReentrantLock: 락을 쥔 채 DB 조회·Redis 발행을 기다려도 가상 스레드 고정 없음)
+    private final ReentrantLock lock = new ReentrantLock();
+    private RTopic topic;
+    private int listenerId = -1;
+
+    public SignatureUnlockIndex(TeamSignatureUnlockRepository unlockRepository,
+                                RedisTemplate<String, String> redisTemplate,
+                                RedissonClient redissonClient) {
+        this.unlockRepository = unlockRepository;
+        this.redisTemplate = redisTemplate;
+        this.redissonClient = redissonClient;
+    }
+
+    // ---------- 조회 ----------
+    public boolean isUnlocked(Long teamId, Long challengeId) {
+        if (teamId == null || challengeId == null) {
+            return false;
+        }
+        if (!ready) {
+            return unlockRepository.existsByTeamIdAndChallengeId(teamId, challengeId);
+        }
+        return unlocked.getOrDefault(teamId, Set.of()).contains(challengeId);
+    }
+
+    public Set<Long> getUnlockedChallengeIds(Long teamId) {
+        if (teamId == null) {
+            return Collections.emptySet();
+        }
+        if (!ready) {
+            Set<Long> result = new HashSet<>();
+            unlockRepository.findByTeamId(teamId).forEach(u -> result.add(u.getChallengeId()));
+            return result;
+        }
+        return unlocked.getOrDefault(teamId, Set.of());
+    }
+
+    // ---------- 변경 (언락 트랜잭션 커밋 후 반영 + 다른 인스턴스로 발행) ----------
+    public void markUnlocked(Long teamId, Long challengeId) {
+        afterCommit(OP_UNLOCK, teamId, challengeId);
+    }
+
+    public void removeChallenge(Long challengeId) {
+        afterCommit(OP_REMOVE_CHALLENGE, 0L, challengeId);
+    }
+
+    private void applyUnlock(Long teamId, Long challengeId) {
+        unlocked.compute(teamId, (id, old) -> {
+            if (old != null && old.contains(challengeId)) {
+                return old;
+            }
+            Set<Long> next = old == null ? new HashSet<>() : new HashSet<>(old);
+            next.add(challengeId);
+            return Collections.unmodifiableSet(next);
+        });
+    }
+
+    private void applyRemoveChallenge(Long challengeId) {
+        unlocked.replaceAll((teamId, old) -> {
+            if (!old.contains(challengeId)) {
+                return old;
+            }
+            Set<Long> next = new HashSet<>(old);
+            next.remove(challengeId);
+            return Collections.unmodifiableSet(next);
+        });
+    }
+
+    private void applyOp(String op, Long teamId, Long challengeId) {
+        if (OP_UNLOCK.equals(op)) {
+            applyUnlock(teamId, challengeId);
+        } else if (OP_REMOVE_CHALLENGE.equals(op)) {
+            applyRemoveChallenge(challengeId);
+        }
+    }
+
+    // ---------- 재구성 / 복제 ----------
+    @PostConstruct
+    public void subscribe() {
+        try {
+            topic = redissonClient.getTopic(CHANNEL, StringCodec.INSTANCE);
+            listenerId = topic.addListener(String.class, (channel, message) -> onRemoteEvent(message));
+        } catch (Exception e) {
+            // 구독 실패 시에도 주기적 버전 비교로 동기화됨
+            log.warn("[SignatureUnlockIndex] 채널 구독 실패: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (topic != null && listenerId >= 0) {
+            topic.removeListener(listenerId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.lock();
+        try {
+            long startTime = System.currentTimeMillis();
+            // 조회 전에 버전을 읽어 두어, 조회 중 다른 곳에서 바뀌면 다음 동기화에서 다시 재구성되게 함
+            // Redis 장애로 버전을 모르면 -1 로 두어, 복구 후 첫 동기화에서 다시 맞춤
+            Long version = readRemoteVersion();
+
+            Map<Long, Set<Long>> building = new HashMap<>();
+            List<Object[]> pairs = unlockRepository.findAllTeamChallengePairs();
+            for (Object[] row : pairs) {
+                building.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]);
+            }
+
+            Map<Long, Set<Long>> fresh = new ConcurrentHashMap<>();
+            building.forEach((teamId, ids) -> fresh.put(teamId, Collections.unmodifiableSet(ids)));
+            unlocked = fresh;
+            localVersion = version == null ? -1 : version;
+            ready = true;
+            log.info("[SignatureUnlockIndex] 적재 완료: teams={}, unlocks={}, {}ms",
+                    fresh.size(), pairs.size(), System.currentTimeMillis() - startTime);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 메시지 유실(구독 끊김 등) 대비: 원격 버전과 다르면 재구성
+    @Scheduled(fixedDelay = 3000)
+    public void syncIfStale() {
+        if (!ready || syncBackoff.isWaiting()) {
+            return;
+        }
+        Long remote = readRemoteVersion();
+        if (remote == null) {
+            // Redis 에 닿지 않으면 비교할 수 없으므로 마지막 스냅샷 유지
+            long delay = syncBackoff.failed();
+            log.debug("[SignatureUnlockIndex] Redis 버전 조회 실패, {}ms 후 재시도", delay);
+            return;
+        }
+        syncBackoff.succeeded();
+        if (localVersion < 0 || remote != localVersion) {
+            log.debug("[SignatureUnlockIndex] 원격 변경 감지: local={}, remote={}", localVersion, remote);
+            rebuild();
+        }
+    }
+
+    // 메시지 형식: nodeId|version|op|teamId|challengeId
+    private void onRemoteEvent(String message) {
+        lock.lock();
+        try {
+            String[] parts = message.split("\\|");
+            if (parts.length != 5 || nodeId.equals(parts[0]) || !ready) {
+                return;
+            }
+            long version = Long.parseLong(parts[1]);
+            applyOp(parts[2], Long.parseLong(parts[3]), Long.parseLong(parts[4]));
+            // 순서대로 도착했을 때만 버전을 따라감 (건너뛴 버전이 있으면 다음 동기화에서 재구성)
+            if (version == localVersion + 1) {
+                localVersion = version;
+            }
+        } catch (Exception e) {
+            log.warn("[SignatureUnlockIndex] 원격 변경 반영 실패, 재구성 예정: {}", e.getMessage());
+            localVersion = -1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void afterCommit(String op, Long teamId, Long challengeId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(op, teamId, challengeId);
+                }
+            });
+        } else {
+            apply(op, teamId, challengeId);
+        }
+    }
+
+    // 재구성과 같은 락으로 직렬화: 재구성 도중 커밋된 변경이 교체 전 맵에만 반영되어 유실되는 것을 막음
+    private void apply(String op, Long teamId, Long challengeId) {
+        lock.lock();
+        try {
+            applyOp(op, teamId, challengeId);
+            try {
+                Long next = redisTemplate.opsForValue().increment(VERSION_KEY);
+                if (next == null) {
+                    return;
+                }
+                // 자기 변경 직후 버전이 정확히 +1이면 다른 인스턴스 변경이 없었던 것이므로 로컬 버전만 올림
+                if (next == localVersion + 1) {
+                    localVersion = next;
+                }
+                if (topic != null) {
+                    topic.publishAsync(nodeId + "|" + next + "|" + op + "|" + teamId + "|" + challengeId);
+                }
+            } catch (Exception e) {
+                log.debug("[SignatureUnlockIndex] 변경 발행 실패: {}", e.getMessage());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 반환: 원격 버전, Redis 장애 시 null
+    private Long readRemoteVersion() {
+        try {
+            String value = redisTemplate.opsForValue().get(VERSION_KEY);
+            return value == null ? 0L : Long.parseLong(value);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
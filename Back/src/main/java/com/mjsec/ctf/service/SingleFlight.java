@@ -0,0 +1,71 @@
+package com.mjsec.ctf.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/*
+ * 동일 조회 요청 합치기 (single-flight)
+ * - 같은 키(조회 이름 + 범위)로 동시에 들어온 조회는 먼저 온 요청 1건만 실제로 실행하고 나머지는 그 결과를 함께 받음
+ *   → 대회 시작/스코어보드 갱신/캐시 무효화 직후 같은 쿼리가 한꺼번에 DB 로 몰리는 것 방지
+ * - 결과를 저장하지 않음: 실행이 끝나면 키를 지우므로 이후 요청은 다시 조회 (캐시가 아니라 동시 실행만 합침)
+ * - 실행 중 예외는 기다리던 요청에도 같은 예외로 전달
+ * - 결과 객체를 여러 요청이 공유하므로 호출 측에서 수정하지 않아야 함
+ * - 지표: ctf.singleflight.calls{name, role=leader|shared}
+ */
+@Component
+public class SingleFlight {
+
+    private final ContestMetrics contestMetrics;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlight(ContestMetrics contestMetrics) {
+        this.contestMetrics = contestMetrics;
+    }
+
+    public <T> T execute(String name, Supplier<T> loader) {
+        return execute(name, "", loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Object scope, Supplier<T> loader) {
+        String key = name + ':' + scope;
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            contestMetrics.singleFlight(name, true);
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                throw rethrow(e.getCause());
+            }
+        }
+
+        contestMetrics.singleFlight(name, false);
+        try {
+            T result = loader.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException re) {
+            return re;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new CompletionException(cause);
+    }
+}
@@ -0,0 +1,442 @@
+package com.mjsec.ctf.service;
+
+import com.mjsec.ctf.domain.ChallengeEntity;
+import com.mjsec.ctf.domain.HistoryEntity;
+import com.mjsec.ctf.domain.TeamEntity;
+import com.mjsec.ctf.domain.TeamHistoryEntity;
+import com.mjsec.ctf.domain.UserEntity;
+import com.mjsec.ctf.dto.RevocationReportDto;
+import com.mjsec.ctf.exception.RestApiException;
+import com.mjsec.ctf.repository.ChallengeRepository;
+import com.mjsec.ctf.repository.HistoryRepository;
+import com.mjsec.ctf.repository.TeamHistoryRepository;
+import com.mjsec.ctf.repository.TeamRepository;
+import com.mjsec.ctf.repository.TeamSolveRepository;
+import com.mjsec.ctf.repository.UserRepository;
+import com.mjsec.ctf.type.ChallengeCategory;
+import com.mjsec.ctf.type.ErrorCode;
+import com.mjsec.ctf.type.MileageReason;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/*
+ * 제출 기록 철회 엔진
+ * - 전체 팀 재계산(recalculateAllTeamPoints) 대신 실제로 영향받는 팀만 갱신
+ *   · 철회 대상 팀: 문제 제거 + 점수/마일리지(퍼스트 블러드 보너스 포함) 차감
+ *   · 해당 문제를 푼 다른 팀: 다이나믹 스코어 변동분(delta)만 반영
+ * - 퍼스트 블러드 판정/이전은 인덱스 기반 "가장 빠른 풀이" 조회 1회씩으로 처리
+ * - 사용자 전체 철회/팀 삭제는 집합 단위 SQL(IN 삭제, GROUP BY 집계)과
+ *   영향받은 문제/팀에 대한 단일 점수 반영 패스로 처리하고 변경 내역을 리포트로 반환
+ */
+@Slf4j
+@Service
+public class SolveRevocationService {
+
+    private final ChallengeRepository challengeRepository;
+    private final HistoryRepository historyRepository;
+    private final TeamHistoryRepository teamHistoryRepository;
+    private final TeamRepository teamRepository;
+    private final UserRepository userRepository;
+    private final TeamSolveRepository teamSolveRepository;
+    private final TeamSolveMatrix teamSolveMatrix;
+    private final TeamHistoryReadModel teamHistoryReadModel;
+    private final MileageLedgerService mileageLedgerService;
+    private final ChallengeService challengeService;
+
+    public SolveRevocationService(ChallengeRepository challengeRepository,
+                                  HistoryRepository historyRepository,
+                                  TeamHistoryRepository teamHistoryRepository,
+                                  TeamRepository teamRepository,
+                                  UserRepository userRepository,
+                                  TeamSolveRepository teamSolveRepository,
+                                  TeamSolveMatrix teamSolveMatrix,
+                                  TeamHistoryReadModel teamHistoryReadModel,
+                                  MileageLedgerService mileageLedgerService,
+                                  @Lazy ChallengeService challengeService) {
+        this.challengeRepository = challengeRepository;
+        this.historyRepository = historyRepository;
+        this.teamHistoryRepository = teamHistoryRepository;
+        this.teamRepository = teamRepository;
+        this.userRepository = userRepository;
+        this.teamSolveRepository = teamSolveRepository;
+        this.teamSolveMatrix = teamSolveMatrix;
+        this.teamHistoryReadModel = teamHistoryReadModel;
+        this.mileageLedgerService = mileageLedgerService;
+        this.challengeService = challengeService;
+    }
+
+    @Transactional
+    public void revokeSolve(Long challengeId, String loginId) {
+        long startTime = System.currentTimeMillis();
+
+        ChallengeEntity challenge = challengeRepository.findById(challengeId)
+                .orElseThrow(() -> new RestApiException(ErrorCode.CHALLENGE_NOT_FOUND));
+
+        UserEntity user = userRepository.findByLoginId(loginId)
+                .orElseThrow(() -> new RestApiException(ErrorCode.USER_NOT_FOUND));
+
+        HistoryEntity history = historyRepository.findByLoginIdAndChallengeId(loginId, challengeId)
+                .orElseThrow(() -> new RestApiException(ErrorCode.BAD_REQUEST, "해당 사용자의 문제 풀이 기록이 없습니다."));
+
+        // 1. 퍼스트 블러드 여부 (인덱스 조회 1회)
+        boolean wasFirstBlood = isEarliestSolve(challengeId, history.getId());
+        int oldPoints = scoredPoints(challenge);
+
+        // 2. 영향받는 팀 = 해당 문제를 푼 모든 팀 (삭제 전 기준, 철회 대상 팀 포함, team_solve 인덱스 조회)
+        Map<Long, TeamEntity> affectedTeams = new LinkedHashMap<>();
+        for (TeamEntity team : teamRepository.findAllById(teamSolveRepository.findTeamIdsByChallengeId(challengeId))) {
+            affectedTeams.put(team.getTeamId(), team);
+        }
+
+        // 3. 개인/팀 기록 삭제, solvers 감소
+        historyRepository.delete(history);
+
+        TeamEntity revokingTeam = null;
+        if (user.getCurrentTeamId() != null) {
+            revokingTeam = affectedTeams.get(user.getCurrentTeamId());
+            if (revokingTeam == null) {
+                revokingTeam = teamRepository.findById(user.getCurrentTeamId()).orElse(null);
+            }
+        }
+        boolean teamHadSolve = false;
+        if (revokingTeam != null) {
+            teamHadSolve = teamSolveRepository.deleteByTeamIdAndChallengeIdIn(revokingTeam.getTeamId(), List.of(challengeId)) > 0;
+            teamSolveMatrix.markRevoked(revokingTeam.getTeamId(), List.of(challengeId));
+            teamHistoryReadModel.invalidate(revokingTeam.getTeamId());
+            List<TeamHistoryEntity> teamHistories =
+                    teamHistoryRepository.findByTeamNameAndChallengeId(revokingTeam.getTeamName(), challengeId);
+            if (!teamHistories.isEmpty()) {
+                teamHistoryRepository.delete(teamHistories.get(0));
+            }
+        }
+
+        challenge.setSolvers(Math.max(0, challenge.getSolvers() - 1));
+        challengeRepository.save(challenge);
+
+        // 4. 다이나믹 스코어 재계산 → 변동분
+        if (challenge.getCategory() != ChallengeCategory.SIGNATURE) {
+            challengeService.updateChallengeScore(challenge);
+        }
+        int newPoints = scoredPoints(challenge);
+        int delta = newPoints - oldPoints;
+
+        // 5. 점수/마일리지 변동 한 번에 반영
+        int baseMileage = challenge.getMileage();
+        int bonus = firstBloodBonus(baseMileage);
+
+        for (TeamEntity team : affectedTeams.values()) {
+            if (revokingTeam != null && team.getTeamId().equals(revokingTeam.getTeamId())) {
+                continue;
+            }
+            if (delta != 0) {
+                team.setTotalPoint(Math.max(0, team.getTotalPoint() + delta));
+            }
+        }
+
+        if (revokingTeam != null && teamHadSolve) {
+            int mileageToDeduct = baseMileage + (wasFirstBlood ? bonus : 0);
+            revokingTeam.revokeSolvedChallenge(oldPoints);
+            mileageLedgerService.debitUpTo(revokingTeam, mileageToDeduct, MileageReason.REVOKE, challengeId);
+            revokingTeam.setLastSolvedTime(lastSolvedTime(revokingTeam));
+            affectedTeams.put(revokingTeam.getTeamId(), revokingTeam);
+        }
+
+        // 6. 퍼스트 블러드 이전 (다음으로 빠른 풀이의 팀에 보너스만 지급)
+        TeamEntity newFirstBloodTeam = null;
+        if (wasFirstBlood && bonus > 0) {
+            newFirstBloodTeam = historyRepository.findFirstByChallengeIdAndLoginIdIsNotNullOrderBySolvedTimeAscIdAsc(challengeId)
+                    .flatMap(h -> userRepository.findByLoginId(h.getLoginId()))
+                    .map(UserEntity::getCurrentTeamId)
+                    .map(teamId -> affectedTeams.computeIfAbsent(teamId,
+                            id -> teamRepository.findById(id).orElse(null)))
+                    .orElse(null);
+            if (newFirstBloodTeam != null) {
+                mileageLedgerService.credit(newFirstBloodTeam, bonus, MileageReason.FIRST_BLOOD, challengeId);
+            } else {
+                log.info("새 퍼스트 블러드 대상 팀 없음: challengeId={}", challengeId);
+            }
+        }
+
+        teamRepository.saveAll(affectedTeams.values());
+
+        log.info("제출 기록 철회 완료: challengeId={}, loginId={}, firstBlood={}, points {}→{} (delta={}), 영향받은 팀={}, 새 퍼스트 블러드 팀={}, 소요시간={}ms",
+                challengeId, loginId, wasFirstBlood, oldPoints, newPoints, delta, affectedTeams.size(),
+                newFirstBloodTeam != null ? newFirstBloodTeam.getTeamId() : null,
+                System.currentTimeMillis() - startTime);
+    }
+
+    // 사용자의 모든 풀이 기록 철회
+    @Transactional
+    public RevocationReportDto revokeAllByUser(String loginId) {
+        long startTime = System.currentTimeMillis();
+
+        UserEntity user = userRepository.findByLoginId(loginId)
+                .orElseThrow(() -> new RestApiException(ErrorCode.USER_NOT_FOUND));
+
+        List<HistoryEntity> histories = historyRepository.findByLoginId(loginId);
+
+        TeamEntity team = user.getCurrentTeamId() == null ? null
+                : teamRepository.findById(user.getCurrentTeamId()).orElse(null);
+
+        return revokeHistories(loginId, histories, team, false, startTime);
+    }
+
+    /*
+     * 팀 삭제용 철회: 팀원들의 풀이 기록(팀 히스토리에 있는 문제 한정)을 제거하고
+     * 다른 팀 점수/퍼스트 블러드만 갱신 (삭제될 팀 자체는 갱신하지 않음)
+     */
+    @Transactional
+    public RevocationReportDto revokeForTeamRemoval(TeamEntity team, Collection<String> memberLoginIds,
+                                                    Collection<Long> challengeIds) {
+        long startTime = System.currentTimeMillis();
+
+        List<HistoryEntity> histories = (memberLoginIds.isEmpty() || challengeIds.isEmpty())
+                ? List.of()
+                : historyRepository.findByChallengeIdInAndLoginIdInAndUserDeletedFalse(
+                        new ArrayList<>(challengeIds), new ArrayList<>(memberLoginIds));
+
+        return revokeHistories(team.getTeamName(), histories, team, true, startTime);
+    }
+
+    private RevocationReportDto revokeHistories(String target, List<HistoryEntity> histories,
+                                                TeamEntity revokingTeam, boolean teamRemoved, long startTime) {
+        if (histories.isEmpty()) {
+            return RevocationReportDto.builder()
+                    .target(target)
+                    .challenges(List.of())
+                    .teams(List.of())
+                    .durationMs(System.currentTimeMillis() - startTime)
+                    .build();
+        }
+
+        // 1. 철회 대상 집합
+        List<Long> historyIds = new ArrayList<>(histories.size());
+        Map<Long, Integer> removedPerChallenge = new HashMap<>();
+        for (HistoryEntity h : histories) {
+            historyIds.add(h.getId());
+            removedPerChallenge.merge(h.getChallengeId(), 1, Integer::sum);
+        }
+        Set<Long> challengeIds = removedPerChallenge.keySet();
+
+        // 2. 삭제 전 퍼스트 블러드 (쿼리 1회) → 잃게 되는 문제 집합
+        Set<Long> revokedIds = new HashSet<>(historyIds);
+        Set<Long> lostFirstBlood = new HashSet<>();
+        for (Object[] row : historyRepository.findFirstBloodIdsByChallengeIdIn(challengeIds)) {
+            if (revokedIds.contains((Long) row[1])) {
+                lostFirstBlood.add((Long) row[0]);
+            }
+        }
+
+        // 3. 문제/팀 스냅샷 (삭제된 문제는 조회되지 않으므로 기록만 삭제)
+        Map<Long, ChallengeEntity> challenges = new LinkedHashMap<>();
+        for (ChallengeEntity c : challengeRepository.findAllById(challengeIds)) {
+            challenges.put(c.getChallengeId(), c);
+        }
+        Map<Long, Integer> oldPoints = new HashMap<>();
+        Map<Long, Integer> oldSolvers = new HashMap<>();
+        challenges.values().forEach(c -> {
+            oldPoints.put(c.getChallengeId(), scoredPoints(c));
+            oldSolvers.put(c.getChallengeId(), c.getSolvers());
+        });
+
+        // 영향받는 팀: 철회 문제 중 하나라도 푼 팀 (team_solve 인덱스 조회 1회)
+        Long revokingTeamId = revokingTeam != null ? revokingTeam.getTeamId() : null;
+        Map<Long, Set<Long>> solvedByTeam = new HashMap<>();
+        for (Object[] row : teamSolveRepository.findTeamChallengePairsByChallengeIdIn(challengeIds)) {
+            solvedByTeam.computeIfAbsent((Long) row[0], k -> new HashSet<>()).add((Long) row[1]);
+        }
+        if (teamRemoved) {
+            solvedByTeam.remove(revokingTeamId);
+        }
+        Map<Long, TeamEntity> affectedTeams = new LinkedHashMap<>();
+        for (TeamEntity team : teamRepository.findAllById(solvedByTeam.keySet())) {
+            affectedTeams.put(team.getTeamId(), team);
+        }
+        Map<Long, int[]> teamBefore = new HashMap<>();
+        affectedTeams.values().forEach(t ->
+                teamBefore.put(t.getTeamId(), new int[]{t.getTotalPoint(), t.getMileage()}));
+
+        // 4. 집합 단위 삭제
+        historyRepository.deleteAllByIdInBatch(historyIds);
+        if (revokingTeam != null && !teamRemoved) {
+            teamSolveRepository.deleteByTeamIdAndChallengeIdIn(revokingTeamId, challengeIds);
+            teamSolveMatrix.markRevoked(revokingTeamId, challengeIds);
+            teamHistoryReadModel.invalidate(revokingTeamId);
+            teamHistoryRepository.deleteByTeamNameAndChallengeIdIn(revokingTeam.getTeamName(), challengeIds);
+        }
+
+        // 5. 문제 점수 일괄 재계산 (GROUP BY 1회)
+        Map<Long, Long> solverCounts = new HashMap<>();
+        if (!challenges.isEmpty()) {
+            for (Object[] row : historyRepository.countDistinctSolversByChallengeIdIn(challenges.keySet())) {
+                solverCounts.put((Long) row[0], (Long) row[1]);
+            }
+        }
+        Map<Long, Integer> delta = new HashMap<>();
+        for (ChallengeEntity c : challenges.values()) {
+            Long id = c.getChallengeId();
+            c.setSolvers(Math.max(0, c.getSolvers() - removedPerChallenge.get(id)));
+            if (c.getCategory() != ChallengeCategory.SIGNATURE) {
+                c.setPoints(ChallengeService.calculateDynamicPoints(c, solverCounts.getOrDefault(id, 0L)));
+            }
+            delta.put(id, scoredPoints(c) - oldPoints.get(id));
+        }
+        challengeRepository.saveAll(challenges.values());
+
+        // 6. 팀 점수/마일리지 단일 패스
+        for (TeamEntity team : affectedTeams.values()) {
+            Set<Long> solved = solvedByTeam.get(team.getTeamId());
+            if (team.getTeamId().equals(revokingTeamId)) {
+                int mileageToDeduct = 0;
+                for (Long id : solved) {
+                    ChallengeEntity c = challenges.get(id);
+                    if (c == null) continue;
+                    mileageToDeduct += c.getMileage() + (lostFirstBlood.contains(id) ? firstBloodBonus(c.getMileage()) : 0);
+                    team.revokeSolvedChallenge(oldPoints.get(id));
+                }
+                // 철회 문제 전체를 한 번에 회수 (원장 1건)
+                mileageLedgerService.debitUpTo(team, mileageToDeduct, MileageReason.REVOKE, null);
+                team.setLastSolvedTime(lastSolvedTime(team));
+                continue;
+            }
+            int teamDelta = 0;
+            for (Long id : solved) {
+                teamDelta += delta.getOrDefault(id, 0);
+            }
+            if (teamDelta != 0) {
+                team.setTotalPoint(Math.max(0, team.getTotalPoint() + teamDelta));
+            }
+        }
+
+        // 7. 퍼스트 블러드 이전 (남은 기록 중 가장 빠른 풀이의 팀에 보너스 지급)
+        Map<Long, Long> newFirstBloodTeam = reassignFirstBlood(lostFirstBlood, challenges, affectedTeams, teamBefore, revokingTeamId, teamRemoved);
+
+        teamRepository.saveAll(affectedTeams.values());
+
+        // 8. 리포트
+        List<RevocationReportDto.ChallengeChange> challengeChanges = challenges.values().stream()
+                .map(c -> RevocationReportDto.ChallengeChange.builder()
+                        .challengeId(c.getChallengeId())
+                        .title(c.getTitle())
+                        .oldPoints(oldPoints.get(c.getChallengeId()))
+                        .newPoints(scoredPoints(c))
+                        .oldSolvers(oldSolvers.get(c.getChallengeId()))
+                        .newSolvers(c.getSolvers())
+                        .firstBloodLost(lostFirstBlood.contains(c.getChallengeId()))
+                        .newFirstBloodTeamId(newFirstBloodTeam.get(c.getChallengeId()))
+                        .build())
+                .collect(Collectors.toList());
+
+        List<RevocationReportDto.TeamChange> teamChanges = affectedTeams.values().stream()
+                .filter(t -> {
+                    int[] before = teamBefore.get(t.getTeamId());
+                    return before[0] != t.getTotalPoint() || before[1] != t.getMileage();
+                })
+                .map(t -> {
+                    int[] before = teamBefore.get(t.getTeamId());
+                    return RevocationReportDto.TeamChange.builder()
+                            .teamId(t.getTeamId())
+                            .teamName(t.getTeamName())
+                            .oldTotalPoint(before[0])
+                            .newTotalPoint(t.getTotalPoint())
+                            .oldMileage(before[1])
+                            .newMileage(t.getMileage())
+                            .build();
+                })
+                .collect(Collectors.toList());
+
+        long duration = System.currentTimeMillis() - startTime;
+        log.info("일괄 철회 완료: target={}, 기록={}, 문제={}, 변경된 팀={}, 퍼스트 블러드 이전={}, 소요시간={}ms",
+                target, historyIds.size(), challengeChanges.size(), teamChanges.size(), newFirstBloodTeam.size(), duration);
+
+        return RevocationReportDto.builder()
+                .target(target)
+                .revokedHistoryCount(historyIds.size())
+                .affectedChallengeCount(challengeChanges.size())
+                .affectedTeamCount(teamChanges.size())
+                .durationMs(duration)
+                .challenges(challengeChanges)
+                .teams(teamChanges)
+                .build();
+    }
+
+    // 잃은 퍼스트 블러드를 새 최초 풀이 팀에 지급, 반환값: challengeId → 보너스 받은 teamId
+    private Map<Long, Long> reassignFirstBlood(Set<Long> lostFirstBlood, Map<Long, ChallengeEntity> challenges,
+                                              Map<Long, TeamEntity> affectedTeams, Map<Long, int[]> teamBefore,
+                                              Long revokingTeamId, boolean teamRemoved) {
+        Map<Long, Long> result = new HashMap<>();
+        if (lostFirstBlood.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, Long> firstBloodHistoryIds = new HashMap<>();
+        for (Object[] row : historyRepository.findFirstBloodIdsByChallengeIdIn(lostFirstBlood)) {
+            firstBloodHistoryIds.put((Long) row[0], (Long) row[1]);
+        }
+        if (firstBloodHistoryIds.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, String> historyLoginIds = new HashMap<>();
+        historyRepository.findAllById(firstBloodHistoryIds.values())
+                .forEach(h -> historyLoginIds.put(h.getId(), h.getLoginId()));
+        Map<String, Long> userTeamIds = new HashMap<>();
+        userRepository.findByLoginIdIn(new HashSet<>(historyLoginIds.values())).stream()
+                .filter(u -> u.getCurrentTeamId() != null)
+                .forEach(u -> userTeamIds.put(u.getLoginId(), u.getCurrentTeamId()));
+
+        firstBloodHistoryIds.forEach((challengeId, historyId) -> {
+            ChallengeEntity challenge = challenges.get(challengeId);
+            Long teamId = userTeamIds.get(historyLoginIds.get(historyId));
+            if (challenge == null || teamId == null || (teamRemoved && teamId.equals(revokingTeamId))) {
+                return;
+            }
+            TeamEntity team = affectedTeams.computeIfAbsent(teamId, id -> teamRepository.findById(id)
+                    .map(t -> {
+                        teamBefore.put(id, new int[]{t.getTotalPoint(), t.getMileage()});
+                        return t;
+                    })
+                    .orElse(null));
+            int bonus = firstBloodBonus(challenge.getMileage());
+            if (team != null && bonus > 0) {
+                mileageLedgerService.credit(team, bonus, MileageReason.FIRST_BLOOD, challengeId);
+                result.put(challengeId, teamId);
+            }
+        });
+        return result;
+    }
+
+    private boolean isEarliestSolve(Long challengeId, Long historyId) {
+        return historyRepository.findFirstByChallengeIdAndLoginIdIsNotNullOrderBySolvedTimeAscIdAsc(challengeId)
+                .map(h -> h.getId().equals(historyId))
+                .orElse(false);
+    }
+
+    // 팀 점수에 반영되는 문제 점수 (SIGNATURE는 0점)
+    private static int scoredPoints(ChallengeEntity challenge) {
+        return challenge.getCategory() == ChallengeCategory.SIGNATURE ? 0 : challenge.getPoints();
+    }
+
+    private static int firstBloodBonus(int baseMileage) {
+        return baseMileage > 0 ? (int) Math.ceil(baseMileage * 0.30) : 0;
+    }
+
+    // 철회 후 남은 풀이 기준 마지막 풀이 시각
+    private LocalDateTime lastSolvedTime(TeamEntity team) {
+        List<Long> solvedChallengeIds = teamSolveRepository.findChallengeIdsByTeamId(team.getTeamId());
+        if (solvedChallengeIds.isEmpty()) {
+            return null;
+        }
+        List<String> memberLoginIds = userRepository.findLoginIdsByCurrentTeamId(team.getTeamId());
+        if (memberLoginIds.isEmpty()) {
+            return null;
+        }
+        return historyRepository.findLastSolvedTime(memberLoginIds, solvedChallengeIds, ChallengeCategory.SIGNATURE);
+    }
+}
@@ -0,0 +1,151 @@
+package com.mjsec.ctf.service;
+
+import com.mjsec.ctf.exception.RestApiException;
+import com.mjsec.ctf.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * 플래그 제출 적응형 동시성 제한 (Gradient 방식)
+ * - 동시 처리 한도(limit)를 고정하지 않고 제출 처리 시간으로 조정
+ *   · longRtt: 긴 구간 평균(평상시 처리 시간), shortRtt: 최근 평균
+ *   · gradient = clamp(tolerance × longRtt / shortRtt, 0.5, 1.0) → 지연이 늘면 한도 축소
+ *   · newLimit = limit × gradient + √limit (여유분), smoothing 으로 완만하게 반영
+ *   · 한도의 절반도 쓰지 않는 동안은 늘리지 않음 (한가할 때 한도가 끝없이 커지는 것 방지)
+ * - 한도 초과분은 기다리게 하지 않고 바로 503 + Retry-After (락/DB 커넥션 대기열이 길어지기 전에 차단)
+ * - 최후 수단: 한도 초과 ~ 한도 × (1 + degradedHeadroom) 구간의 요청은 "오답 전용"으로 받음
+ *   → 오답/중복/Wait 처럼 락을 잡지 않는 요청은 그대로 처리, 정답이면 락을 잡기 전에 503 (기록 없음, 재시도 시 정상 처리)
+ * - 예외로 끝난 요청은 표본에서 제외
+ */
+@Slf4j
+@Component
+public class SubmitLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_WINDOW = 600;
+    private static final int SHORT_WINDOW = 10;
+
+    private final ContestMetrics contestMetrics;
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double degradedHeadroom;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // 표본 반영 상태 (this 로 동기화)
+    private double longRtt = 0;
+    private double shortRtt = 0;
+    private long samples = 0;
+
+    public SubmitLimiter(ContestMetrics contestMetrics,
+                         @Value("${ctf.submit.limiter.enabled:true}") boolean enabled,
+                         @Value("${ctf.submit.limiter.initial-limit:20}") int initialLimit,
+                         @Value("${ctf.submit.limiter.min-limit:4}") int minLimit,
+                         @Value("${ctf.submit.limiter.max-limit:256}") int maxLimit,
+                         @Value("${ctf.submit.limiter.rtt-tolerance:1.5}") double tolerance,
+                         @Value("${ctf.submit.limiter.degraded-headroom:0.25}") double degradedHeadroom) {
+        this.contestMetrics = contestMetrics;
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.degradedHeadroom = degradedHeadroom;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public record Stats(int limit, int inFlight) {}
+
+    public Stats stats() {
+        return new Stats((int) limit, inFlight.get());
+    }
+
+    // 처리 허가 1건 (release 는 여러 번 불러도 한 번만 반납)
+    public final class Permit {
+        private final long startedAt = System.nanoTime();
+        private final boolean degraded;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Permit(boolean degraded) {
+            this.degraded = degraded;
+        }
+
+        // true 면 정답 처리(락 획득)는 하지 않음
+        public boolean isDegraded() {
+            return degraded;
+        }
+
+        // 정상 완료: 처리 시간을 표본으로 반영 후 반납
+        public void success() {
+            if (released.compareAndSet(false, true)) {
+                int current = inFlight.getAndDecrement();
+                onSample(System.nanoTime() - startedAt, current);
+            }
+        }
+
+        // 예외/취소: 표본 없이 반납
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    public Permit acquire() {
+        if (!enabled) {
+            return new Permit(false);
+        }
+        int current = inFlight.incrementAndGet();
+        double currentLimit = limit;
+        if (current <= currentLimit) {
+            return new Permit(false);
+        }
+        if (current <= currentLimit * (1 + degradedHeadroom)) {
+            return new Permit(true);
+        }
+        inFlight.decrementAndGet();
+        contestMetrics.submitShed("limit");
+        throw new RestApiException(ErrorCode.SERVER_BUSY);
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtCompletion) {
+        double rtt = rttNanos;
+        samples++;
+        if (samples == 1) {
+            longRtt = rtt;
+            shortRtt = rtt;
+            return;
+        }
+        shortRtt += (rtt - shortRtt) * 2.0 / (SHORT_WINDOW + 1);
+        longRtt += (rtt - longRtt) * 2.0 / (Math.min(samples, LONG_WINDOW) + 1);
+
+        // 과부하가 풀린 직후: 부풀려진 기준값을 빠르게 되돌림
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        double current = limit;
+        // 한도의 절반도 쓰지 않으면 지연 신호가 의미 없으므로 유지
+        if (inFlightAtCompletion < current / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double next = current * gradient + Math.sqrt(current);
+        next = current * (1 - SMOOTHING) + next * SMOOTHING;
+        next = Math.max(minLimit, Math.min(maxLimit, next));
+
+        if ((int) next != (int) current) {
+            log.debug("[SubmitLimiter] limit {} -> {} (shortRtt={}ms, longRtt={}ms)",
+                    (int) current, (int) next, (long) (shortRtt / 1_000_000), (long) (longRtt / 1_000_000));
+        }
+        limit = next;
+    }
+}
@@ -0,0 +1,217 @@
+package com.mjsec.ctf.service;
+
+import com.mjsec.ctf.domain.ChallengeEntity;
+import com.mjsec.ctf.domain.HistoryEntity;
+import com.mjsec.ctf.domain.TeamEntity;
+import com.mjsec.ctf.domain.TeamHistoryEntity;
+import com.mjsec.ctf.dto.HistoryDto;
+import com.mjsec.ctf.dto.TeamHistoryDto;
+import com.mjsec.ctf.repository.ChallengeRepository;
+import com.mjsec.ctf.repository.HistoryRepository;
+import com.mjsec.ctf.repository.TeamHistoryRepository;
+import com.mjsec.ctf.repository.TeamSolveRepository;
+import com.mjsec.ctf.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+ * 팀 풀이 히스토리 읽기 모델
+ * - 팀 히스토리 / 팀원 풀이 기록을 팀원·히스토리 일괄 조회 후 메모리에서 조인 (행마다 문제/팀원 조회하던 N+1 제거)
+ * - 팀 단위로 캐시, 해당 팀의 풀이·철회·팀원 변경 시 커밋 후 무효화 (캐시 미스 시 같은 팀 재구성은 SingleFlight 로 1회만)
+ * - 다이나믹 스코어로 바뀌는 점수/제목은 캐시하지 않고 조회 시 문제를 한 번에 읽어 반영
+ * - 다른 인스턴스의 무효화는 팀별 Redis 버전으로 감지, Redis 장애 시에는 짧은 TTL로만 사용
+ */
+@Slf4j
+@Component
+public class TeamHistoryReadModel {
+
+    private static final String VERSION_KEY_PREFIX = "team_history:version:";
+    private static final long FALLBACK_TTL_MS = 30_000L;
+
+    private final TeamHistoryRepository teamHistoryRepository;
+    private final HistoryRepository historyRepository;
+    private final ChallengeRepository challengeRepository;
+    private final UserRepository userRepository;
+    private final TeamSolveRepository teamSolveRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final SingleFlight singleFlight;
+
+    private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+
+    public TeamHistoryReadModel(TeamHistoryRepository teamHistoryRepository,
+                                HistoryRepository historyRepository,
+                                ChallengeRepository challengeRepository,
+                                UserRepository userRepository,
+                                TeamSolveRepository teamSolveRepository,
+                                RedisTemplate<String, String> redisTemplate,
+                                SingleFlight singleFlight) {
+        this.teamHistoryRepository = teamHistoryRepository;
+        this.historyRepository = historyRepository;
+        this.challengeRepository = challengeRepository;
+        this.userRepository = userRepository;
+        this.teamSolveRepository = teamSolveRepository;
+        this.redisTemplate = redisTemplate;
+        this.singleFlight = singleFlight;
+    }
+
+    // 팀 제출 히스토리 1건 (solvedBy: 해당 문제를 푼 팀원)
+    private record TeamRow(Long challengeId, LocalDateTime solvedTime, String solvedBy) {}
+
+    // 팀원 개인 풀이 1건 (팀이 푼 문제 한정)
+    private record MemberRow(String loginId, Long challengeId, LocalDateTime solvedTime, String univ) {}
+
+    private record Entry(long version, long builtAt, List<TeamRow> teamRows, List<MemberRow> memberRows) {}
+
+    // ---------- 조회 ----------
+    public List<TeamHistoryDto> getTeamHistory(TeamEntity team) {
+        Entry entry = load(team);
+        Map<Long, ChallengeEntity> challenges = loadChallenges(entry.teamRows().stream().map(TeamRow::challengeId));
+
+        List<TeamHistoryDto> result = new ArrayList<>(entry.teamRows().size());
+        for (TeamRow row : entry.teamRows()) {
+            ChallengeEntity challenge = challenges.get(row.challengeId());
+            if (challenge == null) continue; // 삭제된 문제
+            result.add(new TeamHistoryDto(
+                    team.getTeamId(),
+                    team.getTeamName(),
+                    String.valueOf(challenge.getChallengeId()),
+                    challenge.getTitle(),
+                    row.solvedTime(),
+                    challenge.getPoints(),
+                    row.solvedBy()
+            ));
+        }
+        return result;
+    }
+
+    public List<HistoryDto> getMemberHistory(TeamEntity team) {
+        Entry entry = load(team);
+        Map<Long, ChallengeEntity> challenges = loadChallenges(entry.memberRows().stream().map(MemberRow::challengeId));
+
+        List<HistoryDto> result = new ArrayList<>(entry.memberRows().size());
+        for (MemberRow row : entry.memberRows()) {
+            ChallengeEntity challenge = challenges.get(row.challengeId());
+            if (challenge == null) continue;
+            result.add(new HistoryDto(
+                    row.loginId(),
+                    row.challengeId().toString(),
+                    challenge.getTitle(),
+                    row.solvedTime(),
+                    challenge.getPoints(),
+                    row.univ()
+            ));
+        }
+        return result;
+    }
+
+    // ---------- 무효화 (커밋 후) ----------
+    public void invalidate(Long teamId) {
+        if (teamId == null) return;
+        Runnable evict = () -> {
+            cache.remove(teamId);
+            try {
+                redisTemplate.opsForValue().increment(VERSION_KEY_PREFIX + teamId);
+            } catch (Exception e) {
+                log.debug("[TeamHistoryReadModel] 버전 증가 실패: teamId={}, err={}", teamId, e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+
+    // ---------- 내부 ----------
+    private Entry load(TeamEntity team) {
+        Long remoteVersion = readVersion(team.getTeamId());
+        Entry cached = cache.get(team.getTeamId());
+        if (cached != null && isFresh(cached, remoteVersion)) {
+            return cached;
+        }
+
+        // 무효화 직후 같은 팀 팀원들의 동시 조회는 재구성 1회로 합침
+        return singleFlight.execute("team_history", team.getTeamId() + ":" + remoteVersion, () -> {
+            Entry built = build(team, remoteVersion == null ? -1 : remoteVersion);
+            cache.put(team.getTeamId(), built);
+            return built;
+        });
+    }
+
+    private boolean isFresh(Entry entry, Long remoteVersion) {
+        if (remoteVersion == null) {
+            return System.currentTimeMillis() - entry.builtAt() < FALLBACK_TTL_MS;
+        }
+        return entry.version() == remoteVersion;
+    }
+
+    // 쿼리 4회: 팀원, 팀 히스토리, 팀 풀이 문제, 팀원 개인 기록
+    private Entry build(TeamEntity team, long version) {
+        List<String> memberLoginIds = userRepository.findLoginIdsByCurrentTeamId(team.getTeamId());
+        List<TeamHistoryEntity> teamHistories = teamHistoryRepository.findByTeamNameOrderBySolvedTimeAsc(team.getTeamName());
+        List<Long> teamSolvedIds = teamSolveRepository.findChallengeIdsByTeamId(team.getTeamId());
+
+        Set<Long> challengeIds = new LinkedHashSet<>(teamSolvedIds);
+        teamHistories.forEach(h -> challengeIds.add(h.getChallengeId()));
+
+        List<HistoryEntity> memberHistories = (memberLoginIds.isEmpty() || challengeIds.isEmpty())
+                ? Collections.emptyList()
+                : historyRepository.findByChallengeIdInAndLoginIdInAndUserDeletedFalse(
+                        new ArrayList<>(challengeIds), memberLoginIds);
+
+        // 문제별 풀이한 팀원 (팀원 목록 순서상 먼저 나오는 팀원 우선)
+        Map<Long, Set<String>> solversByChallenge = new HashMap<>();
+        for (HistoryEntity h : memberHistories) {
+            solversByChallenge.computeIfAbsent(h.getChallengeId(), k -> new HashSet<>()).add(h.getLoginId());
+        }
+
+        List<TeamRow> teamRows = new ArrayList<>(teamHistories.size());
+        for (TeamHistoryEntity h : teamHistories) {
+            Set<String> solvers = solversByChallenge.getOrDefault(h.getChallengeId(), Collections.emptySet());
+            String solvedBy = memberLoginIds.stream().filter(solvers::contains).findFirst().orElse(null);
+            teamRows.add(new TeamRow(h.getChallengeId(), h.getSolvedTime(), solvedBy));
+        }
+
+        Set<Long> teamSolved = new HashSet<>(teamSolvedIds);
+        List<MemberRow> memberRows = memberHistories.stream()
+                .filter(h -> teamSolved.contains(h.getChallengeId()))
+                .map(h -> new MemberRow(h.getLoginId(), h.getChallengeId(), h.getSolvedTime(), h.getUniv()))
+                .collect(Collectors.toList());
+
+        return new Entry(version, System.currentTimeMillis(), List.copyOf(teamRows), List.copyOf(memberRows));
+    }
+
+    private Map<Long, ChallengeEntity> loadChallenges(Stream<Long> challengeIds) {
+        Set<Long> ids = challengeIds.collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return challengeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ChallengeEntity::getChallengeId, Function.identity(), (a, b) -> a));
+    }
+
+    // null: Redis 사용 불가
+    private Long readVersion(Long teamId) {
+        try {
+            String value = redisTemplate.opsForValue().get(VERSION_KEY_PREFIX + teamId);
+            return value == null ? 0L : Long.parseLong(value);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
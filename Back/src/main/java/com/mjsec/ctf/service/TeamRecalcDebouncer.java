@@ -4,8 +4,8 @@ import java.time.Duration;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import com.mjsec.ctf.config.ThreadMode;
 import jakarta.annotation.PreDestroy;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RBucket;
 import org.redisson.api.RedissonClient;
@@ -13,17 +13,19 @@ import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class TeamRecalcDebouncer {
 
     private final RedissonClient redissonClient;
     private final TeamService teamService;
 
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-        Thread t = new Thread(r, "team-recalc-debouncer");
-        t.setDaemon(true);
-        return t;
-    });
+    // 재계산은 DB 대기가 대부분이므로 가상 스레드 모드에서는 가상 스레드로 실행
+    private final ScheduledExecutorService scheduler;
+
+    public TeamRecalcDebouncer(RedissonClient redissonClient, TeamService teamService, ThreadMode threadMode) {
+        this.redissonClient = redissonClient;
+        this.teamService = teamService;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadMode.factory("team-recalc-debouncer-"));
+    }
 
     public void scheduleChallengeRecalc(Long challengeId) {
         String key = "recalc:challenge:" + challengeId;
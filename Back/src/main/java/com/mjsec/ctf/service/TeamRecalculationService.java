@@ -0,0 +1,130 @@
+package com.mjsec.ctf.service;
+
+import com.mjsec.ctf.domain.ChallengeEntity;
+import com.mjsec.ctf.domain.TeamEntity;
+import com.mjsec.ctf.dto.TeamRecalculationReportDto;
+import com.mjsec.ctf.repository.ChallengeRepository;
+import com.mjsec.ctf.repository.HistoryRepository;
+import com.mjsec.ctf.repository.TeamRepository;
+import com.mjsec.ctf.repository.TeamSolveRepository;
+import com.mjsec.ctf.repository.UserRepository;
+import com.mjsec.ctf.type.ChallengeCategory;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/*
+ * 전체 팀 점수 재계산 엔진
+ * - 팀별 recalculateSingleTeam(문제마다 전체 히스토리 스트림) 반복 대신
+ *   팀/문제/팀원을 한 번씩 로딩하고 풀이 타임라인을 시간순으로 1회 스캔
+ * - totalPoint: 팀이 푼 문제(SIGNATURE 제외)의 현재 점수 합
+ * - lastSolvedTime: 현재 팀원이 푼 (팀이 푼) 문제 중 가장 늦은 풀이 시각
+ * - 값이 바뀐 팀만 갱신 → hibernate.jdbc.batch_size 로 배치 업데이트
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TeamRecalculationService {
+
+    private final TeamRepository teamRepository;
+    private final ChallengeRepository challengeRepository;
+    private final HistoryRepository historyRepository;
+    private final UserRepository userRepository;
+    private final TeamSolveRepository teamSolveRepository;
+
+    @Transactional
+    public TeamRecalculationReportDto recalculateAll() {
+        long startTime = System.currentTimeMillis();
+
+        // 1. 로딩 (쿼리 5회)
+        List<TeamEntity> teams = teamRepository.findAll();
+
+        Map<Long, Integer> challengePoints = new HashMap<>();
+        for (ChallengeEntity c : challengeRepository.findAll()) {
+            if (c.getCategory() != ChallengeCategory.SIGNATURE) {
+                challengePoints.put(c.getChallengeId(), c.getPoints());
+            }
+        }
+
+        Map<Long, Set<Long>> solvedByTeam = new HashMap<>();
+        for (TeamEntity team : teams) {
+            solvedByTeam.put(team.getTeamId(), new HashSet<>());
+        }
+        for (Object[] row : teamSolveRepository.findAllTeamChallengePairs()) {
+            Set<Long> solved = solvedByTeam.get((Long) row[0]);
+            if (solved != null) {
+                solved.add((Long) row[1]);
+            }
+        }
+        Map<String, Long> loginTeam = new HashMap<>();
+        for (Object[] row : userRepository.findTeamMemberLoginIds()) {
+            if (solvedByTeam.containsKey((Long) row[0])) {
+                loginTeam.put((String) row[1], (Long) row[0]);
+            }
+        }
+        long loadMs = System.currentTimeMillis() - startTime;
+
+        // 2. 풀이 타임라인 1회 스캔 (시간 오름차순이므로 마지막으로 본 값이 최댓값)
+        long scanStart = System.currentTimeMillis();
+        List<Object[]> timeline = historyRepository.findSolveTimeline(ChallengeCategory.SIGNATURE);
+        Map<Long, LocalDateTime> lastSolved = new HashMap<>();
+        for (Object[] row : timeline) {
+            Long teamId = loginTeam.get((String) row[0]);
+            if (teamId != null && solvedByTeam.get(teamId).contains((Long) row[1])) {
+                lastSolved.put(teamId, (LocalDateTime) row[2]);
+            }
+        }
+
+        List<TeamRecalculationReportDto.TeamDiff> changes = new ArrayList<>();
+        List<TeamEntity> changedTeams = new ArrayList<>();
+        for (TeamEntity team : teams) {
+            int total = 0;
+            for (Long challengeId : solvedByTeam.get(team.getTeamId())) {
+                total += challengePoints.getOrDefault(challengeId, 0);
+            }
+            LocalDateTime last = lastSolved.get(team.getTeamId());
+
+            if (total != team.getTotalPoint() || !Objects.equals(last, team.getLastSolvedTime())) {
+                changes.add(TeamRecalculationReportDto.TeamDiff.builder()
+                        .teamId(team.getTeamId())
+                        .teamName(team.getTeamName())
+                        .oldTotalPoint(team.getTotalPoint())
+                        .newTotalPoint(total)
+                        .oldLastSolvedTime(team.getLastSolvedTime())
+                        .newLastSolvedTime(last)
+                        .build());
+                team.setTotalPoint(total);
+                team.setLastSolvedTime(last);
+                changedTeams.add(team);
+            }
+        }
+        long scanMs = System.currentTimeMillis() - scanStart;
+
+        // 3. 변경분만 배치 업데이트
+        long writeStart = System.currentTimeMillis();
+        if (!changedTeams.isEmpty()) {
+            teamRepository.saveAll(changedTeams);
+            teamRepository.flush();
+        }
+        long writeMs = System.currentTimeMillis() - writeStart;
+        long totalMs = System.currentTimeMillis() - startTime;
+
+        log.info("[recalculateAll] 전체 팀 재계산 완료: 팀={}, 변경={}, 스캔한 기록={}, load={}ms, scan={}ms, write={}ms, total={}ms",
+                teams.size(), changes.size(), timeline.size(), loadMs, scanMs, writeMs, totalMs);
+
+        return TeamRecalculationReportDto.builder()
+                .teamCount(teams.size())
+                .changedTeamCount(changes.size())
+                .scannedHistoryCount(timeline.size())
+                .loadMs(loadMs)
+                .scanMs(scanMs)
+                .writeMs(writeMs)
+                .totalMs(totalMs)
+                .changes(changes)
+                .build();
+    }
+}
@@ -2,12 +2,16 @@ package com.mjsec.ctf.service;
 
 import com.mjsec.ctf.domain.ChallengeEntity;
 import com.mjsec.ctf.domain.HistoryEntity;
+import com.mjsec.ctf.domain.MileageLedgerEntity;
 import com.mjsec.ctf.domain.TeamEntity;
 import com.mjsec.ctf.domain.TeamHistoryEntity;
 import com.mjsec.ctf.domain.TeamPaymentHistoryEntity;
+import com.mjsec.ctf.domain.TeamSolveEntity;
 import com.mjsec.ctf.domain.UserEntity;
+import com.mjsec.ctf.dto.RevocationReportDto;
 import com.mjsec.ctf.dto.TeamHistoryDto;
 import com.mjsec.ctf.dto.TeamProfileDto;
+import com.mjsec.ctf.dto.TeamRecalculationReportDto;
 import com.mjsec.ctf.dto.TeamSummaryDto;
 import com.mjsec.ctf.exception.RestApiException;
 import com.mjsec.ctf.repository.ChallengeRepository;
@@ -15,9 +19,11 @@ import com.mjsec.ctf.repository.HistoryRepository;
 import com.mjsec.ctf.repository.TeamHistoryRepository;
 import com.mjsec.ctf.repository.TeamPaymentHistoryRepository;
 import com.mjsec.ctf.repository.TeamRepository;
+import com.mjsec.ctf.repository.TeamSolveRepository;
 import com.mjsec.ctf.repository.UserRepository;
 import com.mjsec.ctf.type.ChallengeCategory;
 import com.mjsec.ctf.type.ErrorCode;
+import com.mjsec.ctf.type.MileageReason;
 import jakarta.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -38,13 +44,27 @@ public class TeamService {
     private final ChallengeRepository challengeRepository;
     private final HistoryRepository historyRepository;
     private final ChallengeService challengeService;
+    private final SolveRevocationService solveRevocationService;
+    private final TeamRecalculationService teamRecalculationService;
+    private final TeamSolveRepository teamSolveRepository;
+    private final TeamSolveMatrix teamSolveMatrix;
+    private final TeamHistoryReadModel teamHistoryReadModel;
+    private final MileageLedgerService mileageLedgerService;
+    private final ContestMetrics contestMetrics;
 
     public TeamService(TeamRepository teamRepository, UserRepository userRepository,
                        TeamPaymentHistoryRepository teamPaymentHistoryRepository,
                        TeamHistoryRepository teamHistoryRepository,
                        ChallengeRepository challengeRepository,
                        HistoryRepository historyRepository,
-                       @Lazy ChallengeService challengeService) {
+                       @Lazy ChallengeService challengeService,
+                       @Lazy SolveRevocationService solveRevocationService,
+                       TeamRecalculationService teamRecalculationService,
+                       TeamSolveRepository teamSolveRepository,
+                       TeamSolveMatrix teamSolveMatrix,
+                       TeamHistoryReadModel teamHistoryReadModel,
+                       MileageLedgerService mileageLedgerService,
+                       ContestMetrics contestMetrics) {
 
         this.teamRepository = teamRepository;
         this.userRepository = userRepository;
@@ -53,6 +73,13 @@ public class TeamService {
         this.challengeRepository = challengeRepository;
         this.historyRepository = historyRepository;
         this.challengeService = challengeService;
+        this.solveRevocationService = solveRevocationService;
+        this.teamRecalculationService = teamRecalculationService;
+        this.teamSolveRepository = teamSolveRepository;
+        this.teamSolveMatrix = teamSolveMatrix;
+        this.teamHistoryReadModel = teamHistoryReadModel;
+        this.mileageLedgerService = mileageLedgerService;
+        this.contestMetrics = contestMetrics;
     }
 
     public void createTeam(String teamName) {
@@ -88,15 +115,13 @@ public class TeamService {
             throw new RestApiException(ErrorCode.ALREADY_HAVE_TEAM);
         }
 
-        if(!team.getMemberUserIds().isEmpty() && team.getMemberUserIds().size() == 2) {
+        if (userRepository.countByCurrentTeamId(team.getTeamId()) >= 2) {
             throw new RestApiException(ErrorCode.TEAM_FULL);
         }
 
-        team.addMember(user.getUserId());
-        teamRepository.save(team);
-
         user.joinTeam(team.getTeamId());
         userRepository.save(user);
+        teamHistoryReadModel.invalidate(team.getTeamId());
     }
 
     @Transactional
@@ -112,15 +137,13 @@ public class TeamService {
         TeamEntity team = teamRepository.findByTeamName(teamName)
                 .orElseThrow(() -> new RestApiException(ErrorCode.TEAM_NOT_FOUND));
 
-        if(!team.isMember(user.getUserId())) {
+        if (!team.getTeamId().equals(user.getCurrentTeamId())) {
             throw new RestApiException(ErrorCode.TEAM_MISMATCH);
         }
 
-        team.removeMember(user.getUserId());
         user.leaveTeam();
-
-        teamRepository.save(team);
         userRepository.save(user);
+        teamHistoryReadModel.invalidate(team.getTeamId());
     }
 
     public boolean canSolveChallenge(Long userId, Long challengeId) {
@@ -135,7 +158,7 @@ public class TeamService {
         TeamEntity team = teamRepository.findById(user.getCurrentTeamId())
                 .orElseThrow(() -> new RestApiException(ErrorCode.TEAM_NOT_FOUND));
 
-        return !team.hasSolvedChallenge(challengeId);
+        return !teamSolveMatrix.isSolved(team.getTeamId(), challengeId);
     }
 
     @Transactional
@@ -151,18 +174,27 @@ public class TeamService {
         TeamEntity team = teamRepository.findById(user.getCurrentTeamId())
                 .orElseThrow(() -> new RestApiException(ErrorCode.TEAM_NOT_FOUND));
 
-        boolean newlySolved = team.addSolvedChallenge(challengeId);
-        if (!newlySolved) {
+        if (teamSolveRepository.existsByTeamIdAndChallengeId(team.getTeamId(), challengeId)) {
             log.debug("Team {} already solved challenge {}, skipping duplicate submission.", team.getTeamId(), challengeId);
             return;
         }
 
+        LocalDateTime solvedAt = LocalDateTime.now();
+        teamSolveRepository.save(TeamSolveEntity.builder()
+                .teamId(team.getTeamId())
+                .challengeId(challengeId)
+                .solvedAt(solvedAt)
+                .pointsAtSolve(points)
+                .build());
+        teamSolveMatrix.markSolved(team.getTeamId(), challengeId);
+        teamHistoryReadModel.invalidate(team.getTeamId());
+
         if (mileage > 0) {
-            team.addMileage(mileage);
+            mileageLedgerService.credit(team, mileage, MileageReason.SOLVE, challengeId);
         }
         // 🔴 점수는 recalculateTeamsByChallenge에서 일괄 재계산됨
-        // 여기서는 solvedChallengeIds에 추가와 마일리지만 처리
-        team.setLastSolvedTime(java.time.LocalDateTime.now());
+        // 여기서는 team_solve 기록과 마일리지만 처리
+        team.setLastSolvedTime(solvedAt);
         teamRepository.save(team);
 
     }
@@ -172,20 +204,22 @@ public class TeamService {
         TeamEntity team = teamRepository.findById(teamId)
                 .orElseThrow(() -> new RestApiException(ErrorCode.TEAM_NOT_FOUND));
 
-        if (team.deductMileage(amount)) {
-            teamRepository.save(team);
+        // 잔액 >= 금액 조건부 차감 (동시 결제 시에도 음수/갱신 유실 없음)
+        MileageLedgerEntity entry = mileageLedgerService.tryDebit(team, amount, MileageReason.PAYMENT, null);
+        if (entry == null) {
+            return false;
+        }
 
-            TeamPaymentHistoryEntity paymentHistory = TeamPaymentHistoryEntity.builder()
-                    .teamId(teamId)
-                    .requesterUserId(requesterUserId)
-                    .mileageUsed(amount)
-                    .createdAt(LocalDateTime.now())
-                    .build();
+        TeamPaymentHistoryEntity paymentHistory = TeamPaymentHistoryEntity.builder()
+                .teamId(teamId)
+                .requesterUserId(requesterUserId)
+                .mileageUsed(amount)
+                .createdAt(LocalDateTime.now())
+                .build();
 
-            teamPaymentHistoryRepository.save(paymentHistory);
-            return true;
-        }
-        return false;
+        teamPaymentHistoryRepository.save(paymentHistory);
+        entry.setReferenceId(paymentHistory.getTeamPaymentHistoryId());
+        return true;
     }
 
     public Optional<TeamEntity> getUserTeam(Long teamId) {
@@ -210,22 +244,22 @@ public class TeamService {
 
     @Transactional
     public void recalculateTeamsByChallenge(Long challengeId) {
-        log.info("[recalculateTeamsByChallenge] 시작: challengeId={}", challengeId);
-        List<TeamEntity> teams = teamRepository.findTeamsBySolvedChallengeId(challengeId);
-        log.info("[recalculateTeamsByChallenge] 조회된 팀 개수={}", teams.size());
-        for (TeamEntity team : teams) {
-            log.info("[recalculateTeamsByChallenge] 팀 재계산: teamId={}, teamName={}", team.getTeamId(), team.getTeamName());
-            recalculateSingleTeam(team);
-        }
-        log.info("[recalculateTeamsByChallenge] 완료: challengeId={}, 재계산된 팀 개수={}", challengeId, teams.size());
+        contestMetrics.recordRecalc("challenge", () -> {
+            log.info("[recalculateTeamsByChallenge] 시작: challengeId={}", challengeId);
+            List<TeamEntity> teams = teamRepository.findAllById(teamSolveRepository.findTeamIdsByChallengeId(challengeId));
+            log.info("[recalculateTeamsByChallenge] 조회된 팀 개수={}", teams.size());
+            for (TeamEntity team : teams) {
+                log.info("[recalculateTeamsByChallenge] 팀 재계산: teamId={}, teamName={}", team.getTeamId(), team.getTeamName());
+                recalculateSingleTeam(team);
+            }
+            log.info("[recalculateTeamsByChallenge] 완료: challengeId={}, 재계산된 팀 개수={}", challengeId, teams.size());
+        });
     }
 
+    // 전체 팀 재계산: 팀별 반복 대신 단일 스캔 엔진 사용
     @Transactional
-    public void recalculateAllTeamPoints() {
-        List<TeamEntity> teams = teamRepository.findAll();
-        for (TeamEntity team : teams) {
-            recalculateSingleTeam(team);
-        }
+    public TeamRecalculationReportDto recalculateAllTeamPoints() {
+        return contestMetrics.recordRecalc("all", teamRecalculationService::recalculateAll);
     }
 
     public List<TeamEntity> getTeamRanking() {
@@ -245,12 +279,7 @@ public class TeamService {
         TeamEntity team = getUserTeam(user.getCurrentTeamId())
                 .orElseThrow(() -> new RestApiException(ErrorCode.TEAM_NOT_FOUND));
 
-        List<String> memberEmails = new ArrayList<>();
-        if (!team.getMemberUserIds().isEmpty()) {
-            memberEmails = userRepository.findAllById(team.getMemberUserIds()).stream()
-                    .map(UserEntity::getEmail)
-                    .collect(Collectors.toList());
-        }
+        List<String> memberEmails = userRepository.findEmailsByCurrentTeamId(team.getTeamId());
 
         return TeamProfileDto.builder()
                 .teamId(team.getTeamId())
@@ -259,7 +288,7 @@ public class TeamService {
                 .memberEmail(memberEmails)
                 .teamMileage(team.getMileage())
                 .teamTotalPoint(team.getTotalPoint())
-                .teamSolvedCount(team.getSolvedCount())
+                .teamSolvedCount((int) teamSolveRepository.countByTeamId(team.getTeamId()))
                 .build();
     }
 
@@ -268,41 +297,35 @@ public class TeamService {
         TeamEntity team = teamRepository.findById(teamId)
                 .orElseThrow(() -> new RestApiException(ErrorCode.TEAM_NOT_FOUND));
 
-        return team.getSolvedChallengeIds();
+        return teamSolveRepository.findChallengeIdsByTeamId(team.getTeamId());
     }
 
-    public List<String> getTeamMemberLoginIds(List<Long> memberUserIds) {
-        if (memberUserIds == null || memberUserIds.isEmpty()) {
+    // 팀원 loginId 목록 (user_entity.current_team_id 인덱스 조회)
+    public List<String> getTeamMemberLoginIds(Long teamId) {
+        if (teamId == null) {
             return Collections.emptyList();
         }
-
-        return userRepository.findAllById(memberUserIds).stream()
-                .map(UserEntity::getLoginId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        return userRepository.findLoginIdsByCurrentTeamId(teamId);
     }
 
     public List<TeamSummaryDto> getAllTeams() {
 
         List<TeamEntity> teams = teamRepository.findAll();
 
-        return teams.stream()
-                .map(team -> {
-                    List<String> memberEmails = new ArrayList<>();
-                    if (team.getMemberUserIds() != null && !team.getMemberUserIds().isEmpty()) {
-                        memberEmails = userRepository.findAllById(team.getMemberUserIds()).stream()
-                                .map(UserEntity::getEmail)
-                                .collect(Collectors.toList());
-                    }
+        // 팀마다 팀원 조회하던 N+1 대신 소속 팀원 이메일을 한 번에 조회
+        Map<Long, List<String>> emailsByTeam = new HashMap<>();
+        for (Object[] row : userRepository.findTeamMemberEmails()) {
+            emailsByTeam.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((String) row[1]);
+        }
 
-                    return TeamSummaryDto.builder()
-                            .teamId(team.getTeamId())
-                            .teamName(team.getTeamName())
-                            .teamTotalPoint(team.getTotalPoint())
-                            .teamMileage(team.getMileage())
-                            .memberEmails(memberEmails)
-                            .build();
-                })
+        return teams.stream()
+                .map(team -> TeamSummaryDto.builder()
+                        .teamId(team.getTeamId())
+                        .teamName(team.getTeamName())
+                        .teamTotalPoint(team.getTotalPoint())
+                        .teamMileage(team.getMileage())
+                        .memberEmails(emailsByTeam.getOrDefault(team.getTeamId(), new ArrayList<>()))
+                        .build())
                 .collect(Collectors.toList());
     }
 
@@ -316,8 +339,7 @@ public class TeamService {
             throw new RestApiException(ErrorCode.BAD_REQUEST, "마일리지는 0 이상이어야 합니다.");
         }
 
-        team.addMileage(mileage);
-        teamRepository.save(team);
+        mileageLedgerService.credit(team, mileage, MileageReason.ADMIN_GRANT, null);
 
         log.info("Admin granted mileage: teamId={}, teamName={}, mileageGranted={}",
                 team.getTeamId(), teamName, mileage);
@@ -337,43 +359,8 @@ public class TeamService {
         TeamEntity team = teamRepository.findById(user.getCurrentTeamId())
                 .orElseThrow(() -> new RestApiException(ErrorCode.TEAM_NOT_FOUND));
 
-        // 팀원 loginId 목록
-        List<String> memberLoginIds = getTeamMemberLoginIds(team.getMemberUserIds());
-
-        List<TeamHistoryEntity> histories = teamHistoryRepository.findByTeamNameOrderBySolvedTimeAsc(team.getTeamName());
-
-        List<TeamHistoryDto> historyDtos = histories.stream()
-                .map(history -> {
-                    Optional<ChallengeEntity> challengeOpt = challengeRepository.findById(history.getChallengeId());
-                    if (!challengeOpt.isPresent()) {
-                        return null;
-                    }
-
-                    ChallengeEntity challenge = challengeOpt.get();
-
-                    // 해당 문제를 누가 풀었는지 찾기 (팀원 중에서)
-                    String solvedBy = null;
-                    for (String memberLoginId : memberLoginIds) {
-                        Optional<HistoryEntity> individualHistory =
-                                historyRepository.findByLoginIdAndChallengeId(memberLoginId, history.getChallengeId());
-                        if (individualHistory.isPresent()) {
-                            solvedBy = memberLoginId;
-                            break;
-                        }
-                    }
-
-                    return new TeamHistoryDto(
-                            team.getTeamId(),
-                            team.getTeamName(),
-                            String.valueOf(challenge.getChallengeId()),
-                            challenge.getTitle(),
-                            history.getSolvedTime(),
-                            challenge.getPoints(),
-                            solvedBy  // 풀이한 팀원
-                    );
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        // 팀 히스토리 + 풀이한 팀원 (팀 단위 읽기 모델, 점수/제목은 조회 시점 값)
+        List<TeamHistoryDto> historyDtos = teamHistoryReadModel.getTeamHistory(team);
 
         log.info("팀 히스토리 조회 완료: loginId={}, teamName={}, recordCount={}",
                 loginId, team.getTeamName(), historyDtos.size());
@@ -384,15 +371,14 @@ public class TeamService {
 
     /**
      * 팀 삭제 메서드
-     * - 팀 제출 히스토리 삭제 및 영향받은 문제들의 solvers 감소
-     * - 영향받은 문제들의 다이나믹 스코어 재계산 (ChallengeService.updateChallengeScore 활용)
-     * - 팀 결제 히스토리 삭제
+     * - 팀원 개인 히스토리(팀 히스토리에 있는 문제 한정)를 집합 단위로 삭제하고
+     *   영향받은 문제/다른 팀의 점수·퍼스트 블러드만 단일 패스로 재계산 (SolveRevocationService)
+     * - 팀 제출/결제 히스토리 일괄 삭제
      * - 팀원들의 팀 소속 해제 (유저는 삭제하지 않음)
-     * - 전체 팀 점수 재계산
-     * - 팀 삭제
+     * - 팀 삭제 후 변경 내역 리포트 반환
      */
     @Transactional
-    public void deleteTeam(String teamName) {
+    public RevocationReportDto deleteTeam(String teamName) {
         log.info("팀 삭제 시작: teamName={}", teamName);
 
         long startTime = System.currentTimeMillis();
@@ -402,125 +388,41 @@ public class TeamService {
                 .orElseThrow(() -> new RestApiException(ErrorCode.TEAM_NOT_FOUND));
 
         Long teamId = team.getTeamId();
-        List<Long> memberUserIds = team.getMemberUserIds();
-
-        // 팀원들의 loginId 조회
-        List<String> memberLoginIds = new ArrayList<>();
-        if (memberUserIds != null && !memberUserIds.isEmpty()) {
-            for (Long userId : memberUserIds) {
-                Optional<UserEntity> userOpt = userRepository.findById(userId);
-                if (userOpt.isPresent()) {
-                    memberLoginIds.add(userOpt.get().getLoginId());
-                }
-            }
-        }
-
-        // 팀 제출 히스토리 삭제 및 영향받은 문제 ID 수집
-        List<TeamHistoryEntity> teamHistories = teamHistoryRepository.findByTeamNameOrderBySolvedTimeAsc(teamName);
-        Set<Long> affectedChallengeIds = new HashSet<>();
-
-        if (!teamHistories.isEmpty()) {
-            // 영향받은 문제 ID 수집
-            for (TeamHistoryEntity history : teamHistories) {
-                affectedChallengeIds.add(history.getChallengeId());
-            }
-
-            // 팀 제출 히스토리 삭제
-            teamHistoryRepository.deleteAll(teamHistories);
-            log.info("팀 제출 히스토리 삭제 완료: teamName={}, 삭제된 히스토리 개수={}", teamName, teamHistories.size());
-        }
-
-        // 영향받은 문제들의 퍼스트 블러드 확인
-        Map<Long, Boolean> wasFirstBloodMap = new HashMap<>();
-        for (Long challengeId : affectedChallengeIds) {
-            // 해당 문제의 모든 히스토리 조회
-            List<HistoryEntity> allHistories = historyRepository.findByChallengeId(challengeId);
-
-            if (!allHistories.isEmpty()) {
-                // 전체 중 가장 빠른 제출 찾기
-                Optional<HistoryEntity> globalFirstBloodOpt = allHistories.stream()
-                        .filter(h -> h.getLoginId() != null)
-                        .min(Comparator.comparing(HistoryEntity::getSolvedTime));
-
-                // 삭제된 팀원이 퍼스트 블러드였는지 확인
-                boolean wasFirstBlood = false;
-                if (globalFirstBloodOpt.isPresent()) {
-                    String firstBloodLoginId = globalFirstBloodOpt.get().getLoginId();
-                    wasFirstBlood = memberLoginIds.contains(firstBloodLoginId);
-                }
-
-                wasFirstBloodMap.put(challengeId, wasFirstBlood);
-            }
-        }
-
-        // 삭제된 팀원의 개인 히스토리 삭제 (영향받은 문제만)
-        for (Long challengeId : affectedChallengeIds) {
-            for (String loginId : memberLoginIds) {
-                Optional<HistoryEntity> historyOpt = historyRepository.findByLoginIdAndChallengeId(loginId, challengeId);
-                if (historyOpt.isPresent()) {
-                    historyRepository.delete(historyOpt.get());
-                    log.info("개인 히스토리 삭제: loginId={}, challengeId={}", loginId, challengeId);
-                }
-            }
-        }
+        List<UserEntity> members = userRepository.findByCurrentTeamId(teamId);
+        List<String> memberLoginIds = members.stream()
+                .map(UserEntity::getLoginId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
 
-        // 영향받은 문제들의 solvers 감소, 다이나믹 스코어 재계산, 퍼스트 블러드 재할당
-        for (Long challengeId : affectedChallengeIds) {
-            Optional<ChallengeEntity> challengeOpt = challengeRepository.findById(challengeId);
-            if (challengeOpt.isPresent()) {
-                ChallengeEntity challenge = challengeOpt.get();
-
-                // solvers 감소
-                challenge.setSolvers(Math.max(0, challenge.getSolvers() - 1));
-                challengeRepository.save(challenge);
-                log.info("Challenge solvers 감소: challengeId={}, newSolvers={}", challengeId, challenge.getSolvers());
-
-                // 다이나믹 스코어 재계산 (SIGNATURE 카테고리 제외)
-                if (challenge.getCategory() != ChallengeCategory.SIGNATURE) {
-                    challengeService.updateChallengeScore(challenge);
-                    log.info("다이나믹 스코어 재계산 완료: challengeId={}, newPoints={}",
-                            challengeId, challenge.getPoints());
-                }
+        // 영향받은 문제 ID 수집
+        Set<Long> affectedChallengeIds = teamHistoryRepository.findByTeamNameOrderBySolvedTimeAsc(teamName).stream()
+                .map(TeamHistoryEntity::getChallengeId)
+                .collect(Collectors.toSet());
 
-                // 퍼스트 블러드 재할당
-                Boolean wasFirstBlood = wasFirstBloodMap.get(challengeId);
-                if (Boolean.TRUE.equals(wasFirstBlood)) {
-                    reassignFirstBlood(challengeId);
-                }
-            }
-        }
+        // 팀원 개인 히스토리 삭제 + 다이나믹 스코어/퍼스트 블러드/다른 팀 점수 반영
+        RevocationReportDto report = solveRevocationService.revokeForTeamRemoval(team, memberLoginIds, affectedChallengeIds);
 
-        // 팀 결제 히스토리 삭제
-        List<TeamPaymentHistoryEntity> paymentHistories = teamPaymentHistoryRepository.findByTeamIdOrderByCreatedAtDesc(teamId);
-        if (!paymentHistories.isEmpty()) {
-            teamPaymentHistoryRepository.deleteAll(paymentHistories);
-            log.info("팀 결제 히스토리 삭제 완료: teamName={}, 삭제된 결제 히스토리 개수={}", teamName, paymentHistories.size());
-        }
+        int deletedTeamSolves = teamSolveRepository.deleteByTeamId(teamId);
+        teamSolveMatrix.removeTeam(teamId);
+        teamHistoryReadModel.invalidate(teamId);
+        int deletedTeamHistories = teamHistoryRepository.deleteByTeamName(teamName);
+        int deletedPayments = teamPaymentHistoryRepository.deleteByTeamId(teamId);
+        log.info("팀 히스토리 삭제 완료: teamName={}, 풀이={}, 제출 히스토리={}, 결제 히스토리={}",
+                teamName, deletedTeamSolves, deletedTeamHistories, deletedPayments);
 
         // 팀원들의 팀 소속 해제 (유저는 삭제하지 않음)
-        if (memberUserIds != null && !memberUserIds.isEmpty()) {
-            for (Long userId : memberUserIds) {
-                Optional<UserEntity> userOpt = userRepository.findById(userId);
-                if (userOpt.isPresent()) {
-                    UserEntity user = userOpt.get();
-                    user.leaveTeam(); // currentTeamId를 null로 설정
-                    userRepository.save(user);
-                    log.info("팀원 소속 해제: userId={}, loginId={}", userId, user.getLoginId());
-                }
-            }
-            log.info("팀원 소속 해제 완료: teamName={}, 해제된 팀원 수={}", teamName, memberUserIds.size());
-        }
-
-        // 전체 팀 점수 재계산 (다이나믹 스코어 변경으로 인한 다른 팀들의 점수 재계산)
-        recalculateAllTeamPoints();
-        log.info("전체 팀 점수 재계산 완료");
+        members.forEach(UserEntity::leaveTeam);
+        userRepository.saveAll(members);
+        log.info("팀원 소속 해제 완료: teamName={}, 해제된 팀원 수={}", teamName, members.size());
 
         // 팀 삭제
         teamRepository.delete(team);
 
         long duration = System.currentTimeMillis() - startTime;
+        report.setDurationMs(duration);
         log.info("팀 삭제 완료: teamName={}, teamId={}, 영향받은 문제 수={}, 소요시간={}ms",
                 teamName, teamId, affectedChallengeIds.size(), duration);
+        return report;
     }
 
     @Transactional
@@ -530,12 +432,9 @@ public class TeamService {
         ChallengeEntity challenge = challengeRepository.findById(challengeId)
                 .orElseThrow(() -> new RestApiException(ErrorCode.CHALLENGE_NOT_FOUND));
 
-        // 삭제 후 남은 제출 기록 중 가장 빠른 것 찾기
-        List<HistoryEntity> remainingHistories = historyRepository.findByChallengeId(challengeId);
-
-        Optional<HistoryEntity> newFirstBloodOpt = remainingHistories.stream()
-                .filter(h -> h.getLoginId() != null)
-                .min(Comparator.comparing(HistoryEntity::getSolvedTime));
+        // 삭제 후 남은 제출 기록 중 가장 빠른 것 찾기 (인덱스 조회)
+        Optional<HistoryEntity> newFirstBloodOpt =
+                historyRepository.findFirstByChallengeIdAndLoginIdIsNotNullOrderBySolvedTimeAscIdAsc(challengeId);
 
         if (newFirstBloodOpt.isPresent()) {
             HistoryEntity newFirstBloodHistory = newFirstBloodOpt.get();
@@ -557,8 +456,7 @@ public class TeamService {
 
                         // 새 퍼스트 블러드 팀에게 보너스만 추가 지급
                         // (기본 마일리지는 이미 받았으므로 보너스만 추가)
-                        newFirstTeam.addMileage(bonus);
-                        teamRepository.save(newFirstTeam);
+                        mileageLedgerService.credit(newFirstTeam, bonus, MileageReason.FIRST_BLOOD, challengeId);
 
                         log.info("새 퍼스트 블러드 보너스 지급: teamId={}, teamName={}, bonus={}, challengeId={}, loginId={}",
                                 newFirstTeam.getTeamId(), newFirstTeam.getTeamName(), bonus, challengeId, newFirstBloodHistory.getLoginId());
@@ -578,9 +476,9 @@ public class TeamService {
 
     private void recalculateSingleTeam(TeamEntity team) {
         int oldTotalPoint = team.getTotalPoint();
-        List<Long> solvedChallengeIds = team.getSolvedChallengeIds();
+        List<Long> solvedChallengeIds = teamSolveRepository.findChallengeIdsByTeamId(team.getTeamId());
 
-        if (solvedChallengeIds == null || solvedChallengeIds.isEmpty()) {
+        if (solvedChallengeIds.isEmpty()) {
             team.setTotalPoint(0);
             team.setLastSolvedTime(null);
             teamRepository.save(team);
@@ -597,7 +495,7 @@ public class TeamService {
                 .filter(history -> !history.isUserDeleted())
                 .collect(Collectors.toList());
 
-        List<UserEntity> teamMembers = userRepository.findAllById(team.getMemberUserIds());
+        List<UserEntity> teamMembers = userRepository.findByCurrentTeamId(team.getTeamId());
         Set<String> memberLoginIds = teamMembers.stream()
                 .map(UserEntity::getLoginId)
                 .filter(Objects::nonNull)
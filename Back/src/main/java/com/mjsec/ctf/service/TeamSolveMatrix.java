@@ -0,0 +1,255 @@
+package com.mjsec.ctf.service;
+
+import com.mjsec.ctf.repository.TeamSolveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * 팀 × 문제 풀이 여부 인메모리 행렬
+ * - 팀마다 BitSet 1개, 비트 위치는 문제별로 부여한 조밀한 순번(ordinal)
+ * - BitSet은 게시 후 수정하지 않음(변경 시 복제 후 교체) → 조회는 락 없이 O(1)
+ * - team_solve 변경은 커밋 후 반영, 다른 인스턴스의 변경은 Redis 버전 카운터로 감지해 DB에서 재구성
+ * - 원본은 team_solve 테이블: 초기화 전이거나 Redis 장애로 동기화가 늦어도 쓰기 경로의 중복 판정은 DB로 한다
+ * - Redis 에 닿지 않는 동안은 마지막 스냅샷(+ 이 인스턴스의 변경)을 유지하고 동기화 확인 간격을 늘림 (RedisSyncBackoff)
+ */
+@Slf4j
+@Component
+public class TeamSolveMatrix {
+
+    private static final String VERSION_KEY = "team_solve:matrix:version";
+
+    private final TeamSolveRepository teamSolveRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private volatile State state = new State();
+    private volatile boolean ready = false;
+    // 마지막으로 반영한 Redis 버전 (다르면 재구성)
+    private volatile long localVersion = -1;
+    // Redis 장애 시 동기화 확인 간격 늘림
+    private final RedisSyncBackoff syncBackoff = new RedisSyncBackoff();
+
+    // 재구성/변경 반영 직렬화 (안에서 DB·Redis 를 기다리므로 synchronized 대신 사용 → 가상 스레드가 캐리어에 고정되지 않음)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public TeamSolveMatrix(TeamSolveRepository teamSolveRepository, RedisTemplate<String, String> redisTemplate) {
+        this.teamSolveRepository = teamSolveRepository;
+        this.redisTemplate = redisTemplate;
+    }
+
+    // 행렬 스냅샷 (순번 → 문제 ID, 팀 ID → 비트셋)
+    private static final class State {
+        final Map<Long, Integer> ordinals = new ConcurrentHashMap<>();
+        final List<Long> challengeIds = new CopyOnWriteArrayList<>();
+        final Map<Long, BitSet> teams = new ConcurrentHashMap<>();
+        final AtomicInteger nextOrdinal = new AtomicInteger();
+
+        int ordinalOf(Long challengeId) {
+            return ordinals.computeIfAbsent(challengeId, id -> {
+                int ordinal = nextOrdinal.getAndIncrement();
+                challengeIds.add(id);
+                return ordinal;
+            });
+        }
+    }
+
+    // 행렬 응답용 읽기 전용 뷰: challengeIds[i] 가 각 팀 비트셋의 i번째 비트
+    public record Snapshot(long version, List<Long> challengeIds, Map<Long, BitSet> teams) {}
+
+    // ---------- 조회 ----------
+    public boolean isSolved(Long teamId, Long challengeId) {
+        if (teamId == null || challengeId == null) {
+            return false;
+        }
+        if (!ready) {
+            return teamSolveRepository.existsByTeamIdAndChallengeId(teamId, challengeId);
+        }
+        State current = state;
+        Integer ordinal = current.ordinals.get(challengeId);
+        BitSet solved = current.teams.get(teamId);
+        return ordinal != null && solved != null && solved.get(ordinal);
+    }
+
+    public Set<Long> getSolvedChallengeIds(Long teamId) {
+        if (teamId == null) {
+            return Collections.emptySet();
+        }
+        if (!ready) {
+            return new HashSet<>(teamSolveRepository.findChallengeIdsByTeamId(teamId));
+        }
+        State current = state;
+        BitSet solved = current.teams.get(teamId);
+        if (solved == null) {
+            return Collections.emptySet();
+        }
+        Set<Long> result = new HashSet<>(solved.cardinality() * 2);
+        for (int i = solved.nextSetBit(0); i >= 0; i = solved.nextSetBit(i + 1)) {
+            result.add(current.challengeIds.get(i));
+        }
+        return result;
+    }
+
+    public Snapshot snapshot() {
+        if (!ready) {
+            rebuild();
+        }
+        State current = state;
+        // 순번을 먼저 고정한 뒤 비트셋 복사 (이후 추가된 순번의 비트는 잘라냄)
+        List<Long> challengeIds = List.copyOf(current.challengeIds);
+        Map<Long, BitSet> teams = new HashMap<>();
+        current.teams.forEach((teamId, bits) -> teams.put(teamId, bits.get(0, challengeIds.size())));
+        return new Snapshot(localVersion, challengeIds, teams);
+    }
+
+    // ---------- 변경 (team_solve 변경 트랜잭션 커밋 후 반영) ----------
+    public void markSolved(Long teamId, Long challengeId) {
+        afterCommit(() -> {
+            State current = state;
+            int ordinal = current.ordinalOf(challengeId);
+            current.teams.compute(teamId, (id, old) -> {
+                BitSet bits = old == null ? new BitSet() : (BitSet) old.clone();
+                bits.set(ordinal);
+                return bits;
+            });
+        });
+    }
+
+    public void markRevoked(Long teamId, Collection<Long> challengeIds) {
+        afterCommit(() -> {
+            State current = state;
+            current.teams.computeIfPresent(teamId, (id, old) -> {
+                BitSet bits = (BitSet) old.clone();
+                for (Long challengeId : challengeIds) {
+                    Integer ordinal = current.ordinals.get(challengeId);
+                    if (ordinal != null) {
+                        bits.clear(ordinal);
+                    }
+                }
+                return bits;
+            });
+        });
+    }
+
+    public void removeTeam(Long teamId) {
+        afterCommit(() -> state.teams.remove(teamId));
+    }
+
+    // 문제 삭제는 드물고 순번을 다시 조밀하게 맞춰야 하므로 전체 재구성
+    public void removeChallenge(Long challengeId) {
+        afterCommit(this::rebuild);
+    }
+
+    // ---------- 재구성 ----------
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.lock();
+        try {
+            long startTime = System.currentTimeMillis();
+            // 조회 전에 버전을 읽어 두어, 조회 중 다른 곳에서 바뀌면 다음 동기화에서 다시 재구성되게 함
+            // Redis 장애로 버전을 모르면 -1 로 두어, 복구 후 첫 동기화에서 다시 맞춤
+            Long version = readRemoteVersion();
+
+            State fresh = new State();
+            // 문제 ID 순으로 순번을 부여해 행렬 열 순서를 안정적으로 유지
+            List<Object[]> pairs = teamSolveRepository.findAllTeamChallengePairs();
+            pairs.stream().map(row -> (Long) row[1]).distinct().sorted().forEach(fresh::ordinalOf);
+            Map<Long, BitSet> teams = new HashMap<>();
+            for (Object[] row : pairs) {
+                teams.computeIfAbsent((Long) row[0], id -> new BitSet()).set(fresh.ordinals.get((Long) row[1]));
+            }
+            fresh.teams.putAll(teams);
+
+            state = fresh;
+            localVersion = version == null ? -1 : version;
+            ready = true;
+            log.info("[TeamSolveMatrix] 재구성 완료: teams={}, challenges={}, solves={}, {}ms",
+                    teams.size(), fresh.challengeIds.size(), pairs.size(), System.currentTimeMillis() - startTime);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 다른 인스턴스의 변경 감지
+    @Scheduled(fixedDelay = 3000)
+    public void syncIfStale() {
+        if (!ready || syncBackoff.isWaiting()) {
+            return;
+        }
+        Long remote = readRemoteVersion();
+        if (remote == null) {
+            // Redis 에 닿지 않으면 비교할 수 없으므로 마지막 스냅샷 유지
+            long delay = syncBackoff.failed();
+            log.debug("[TeamSolveMatrix] Redis 버전 조회 실패, {}ms 후 재시도", delay);
+            return;
+        }
+        syncBackoff.succeeded();
+        if (localVersion < 0 || remote != localVersion) {
+            log.debug("[TeamSolveMatrix] 원격 변경 감지: local={}, remote={}", localVersion, remote);
+            rebuild();
+        }
+    }
+
+    private void afterCommit(Runnable mutation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(mutation);
+                }
+            });
+        } else {
+            apply(mutation);
+        }
+    }
+
+    // 재구성과 같은 락으로 직렬화: 재구성 도중 커밋된 변경이 교체 전 상태에만 반영되어 유실되는 것을 막음
+    private void apply(Runnable mutation) {
+        lock.lock();
+        try {
+            mutation.run();
+            bumpVersion();
+        } catch (Exception e) {
+            log.warn("[TeamSolveMatrix] 변경 반영 실패, 재구성 예정: {}", e.getMessage());
+            localVersion = -1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 자기 변경 직후 버전이 정확히 +1이면 다른 인스턴스 변경이 없었던 것이므로 로컬 버전만 올림
+    private void bumpVersion() {
+        try {
+            Long next = redisTemplate.opsForValue().increment(VERSION_KEY);
+            if (next != null && next == localVersion + 1) {
+                localVersion = next;
+            }
+        } catch (Exception e) {
+            log.debug("[TeamSolveMatrix] 버전 증가 실패: {}", e.getMessage());
+        }
+    }
+
+    // 반환: 원격 버전, Redis 장애 시 null
+    private Long readRemoteVersion() {
+        try {
+            String value = redisTemplate.opsForValue().get(VERSION_KEY);
+            return value == null ? 0L : Long.parseLong(value);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
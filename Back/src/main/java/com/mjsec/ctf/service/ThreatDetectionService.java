@@ -29,6 +29,7 @@ public class ThreatDetectionService {
     private final IPBanService ipBanService;
     private final IPWhitelistService ipWhitelistService;
     private final AutoBanConfig autoBanConfig;
+    private final ContestMetrics contestMetrics;
 
     // ========================================
     // SQL Injection 탐지 패턴 (OWASP ModSecurity CRS 기반)
@@ -290,6 +291,7 @@ public class ThreatDetectionService {
         if (recentRequests >= autoBanConfig.getRateLimitMaxRequestsPerSecond()) {
             log.warn("Rate Limit Warning: IP {} | {} requests/sec | URI: {}",
                      ipAddress, recentRequests, requestUri);
+            contestMetrics.rateLimitHit("api", "warned");
 
             // 극단적인 경우만 차단 (1초에 200회 이상)
             if (recentRequests >= autoBanConfig.getRateLimitMaxRequestsPerSecond() * 2) {
@@ -299,6 +301,7 @@ public class ThreatDetectionService {
                     autoBanConfig.getRateLimitBanDurationMinutes(),
                     null
                 );
+                contestMetrics.rateLimitHit("api", "blocked");
                 return false; // 차단
             }
         }
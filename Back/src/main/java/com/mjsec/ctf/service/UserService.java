@@ -37,11 +37,13 @@ public class UserService {
     private static final String[] ALLOWED_DOMAINS = {"@mju.ac.kr", "@kku.ac.kr", "@sju.ac.kr"};
     private final TeamRepository teamRepository;
     private final SubmissionRepository submissionRepository;
+    private final TeamHistoryReadModel teamHistoryReadModel;
 
     public UserService(TeamService teamService, UserRepository userRepository, PasswordEncoder passwordEncoder,
                        AuthCodeService authCodeService, JwtService jwtService, RefreshRepository refreshRepository,
                        BlacklistedTokenRepository blacklistedTokenRepository, HistoryRepository historyRepository,
-                       ChallengeRepository challengeRepository, LeaderboardRepository leaderboardRepository, TeamRepository teamRepository, SubmissionRepository submissionRepository) {
+                       ChallengeRepository challengeRepository, LeaderboardRepository leaderboardRepository, TeamRepository teamRepository, SubmissionRepository submissionRepository,
+                       TeamHistoryReadModel teamHistoryReadModel) {
 
         this.teamService = teamService;
         this.userRepository = userRepository;
@@ -55,6 +57,7 @@ public class UserService {
         this.leaderboardRepository = leaderboardRepository;
         this.teamRepository = teamRepository;
         this.submissionRepository = submissionRepository;
+        this.teamHistoryReadModel = teamHistoryReadModel;
     }
 
     //회원가입 로직
@@ -206,11 +209,10 @@ public class UserService {
                     .orElse(null);
 
             if (team != null) {
-                team.removeMember(user.getUserId());
-                teamRepository.save(team);
                 log.info("delete user: {} from team: {}", userId, team.getTeamId());
             }
 
+            teamHistoryReadModel.invalidate(user.getCurrentTeamId());
             user.leaveTeam();
             userRepository.save(user);
         }
@@ -269,37 +271,8 @@ public class UserService {
         TeamEntity team = teamService.getUserTeam(user.getCurrentTeamId())
                 .orElseThrow(() -> new RestApiException(ErrorCode.TEAM_NOT_FOUND));
 
-        List<Long> solvedChallengeIds = team.getSolvedChallengeIds();
-
-        if (solvedChallengeIds == null || solvedChallengeIds.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        List<HistoryEntity> teamHistoryEntities = historyRepository
-                .findByChallengeIdInAndLoginIdInAndUserDeletedFalse(
-                        solvedChallengeIds,
-                        teamService.getTeamMemberLoginIds(team.getMemberUserIds())
-                );
-
-        if (teamHistoryEntities == null || teamHistoryEntities.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        return teamHistoryEntities.stream()
-                .map(historyEntity -> {
-                    ChallengeEntity challenge = challengeRepository.findById(historyEntity.getChallengeId())
-                            .orElseThrow(() -> new RestApiException(ErrorCode.CHALLENGE_NOT_FOUND));
-
-                    return new HistoryDto(
-                            historyEntity.getLoginId(),
-                            historyEntity.getChallengeId().toString(),
-                            challenge.getTitle(),
-                            historyEntity.getSolvedTime(),
-                            challenge.getPoints(),
-                            historyEntity.getUniv()
-                    );
-                })
-                .collect(Collectors.toList());
+        // 팀이 푼 문제에 대한 팀원 개인 풀이 기록 (팀 단위 읽기 모델)
+        return teamHistoryReadModel.getMemberHistory(team);
     }
 
     //어드민 회원가입
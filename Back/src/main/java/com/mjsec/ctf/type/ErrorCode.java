@@ -11,6 +11,7 @@ public enum ErrorCode {
     UNAUTHORIZED(HttpStatus.UNAUTHORIZED, "인증이 필요합니다."),
     BAD_REQUEST(HttpStatus.BAD_REQUEST, "잘못된 요청입니다."),
     INTERNAL_SERVER_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "내부 서버 오류가 발생했습니다."),
+    SERVER_BUSY(HttpStatus.SERVICE_UNAVAILABLE, "요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요."),
 
     DUPLICATE_ID(HttpStatus.BAD_REQUEST, "사용할 수 없는 아이디입니다."),
     INVALID_ID_LENGTH_MIN(HttpStatus.BAD_REQUEST, "로그인 아이디는 최소 4자 이상이어야 합니다."),
@@ -26,7 +27,9 @@ public enum ErrorCode {
     EMAIL_VERIFICATION_PENDING(HttpStatus.UNAUTHORIZED, "이메일 인증이 완료되지 않았습니다. 인증을 진행해주세요."),
     FAILED_VERIFICATION(HttpStatus.BAD_REQUEST, "인증 코드가 올바르지 않거나 만료되었습니다."),
     AUTH_ATTEMPT_EXCEEDED(HttpStatus.BAD_REQUEST, "인증 횟수를 초과했습니다. 다시 시도해주세요."),
+    AUTH_CODE_SEND_LIMIT_EXCEEDED(HttpStatus.TOO_MANY_REQUESTS, "인증 코드 요청이 너무 많습니다. 잠시 후 다시 시도해주세요."),
     EMPTY_EMAIL(HttpStatus.BAD_REQUEST, "이메일을 입력해주세요."),
+    EMAIL_QUEUE_FULL(HttpStatus.SERVICE_UNAVAILABLE, "메일 발송 요청이 많습니다. 잠시 후 다시 시도해주세요."),
 
     EMPTY_PASSWORD(HttpStatus.BAD_REQUEST, "비밀번호를 입력해주세요."),
     INVALID_PASSWORD_LENGTH_MIN(HttpStatus.BAD_REQUEST, "비밀번호는 최소 8자 이상이어야 합니다."),
@@ -0,0 +1,12 @@
+package com.mjsec.ctf.type;
+
+// 마일리지 원장 사유
+public enum MileageReason {
+    OPENING,            // 원장 도입 시점 잔액 이월
+    SOLVE,              // 문제 풀이 보상
+    FIRST_BLOOD,        // 퍼스트 블러드 보너스 (이전 포함)
+    ADMIN_GRANT,        // 관리자 부여
+    PAYMENT,            // 부스 결제
+    REFUND,             // 결제 철회
+    REVOKE              // 풀이 철회에 따른 회수
+}
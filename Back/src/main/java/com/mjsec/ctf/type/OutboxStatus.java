@@ -0,0 +1,8 @@
+package com.mjsec.ctf.type;
+
+// 알림 아웃박스 행 상태
+public enum OutboxStatus {
+    PENDING,            // 전송 대기 (재시도 포함)
+    SENT,               // 전송 완료
+    FAILED              // 최종 실패 (재시도 한도 초과 또는 4xx)
+}
@@ -41,7 +41,9 @@ public enum ResponseMessage {
     GET_TEAM_PROFILE_SUCCESS("팀 프로필 조회 성공"),
     GET_ALL_TEAMS_SUCCESS("모든 팀 조회 성공"),
     DELETE_TEAM_SUCCESS("팀 삭제 성공"),
+    GET_SOLVE_MATRIX_SUCCESS("팀별 풀이 현황 조회 성공"),
     GRANT_MILEAGE_SUCCESS("마일리지 부여 성공"),
+    RECONCILE_MILEAGE_SUCCESS("마일리지 원장 대조 성공"),
 
     SIGNATURE_INSERT_SUCCESS("시그니처가 등록되었습니다."),
     SIGNATURE_CHECK_SUCCESS("시그니처 코드 확인"),
@@ -57,6 +59,10 @@ public enum ResponseMessage {
     GET_BAN_INFO_SUCCESS("IP 차단 정보 조회 성공"),
     IP_BAN_EXTEND_SUCCESS("IP 차단 연장 성공"),
     CACHE_REBUILD_SUCCESS("캐시 재구축 성공"),
+    GET_ALERT_STATS_SUCCESS("알림 전송 지표 조회 성공"),
+    GET_FILTER_PROFILE_SUCCESS("필터 지연 통계 조회 성공"),
+    GET_SLOW_REQUESTS_SUCCESS("느린 요청 표본 조회 성공"),
+    CLEAR_SLOW_REQUESTS_SUCCESS("느린 요청 표본 초기화 성공"),
     IP_ACTIVITY_LOG_SUCCESS("IP 활동 로그 조회 성공"),
     IP_SUSPICIOUS_LIST_SUCCESS("의심스러운 IP 목록 조회 성공"),
 
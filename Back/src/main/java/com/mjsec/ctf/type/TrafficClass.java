@@ -0,0 +1,8 @@
+package com.mjsec.ctf.type;
+
+// 벌크헤드 트래픽 분류 (분류마다 전용 실행기/대기열 한도)
+public enum TrafficClass {
+    SUBMIT,             // 플래그 제출
+    DOWNLOAD,           // 문제 파일 다운로드 (GCS)
+    ADMIN               // 무거운 관리자 작업 (전체 재계산, 팀 삭제)
+}
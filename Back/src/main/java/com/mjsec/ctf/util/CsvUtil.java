@@ -0,0 +1,19 @@
+package com.mjsec.ctf.util;
+
+/**
+ * CSV 내보내기 공용 유틸리티 (RFC 4180)
+ * 쉼표, 큰따옴표, 줄바꿈(\n, \r)이 들어간 값은 큰따옴표로 감싸고 내부 큰따옴표는 두 번 씀
+ */
+public final class CsvUtil {
+
+    private CsvUtil() {
+    }
+
+    public static String escape(String s) {
+        if (s == null) return "";
+        if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0) {
+            return "\"" + s.replace("\"", "\"\"") + "\"";
+        }
+        return s;
+    }
+}
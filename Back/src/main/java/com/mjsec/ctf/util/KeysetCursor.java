@@ -0,0 +1,32 @@
+package com.mjsec.ctf.util;
+
+import com.mjsec.ctf.exception.RestApiException;
+import com.mjsec.ctf.type.ErrorCode;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * (시각, id) 키셋 페이지네이션 커서
+ * 클라이언트에는 base64url("시각|id") 문자열로 전달
+ */
+public record KeysetCursor(LocalDateTime time, Long id) {
+
+    public String encode() {
+        String raw = time + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 비어 있으면 null (첫 페이지), 형식이 잘못되면 400
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new RestApiException(ErrorCode.BAD_REQUEST, "잘못된 cursor 값입니다.");
+        }
+    }
+}
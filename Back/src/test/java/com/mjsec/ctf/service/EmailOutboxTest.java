@@ -0,0 +1,214 @@
+package com.mjsec.ctf.service;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.mail.MailSenderAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.net.SocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/*
+ * EmailOutbox 통합 테스트 (GreenMail 인프로세스 SMTP)
+ * - 테스트마다 새 컨텍스트(아웃박스 워커 1개)와 새 GreenMail 서버
+ * - SMTP 연결은 CountingSocketFactory 를 거치게 하여 연결 수를 세고, 연결을 잠시 막거나 실패시킴
+ */
+@SpringBootTest(classes = {EmailOutbox.class, EmailOutboxTest.MailTestConfig.class},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class EmailOutboxTest {
+
+    private static final long WAIT_MS = 10_000;
+    private static final CountingSocketFactory SOCKETS = new CountingSocketFactory();
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    @Autowired
+    private EmailOutbox emailOutbox;
+
+    @TestConfiguration
+    @ImportAutoConfiguration(MailSenderAutoConfiguration.class)
+    static class MailTestConfig {
+
+        // spring.mail.* 로 만든 JavaMailSenderImpl 에 연결 계수용 소켓 팩토리 연결
+        @Bean
+        static BeanPostProcessor countingMailSocketFactory() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                    if (bean instanceof JavaMailSenderImpl impl) {
+                        impl.getJavaMailProperties().put("mail.smtp.socketFactory", SOCKETS);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void resetSockets() {
+        SOCKETS.reset();
+    }
+
+    @Test
+    @DisplayName("같은 수신자에게 대기 중인 메일은 최신 내용으로 한 통만 보낸다")
+    void deduplicatesPendingMailPerRecipient() throws Exception {
+        // 워커가 첫 메일의 연결 단계에서 멈춘 동안 나머지를 적재
+        SOCKETS.hold();
+        emailOutbox.enqueue("first@mjsec.test", "인증 코드", "000000");
+        SOCKETS.awaitAttempts(1);
+
+        emailOutbox.enqueue("user@mjsec.test", "인증 코드", "111111");
+        emailOutbox.enqueue("USER@mjsec.test ", "인증 코드", "222222");
+        emailOutbox.enqueue("other@mjsec.test", "인증 코드", "333333");
+        SOCKETS.release();
+
+        assertThat(greenMail.waitForIncomingEmail(WAIT_MS, 3)).isTrue();
+        MimeMessage[] received = greenMail.getReceivedMessagesForDomain("user@mjsec.test");
+        assertThat(received).hasSize(1);
+        assertThat(GreenMailUtil.getBody(received[0])).contains("222222").doesNotContain("111111");
+        assertThat(greenMail.getReceivedMessages()).hasSize(3);
+        assertThat(emailOutbox.stats().deduplicated()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("연결에 실패한 메일은 백오프 후 재시도해 전송한다")
+    void retriesAfterConnectFailure() throws Exception {
+        SOCKETS.failNext(1);
+        emailOutbox.enqueue("retry@mjsec.test", "인증 코드", "123456");
+
+        assertThat(greenMail.waitForIncomingEmail(WAIT_MS, 1)).isTrue();
+        assertThat(GreenMailUtil.getBody(greenMail.getReceivedMessages()[0])).contains("123456");
+        assertThat(SOCKETS.attempts()).isEqualTo(2);
+
+        // 전송 카운터는 SMTP 응답 이후 증가하므로 잠시 기다림
+        await().atMost(Duration.ofMillis(WAIT_MS)).until(() -> emailOutbox.stats().sent() == 1);
+        assertThat(emailOutbox.stats().failed()).isZero();
+    }
+
+    @Test
+    @DisplayName("여러 배치를 하나의 SMTP 연결로 보낸다")
+    void reusesConnectionAcrossBatches() throws Exception {
+        SOCKETS.hold();
+        emailOutbox.enqueue("batch0@mjsec.test", "인증 코드", "000000");
+        SOCKETS.awaitAttempts(1);
+
+        // 첫 배치 전송 후 같은 연결로 다음 배치 전송
+        for (int i = 1; i <= 5; i++) {
+            emailOutbox.enqueue("batch" + i + "@mjsec.test", "인증 코드", "00000" + i);
+        }
+        SOCKETS.release();
+
+        assertThat(greenMail.waitForIncomingEmail(WAIT_MS, 6)).isTrue();
+        assertThat(greenMail.getReceivedMessages()).hasSize(6);
+        assertThat(SOCKETS.attempts()).isEqualTo(1);
+        await().atMost(Duration.ofMillis(WAIT_MS)).until(() -> emailOutbox.stats().sent() == 6);
+    }
+
+    // 소켓 생성 횟수 계수 + 연결 보류/실패 주입
+    static final class CountingSocketFactory extends SocketFactory {
+
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        void reset() {
+            attempts.set(0);
+            failures.set(0);
+            gate.countDown();
+            gate = new CountDownLatch(0);
+        }
+
+        void hold() {
+            gate = new CountDownLatch(1);
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        void failNext(int count) {
+            failures.set(count);
+        }
+
+        int attempts() {
+            return attempts.get();
+        }
+
+        void awaitAttempts(int expected) {
+            await().atMost(Duration.ofMillis(WAIT_MS)).until(() -> attempts.get() >= expected);
+        }
+
+        private void beforeConnect() throws IOException {
+            attempts.incrementAndGet();
+            try {
+                if (!gate.await(WAIT_MS, TimeUnit.MILLISECONDS)) {
+                    throw new IOException("gate timeout");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            if (failures.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0) {
+                throw new IOException("injected connect failure");
+            }
+        }
+
+        @Override
+        public Socket createSocket() throws IOException {
+            beforeConnect();
+            return new Socket();
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException {
+            beforeConnect();
+            return new Socket(host, port);
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+            beforeConnect();
+            return new Socket(host, port, localHost, localPort);
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int port) throws IOException {
+            beforeConnect();
+            return new Socket(host, port);
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+            beforeConnect();
+            return new Socket(address, port, localAddress, localPort);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+#!/usr/bin/env python3
+"""
+CTF 스레드 모드(플랫폼 / 가상 스레드) 부하 비교 테스트
+
+측정 결과와 환경: docs/THREAD_MODE_LOAD_TEST.md (실행별 원본 JSON: thread_mode_results/)
+
+테스트 시나리오 (사용자마다 로그인 후 ROUNDS 회 반복):
+1. 대회 시간 조회 (/api/contest-time)
+2. 문제 목록 조회 (/api/challenges)
+3. 오답 제출 (/api/challenges/{id}/submit) - 플래그 검증(BCrypt) + DB 기록, 반복 시 Wait 응답
+   --flag 로 정답 플래그를 주면 회차마다 다음 문제에 정답 제출 (팀 풀이 반영·락 경로 측정)
+
+사용법:
+    # 플랫폼 스레드 모드 (CTF_VIRTUAL_THREADS=false 로 서버 기동)
+    python thread_mode_load_test.py --mode platform
+
+    # 가상 스레드 모드 (CTF_VIRTUAL_THREADS=true, Java 21 이미지로 서버 기동)
+    python thread_mode_load_test.py --mode virtual
+
+    # 결과 비교
+    python thread_mode_load_test.py --mode compare
+
+    # 정답 제출 시나리오 (결과는 thread_mode_<mode>_correct.json, 매 실행 전 DB 를 같은 상태로 복원)
+    python thread_mode_load_test.py --mode virtual --flag 'MJSEC{...}'
+
+같은 데이터/같은 서버 사양에서 두 모드를 번갈아 실행해야 비교가 의미 있음
+가상 스레드 모드에서는 -Djdk.tracePinnedThreads=short 로 기동해 고정(pinning) 로그도 함께 확인
+"""
+
+import argparse
+import concurrent.futures
+import json
+import statistics
+import time
+from datetime import datetime
+from typing import Dict, List
+
+import requests
+
+from index_performance_test import CTFClient, load_test_users
+
+# ==========================================
+# 설정
+# ==========================================
+
+BASE_URL = "http://localhost:8080"
+CONCURRENT_USERS = 200  # 동시 접속 사용자 수
+ROUNDS = 5              # 사용자당 반복 횟수
+TEST_CHALLENGE_ID = 1   # 오답 제출할 챌린지 ID
+WRONG_FLAG = "MJSEC{load-test-wrong-flag}"
+
+ENDPOINTS = [('contest_time', '대회 시간'), ('challenges', '문제 목록'), ('submit', '오답 제출')]
+
+# ==========================================
+# 요청
+# ==========================================
+
+def timed(session: requests.Session, method: str, url: str, **kwargs) -> Dict:
+    start_time = time.time()
+    try:
+        response = session.request(method, url, timeout=30, **kwargs)
+        status = response.status_code
+    except Exception:
+        status = -1
+    return {'status': status, 'time': (time.time() - start_time) * 1000}
+
+def run_user(user: Dict, rounds: int, flag: str) -> Dict[str, List[Dict]]:
+    """단일 사용자: 로그인 1회 + 시나리오 rounds 회 (정답 플래그면 회차마다 다음 문제에 제출)"""
+    client = CTFClient(BASE_URL)
+    samples = {key: [] for key, _ in ENDPOINTS}
+
+    success, _, token = client.login(user['loginId'], user['password'])
+    if not success:
+        return samples
+
+    session = client.session
+    headers = {"Authorization": f"Bearer {token}"}
+    for round_index in range(rounds):
+        challenge_id = TEST_CHALLENGE_ID + round_index if flag != WRONG_FLAG else TEST_CHALLENGE_ID
+        samples['contest_time'].append(timed(session, 'GET', f"{BASE_URL}/api/contest-time"))
+        samples['challenges'].append(timed(session, 'GET', f"{BASE_URL}/api/challenges", headers=headers))
+        samples['submit'].append(timed(session, 'POST', f"{BASE_URL}/api/challenges/{challenge_id}/submit",
+                                       headers=headers, json={"submitFlag": flag}))
+    return samples
+
+def run_load(users: List[Dict], concurrent_count: int, rounds: int, flag: str):
+    print(f"\n🚀 부하 테스트 시작: 동시 {concurrent_count}명 × {rounds}회\n")
+
+    merged = {key: [] for key, _ in ENDPOINTS}
+    start_time = time.time()
+    with concurrent.futures.ThreadPoolExecutor(max_workers=concurrent_count) as executor:
+        futures = [executor.submit(run_user, user, rounds, flag) for user in users[:concurrent_count]]
+        for future in concurrent.futures.as_completed(futures):
+            for key, values in future.result().items():
+                merged[key].extend(values)
+    elapsed = time.time() - start_time
+
+    print(f"총 소요 시간: {elapsed:.2f}초\n")
+    return merged, elapsed
+
+# ==========================================
+# 결과 분석
+# ==========================================
+
+def percentile(values: List[float], p: float) -> float:
+    ordered = sorted(values)
+    return ordered[min(len(ordered) - 1, int(len(ordered) * p))]
+
+def analyze(merged: Dict[str, List[Dict]], elapsed: float, mode: str, concurrent_count: int, rounds: int,
+            correct: bool):
+    stats = {
+        'mode': mode,
+        'scenario': 'correct' if correct else 'wrong',
+        'timestamp': datetime.now().isoformat(),
+        'concurrent_users': concurrent_count,
+        'rounds': rounds,
+        'elapsed_sec': elapsed,
+    }
+    total = 0
+    for key, _ in ENDPOINTS:
+        samples = merged[key]
+        ok_times = [s['time'] for s in samples if 200 <= s['status'] < 300]
+        total += len(samples)
+        stats[key] = {
+            'requests': len(samples),
+            'ok': len(ok_times),
+            'busy_503': sum(1 for s in samples if s['status'] == 503),
+            'errors': sum(1 for s in samples if s['status'] == -1 or (s['status'] >= 400 and s['status'] != 503)),
+            'avg': statistics.mean(ok_times) if ok_times else 0,
+            'p50': percentile(ok_times, 0.50) if ok_times else 0,
+            'p95': percentile(ok_times, 0.95) if ok_times else 0,
+            'p99': percentile(ok_times, 0.99) if ok_times else 0,
+        }
+    stats['throughput_rps'] = total / elapsed if elapsed > 0 else 0
+
+    print(f"📊 [{mode.upper()}] 처리량: {stats['throughput_rps']:.1f} req/s\n")
+    print(f"{'항목':10s} {'요청':>6s} {'성공':>6s} {'503':>5s} {'오류':>5s} {'평균':>8s} {'p50':>8s} {'p95':>8s} {'p99':>8s}")
+    for key, name in ENDPOINTS:
+        s = stats[key]
+        if key == 'submit' and correct:
+            name = '정답 제출'
+        print(f"{name:10s} {s['requests']:6d} {s['ok']:6d} {s['busy_503']:5d} {s['errors']:5d} "
+              f"{s['avg']:6.0f}ms {s['p50']:6.0f}ms {s['p95']:6.0f}ms {s['p99']:6.0f}ms")
+
+    filename = f"thread_mode_{mode}_correct.json" if correct else f"thread_mode_{mode}.json"
+    with open(filename, 'w', encoding='utf-8') as f:
+        json.dump(stats, f, ensure_ascii=False, indent=2)
+    print(f"\n📄 결과 저장: {filename}\n")
+
+def compare():
+    try:
+        with open('thread_mode_platform.json', 'r') as f:
+            platform = json.load(f)
+        with open('thread_mode_virtual.json', 'r') as f:
+            virtual = json.load(f)
+    except FileNotFoundError as e:
+        print(f"❌ 오류: {e}")
+        print("   platform 과 virtual 테스트를 먼저 실행해주세요.")
+        return
+
+    if (platform['concurrent_users'], platform['rounds']) != (virtual['concurrent_users'], virtual['rounds']):
+        print("⚠️  두 결과의 동시 사용자 수/반복 횟수가 달라 비교가 부정확할 수 있습니다.\n")
+
+    print(f"📊 스레드 모드 비교 (플랫폼 → 가상)\n")
+    change = (virtual['throughput_rps'] - platform['throughput_rps']) / platform['throughput_rps'] * 100
+    print(f"처리량: {platform['throughput_rps']:.1f} → {virtual['throughput_rps']:.1f} req/s ({change:+.1f}%)\n")
+
+    print(f"{'항목':10s} {'지표':5s} {'플랫폼':>10s} {'가상':>10s} {'변화':>9s}")
+    for key, name in ENDPOINTS:
+        for metric in ('p50', 'p95', 'p99'):
+            before = platform[key][metric]
+            after = virtual[key][metric]
+            diff = ((after - before) / before * 100) if before else 0
+            print(f"{name:10s} {metric:5s} {before:8.0f}ms {after:8.0f}ms {diff:+8.1f}%")
+        print(f"{name:10s} {'503':5s} {platform[key]['busy_503']:10d} {virtual[key]['busy_503']:10d}")
+    print()
+
+# ==========================================
+# 메인
+# ==========================================
+
+def main():
+    parser = argparse.ArgumentParser(description='CTF 스레드 모드 부하 비교 테스트')
+    parser.add_argument('--mode', choices=['platform', 'virtual', 'compare'], required=True,
+                        help='platform: 플랫폼 스레드 | virtual: 가상 스레드 | compare: 결과 비교')
+    parser.add_argument('--users', type=int, default=CONCURRENT_USERS,
+                        help=f'동시 접속 사용자 수 (기본값: {CONCURRENT_USERS})')
+    parser.add_argument('--rounds', type=int, default=ROUNDS,
+                        help=f'사용자당 반복 횟수 (기본값: {ROUNDS})')
+    parser.add_argument('--flag', default=WRONG_FLAG,
+                        help='제출할 플래그 (정답 플래그를 주면 회차마다 다음 문제에 정답 제출, 결과는 *_correct.json)')
+    parser.add_argument('--csv', default='generated_passwords.csv',
+                        help='사용자 정보 CSV 파일 경로')
+    args = parser.parse_args()
+
+    print("=" * 80)
+    print(f"🎯 CTF 스레드 모드 부하 비교 테스트 | 서버: {BASE_URL} | 모드: {args.mode.upper()}")
+    print("=" * 80)
+
+    if args.mode == 'compare':
+        compare()
+        return
+
+    users = load_test_users(args.csv)
+    if not users:
+        return
+    if len(users) < args.users:
+        print(f"⚠️  경고: 요청한 {args.users}명보다 적은 {len(users)}명만 사용 가능")
+        args.users = len(users)
+
+    merged, elapsed = run_load(users, args.users, args.rounds, args.flag)
+    analyze(merged, elapsed, args.mode, args.users, args.rounds, args.flag != WRONG_FLAG)
+
+if __name__ == "__main__":
+    main()